@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.groovyscripting.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.SourceUnit;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovySystem;
+
+/**
+ * A {@link GroovyClassLoader} that keeps the bytecode of compiled scripts in a directory, so unchanged scripts do not
+ * need to be compiled again, e.g. after a restart.
+ *
+ * The cache key is a hash of the script text and name, the Groovy and openHAB versions, and the names, sizes and
+ * modification times of all files in the library directory, so changing the shared classes in the library directory
+ * invalidates all cached scripts. Only the classes of scripts are cached, the classes of the library directory are
+ * compiled and loaded by this class loader as before, also when a cached script uses them.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class CachingGroovyClassLoader extends GroovyClassLoader {
+    private static final int FORMAT_VERSION = 1;
+    private static final String CACHE_FILE_EXTENSION = ".classes";
+    private static final Duration UNUSED_ENTRY_LIFETIME = Duration.ofDays(30);
+    // names generated by the script engine for scripts without a file name, they depend on the loading order
+    private static final Pattern GENERATED_SCRIPT_NAME = Pattern.compile("Script\\d+\\.groovy");
+
+    private final Logger logger = LoggerFactory.getLogger(CachingGroovyClassLoader.class);
+
+    private final Path cacheDirectory;
+    private final Path libraryDirectory;
+    private final String openHABVersion;
+    // the bytecode captured while compiling a script on the current thread
+    private final ThreadLocal<@Nullable Capture> capture = new ThreadLocal<>();
+
+    /**
+     * The classes generated for a script, the main class first.
+     */
+    private static class Capture {
+        private @Nullable ClassCollector collector;
+        private final Map<String, byte[]> classes = new LinkedHashMap<>();
+    }
+
+    /**
+     * @param parent the parent class loader
+     * @param cacheDirectory the directory the bytecode is stored in
+     * @param libraryDirectory the directory of the shared classes
+     */
+    public CachingGroovyClassLoader(ClassLoader parent, Path cacheDirectory, Path libraryDirectory) {
+        this(parent, cacheDirectory, libraryDirectory, OpenHAB.getVersion());
+    }
+
+    /**
+     * @param parent the parent class loader
+     * @param cacheDirectory the directory the bytecode is stored in
+     * @param libraryDirectory the directory of the shared classes
+     * @param openHABVersion the openHAB version, cached bytecode of other versions is not used
+     */
+    CachingGroovyClassLoader(ClassLoader parent, Path cacheDirectory, Path libraryDirectory, String openHABVersion) {
+        super(parent);
+        this.cacheDirectory = cacheDirectory;
+        this.libraryDirectory = libraryDirectory;
+        this.openHABVersion = openHABVersion;
+    }
+
+    @Override
+    public Class<?> parseClass(@Nullable GroovyCodeSource codeSource, boolean shouldCacheSource)
+            throws CompilationFailedException {
+        if (codeSource == null || codeSource.getFile() != null || codeSource.getScriptText() == null) {
+            // library classes and other sources are not cached
+            return super.parseClass(codeSource, shouldCacheSource);
+        }
+
+        String key = computeKey(codeSource.getScriptText(), codeSource.getName());
+        Path cacheFile = key == null ? null : cacheDirectory.resolve(key + CACHE_FILE_EXTENSION);
+        if (cacheFile != null) {
+            Class<?> cachedClass = load(cacheFile);
+            if (cachedClass != null) {
+                logger.debug("Loaded script '{}' from bytecode cache", codeSource.getName());
+                return cachedClass;
+            }
+        }
+
+        Capture previousCapture = capture.get();
+        Capture scriptCapture = new Capture();
+        capture.set(scriptCapture);
+        Class<?> scriptClass;
+        try {
+            scriptClass = super.parseClass(codeSource, shouldCacheSource);
+        } finally {
+            capture.set(previousCapture);
+        }
+        if (cacheFile != null && scriptCapture.classes.containsKey(scriptClass.getName())) {
+            store(cacheFile, scriptClass.getName(), scriptCapture.classes);
+        }
+        return scriptClass;
+    }
+
+    @Override
+    protected ClassCollector createCollector(@Nullable CompilationUnit unit, @Nullable SourceUnit su) {
+        Capture scriptCapture = capture.get();
+        if (scriptCapture == null || scriptCapture.collector != null) {
+            // not compiling a script or compiling a library class needed by the script
+            return super.createCollector(unit, su);
+        }
+        ClassCollector collector = new ClassCollector(new InnerLoader(this), unit, su) {
+            @Override
+            protected Class<?> createClass(byte @Nullable [] code, @Nullable ClassNode classNode) {
+                // library classes used by the script are compiled in the same compilation unit, they are not cached
+                // with the script but resolved by this class loader, so scripts sharing them get the same classes
+                if (code != null && classNode != null && classNode.getModule() != null
+                        && classNode.getModule().getContext() == su) {
+                    scriptCapture.classes.put(classNode.getName(), code);
+                }
+                return super.createClass(code, classNode);
+            }
+        };
+        scriptCapture.collector = collector;
+        return collector;
+    }
+
+    /**
+     * Deletes the cached bytecode that has not been used for a while, e.g. of removed or changed scripts.
+     */
+    public void purge() {
+        Instant expiry = Instant.now().minus(UNUSED_ENTRY_LIFETIME);
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(CACHE_FILE_EXTENSION)).toList()) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(expiry)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // nothing cached yet
+        } catch (IOException e) {
+            logger.debug("Failed to purge the bytecode cache: {}", e.getMessage());
+        }
+    }
+
+    private @Nullable String computeKey(String scriptText, @Nullable String scriptName) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, Integer.toString(FORMAT_VERSION));
+            update(digest, GroovySystem.getVersion());
+            update(digest, openHABVersion);
+            update(digest, scriptName == null || GENERATED_SCRIPT_NAME.matcher(scriptName).matches() ? ""
+                    : scriptName);
+            update(digest, scriptText);
+            if (Files.isDirectory(libraryDirectory)) {
+                try (Stream<Path> files = Files.walk(libraryDirectory)) {
+                    for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                        update(digest, libraryDirectory.relativize(file).toString());
+                        update(digest, Long.toString(Files.size(file)));
+                        update(digest, Long.toString(Files.getLastModifiedTime(file).toMillis()));
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            logger.debug("Failed to compute the bytecode cache key, not caching the script: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        // separator, so the concatenation of different values cannot collide
+        digest.update((byte) 0);
+    }
+
+    private @Nullable Class<?> load(Path cacheFile) {
+        Map<String, byte[]> classes = new HashMap<>();
+        String mainClassName;
+        try (InputStream is = Files.newInputStream(cacheFile);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            mainClassName = in.readUTF();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] code = new byte[in.readInt()];
+                in.readFully(code);
+                classes.put(name, code);
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.debug("Failed to read cached bytecode from '{}': {}", cacheFile, e.getMessage());
+            return null;
+        }
+
+        try {
+            Class<?> mainClass = new CachedClassLoader(this, classes).loadClass(mainClassName);
+            // keep used entries from being purged
+            Files.setLastModifiedTime(cacheFile, FileTime.from(Instant.now()));
+            return mainClass;
+        } catch (ClassNotFoundException | LinkageError e) {
+            logger.debug("Failed to define cached classes from '{}': {}", cacheFile, e.getMessage());
+            return null;
+        } catch (IOException e) {
+            logger.debug("Failed to update '{}': {}", cacheFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(Path cacheFile, String mainClassName, Map<String, byte[]> classes) {
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path tempFile = Files.createTempFile(cacheDirectory, "script", ".tmp");
+            try (OutputStream os = Files.newOutputStream(tempFile);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(mainClassName);
+                out.writeInt(classes.size());
+                for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.debug("Failed to write bytecode cache '{}': {}", cacheFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Defines the classes of one cached script. Like the classes compiled by the {@link GroovyClassLoader}, they get a
+     * class loader of their own, so a script can be loaded again after it has changed.
+     */
+    private static class CachedClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        private CachedClassLoader(ClassLoader parent, Map<String, byte[]> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(@Nullable String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass == null) {
+                    byte[] code = classes.remove(name);
+                    if (code == null) {
+                        return super.loadClass(name, resolve);
+                    }
+                    loadedClass = defineClass(name, code, 0, code.length);
+                }
+                if (resolve) {
+                    resolveClass(loadedClass);
+                }
+                return loadedClass;
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@
 package org.openhab.automation.groovyscripting.internal;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -38,16 +39,22 @@ import groovy.lang.GroovyClassLoader;
 public class GroovyScriptEngineFactory extends AbstractScriptEngineFactory {
 
     private static final String FILE_DIRECTORY = "automation" + File.separator + "groovy";
+    private static final Path CACHE_DIRECTORY = Path.of(OpenHAB.getUserDataFolder(), "cache",
+            GroovyScriptEngineFactory.class.getPackageName(), "classes");
     private final org.codehaus.groovy.jsr223.GroovyScriptEngineFactory factory = new org.codehaus.groovy.jsr223.GroovyScriptEngineFactory();
 
     private final List<String> scriptTypes = (List<String>) Stream.of(factory.getExtensions(), factory.getMimeTypes())
             .flatMap(List::stream) //
             .collect(Collectors.toUnmodifiableList());
 
-    private final GroovyClassLoader gcl = new GroovyClassLoader(GroovyScriptEngineFactory.class.getClassLoader());
+    private final GroovyClassLoader gcl;
 
     public GroovyScriptEngineFactory() {
         String scriptDir = OpenHAB.getConfigFolder() + File.separator + FILE_DIRECTORY;
+        CachingGroovyClassLoader cachingClassLoader = new CachingGroovyClassLoader(
+                GroovyScriptEngineFactory.class.getClassLoader(), CACHE_DIRECTORY, Path.of(scriptDir));
+        cachingClassLoader.purge();
+        gcl = cachingClassLoader;
         logger.debug("Adding script directory {} to the GroovyScriptEngine class path.", scriptDir);
         gcl.addClasspath(scriptDir);
     }
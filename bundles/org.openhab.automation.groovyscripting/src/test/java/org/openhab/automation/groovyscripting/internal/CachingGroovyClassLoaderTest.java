@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.groovyscripting.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+
+/**
+ * Tests the {@link CachingGroovyClassLoader}.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class CachingGroovyClassLoaderTest {
+
+    private static final String SCRIPT1 = "Counter.increment()";
+    private static final String SCRIPT2 = "Counter.increment() + 10";
+
+    private @TempDir @NonNullByDefault({}) Path tempDir;
+    private @NonNullByDefault({}) Path cacheDirectory;
+    private @NonNullByDefault({}) Path libraryDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        cacheDirectory = tempDir.resolve("cache");
+        libraryDirectory = Files.createDirectories(tempDir.resolve("lib"));
+        Files.writeString(libraryDirectory.resolve("Counter.groovy"), """
+                class Counter {
+                    static int count
+                    static int increment() { ++count }
+                }
+                """);
+    }
+
+    @Test
+    public void scriptsAreLoadedFromCache() throws Exception {
+        GroovyClassLoader compilingLoader = createClassLoader();
+        Class<?> compiledClass = parse(compilingLoader, SCRIPT1, "script1.groovy");
+        assertInstanceOf(GroovyClassLoader.InnerLoader.class, compiledClass.getClassLoader());
+        assertEquals(1, run(compiledClass));
+        assertEquals(1, countCacheFiles());
+
+        GroovyClassLoader cachingLoader = createClassLoader();
+        Class<?> cachedClass = parse(cachingLoader, SCRIPT1, "script1.groovy");
+        assertFalse(cachedClass.getClassLoader() instanceof GroovyClassLoader.InnerLoader);
+        assertEquals(1, run(cachedClass));
+    }
+
+    @Test
+    public void cachedScriptsShareLibraryClasses() throws Exception {
+        GroovyClassLoader compilingLoader = createClassLoader();
+        parse(compilingLoader, SCRIPT1, "script1.groovy");
+        parse(compilingLoader, SCRIPT2, "script2.groovy");
+        assertEquals(2, countCacheFiles());
+
+        GroovyClassLoader cachingLoader = createClassLoader();
+        Class<?> script1 = parse(cachingLoader, SCRIPT1, "script1.groovy");
+        Class<?> script2 = parse(cachingLoader, SCRIPT2, "script2.groovy");
+        assertFalse(script1.getClassLoader() instanceof GroovyClassLoader.InnerLoader);
+        assertFalse(script2.getClassLoader() instanceof GroovyClassLoader.InnerLoader);
+
+        // the library class is not cached with the scripts, so both scripts use the same class and its state
+        assertSame(script1.getClassLoader().loadClass("Counter"), script2.getClassLoader().loadClass("Counter"));
+        assertEquals(1, run(script1));
+        assertEquals(12, run(script2));
+    }
+
+    private GroovyClassLoader createClassLoader() {
+        GroovyClassLoader classLoader = new CachingGroovyClassLoader(getClass().getClassLoader(), cacheDirectory,
+                libraryDirectory, "test");
+        classLoader.addClasspath(libraryDirectory.toString());
+        return classLoader;
+    }
+
+    private Class<?> parse(GroovyClassLoader classLoader, String scriptText, String scriptName) {
+        return classLoader.parseClass(new GroovyCodeSource(scriptText, scriptName, "/groovy/script"));
+    }
+
+    private Object run(Class<?> scriptClass) {
+        return InvokerHelper.createScript(scriptClass, new Binding()).run();
+    }
+
+    private long countCacheFiles() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            return files.filter(file -> file.toString().endsWith(".classes")).count();
+        }
+    }
+}
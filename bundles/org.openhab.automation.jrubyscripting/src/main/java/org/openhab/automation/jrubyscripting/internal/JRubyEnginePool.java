@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jrubyscripting.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of {@link JRubyEngineWrapper}s whose Ruby runtimes have already been created and warmed up in the background,
+ * so loading a script, e.g. each of the script files at startup, does not have to wait for it.
+ *
+ * Every engine is handed out once and never returned, so each script still gets a runtime of its own.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class JRubyEnginePool {
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final Logger logger = LoggerFactory.getLogger(JRubyEnginePool.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Supplier<JRubyEngineWrapper> engineSupplier;
+
+    // guarded by this
+    private final Deque<JRubyEngineWrapper> engines = new ArrayDeque<>();
+    private int size;
+    private int pending;
+    private long generation;
+    private boolean disposed;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong createdEngines = new AtomicLong();
+    private final AtomicLong totalCreationNanos = new AtomicLong();
+
+    /**
+     * The statistics of the pool.
+     *
+     * @param size the configured number of pre-created engines
+     * @param available the number of engines currently in the pool
+     * @param hits the number of engines taken from the pool
+     * @param misses the number of engines that had to be created on demand, because the pool was empty
+     * @param createdEngines the number of engines created by the pool
+     * @param averageCreationMillis the average time to create and warm up an engine
+     */
+    public record Statistics(int size, int available, long hits, long misses, long createdEngines,
+            double averageCreationMillis) {
+    }
+
+    /**
+     * Creates a disabled pool, see {@link #configure(int)}.
+     *
+     * @param engineSupplier creates and warms up an engine with the current configuration
+     */
+    public JRubyEnginePool(Supplier<JRubyEngineWrapper> engineSupplier) {
+        this.engineSupplier = engineSupplier;
+        // creating a runtime is CPU bound, so several engines are created in parallel to fill the pool at startup
+        int threads = Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(threads, threads, THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("jrubyscripting-pool"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Changes the size of the pool. The runtimes of pooled engines created with the previous configuration are
+     * terminated.
+     *
+     * @param size the number of engines to keep pre-created, 0 disables the pool
+     */
+    public void configure(int size) {
+        List<JRubyEngineWrapper> discarded;
+        synchronized (this) {
+            this.size = Math.max(0, size);
+            generation++;
+            discarded = new ArrayList<>(engines);
+            engines.clear();
+            refill();
+        }
+        discarded.forEach(JRubyEngineWrapper::close);
+    }
+
+    /**
+     * Takes a pre-created engine from the pool.
+     *
+     * @return an engine that has not been used before, or <code>null</code> if the pool is disabled or empty
+     */
+    public @Nullable JRubyEngineWrapper poll() {
+        JRubyEngineWrapper engine;
+        synchronized (this) {
+            if (size == 0) {
+                return null;
+            }
+            engine = engines.poll();
+            refill();
+        }
+        if (engine != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("JRuby engine pool: {}", getStatistics());
+        }
+        return engine;
+    }
+
+    /**
+     * Stops creating engines and terminates the runtimes of the pooled ones.
+     */
+    public void dispose() {
+        List<JRubyEngineWrapper> discarded;
+        synchronized (this) {
+            disposed = true;
+            executor.shutdownNow();
+            discarded = new ArrayList<>(engines);
+            engines.clear();
+        }
+        discarded.forEach(JRubyEngineWrapper::close);
+    }
+
+    public synchronized Statistics getStatistics() {
+        long created = createdEngines.get();
+        double averageCreationMillis = created == 0 ? 0 : totalCreationNanos.get() / (double) created / 1_000_000;
+        return new Statistics(size, engines.size(), hits.get(), misses.get(), created, averageCreationMillis);
+    }
+
+    // guarded by this
+    private void refill() {
+        while (!disposed && engines.size() + pending < size) {
+            long engineGeneration = generation;
+            try {
+                executor.execute(() -> fill(engineGeneration));
+                pending++;
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    private void fill(long engineGeneration) {
+        JRubyEngineWrapper engine = null;
+        try {
+            long start = System.nanoTime();
+            engine = engineSupplier.get();
+            createdEngines.incrementAndGet();
+            totalCreationNanos.addAndGet(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to create JRuby engine for the pool: {}", e.getMessage());
+        }
+        JRubyEngineWrapper discarded = null;
+        synchronized (this) {
+            pending--;
+            if (engine != null) {
+                if (!disposed && engineGeneration == generation && engines.size() < size) {
+                    engines.add(engine);
+                } else {
+                    discarded = engine;
+                }
+                // replaces an engine of an outdated configuration, failed creations are retried with the next poll
+                refill();
+            }
+        }
+        if (discarded != null) {
+            discarded.close();
+        }
+    }
+}
@@ -26,7 +26,10 @@ import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.jruby.Ruby;
 import org.jruby.embed.jsr223.JRubyEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This is a wrapper for {@link JRubyEngine}.
@@ -39,15 +42,61 @@ import org.jruby.embed.jsr223.JRubyEngine;
 @NonNullByDefault
 public class JRubyEngineWrapper implements Compilable, Invocable, ScriptEngine {
 
+    private final Logger logger = LoggerFactory.getLogger(JRubyEngineWrapper.class);
+
     private final JRubyEngine engine;
 
     private static final String CONTEXT_VAR_NAME = "ctx";
     private static final String GLOBAL_VAR_NAME = "$" + CONTEXT_VAR_NAME;
 
+    // startup statistics, reported when the script file has been loaded
+    private long startNanos = System.nanoTime();
+    private long runtimeNanos;
+    private boolean pooled;
+    private long requireNanos;
+    private boolean loaded;
+
     JRubyEngineWrapper(JRubyEngine engine) {
         this.engine = Objects.requireNonNull(engine);
     }
 
+    /**
+     * Sets how the engine was provided to the script.
+     *
+     * @param startNanos the {@link System#nanoTime()} the script engine was requested
+     * @param runtimeNanos the time it took to provide the engine and its runtime
+     * @param pooled if the engine was taken from the pool
+     */
+    void setStartupStatistics(long startNanos, long runtimeNanos, boolean pooled) {
+        this.startNanos = startNanos;
+        this.runtimeNanos = runtimeNanos;
+        this.pooled = pooled;
+    }
+
+    /**
+     * Adds the time it took to inject the configured require statements.
+     *
+     * @param nanos the time
+     */
+    void addRequireStatistics(long nanos) {
+        requireNanos += nanos;
+    }
+
+    /**
+     * Terminates the Ruby runtime of the engine, e.g. of a pooled engine that is discarded without being used by a
+     * script. The engine must not be used afterwards.
+     */
+    void close() {
+        try {
+            // JRubyEngine does not expose its scripting container, so the runtime is looked up through Ruby
+            if (engine.eval("require 'jruby'; JRuby.runtime") instanceof Ruby runtime) {
+                runtime.tearDown(false);
+            }
+        } catch (ScriptException | RuntimeException e) {
+            logger.debug("Failed to terminate the JRuby runtime: {}", e.getMessage());
+        }
+    }
+
     @Override
     public CompiledScript compile(@Nullable String script) throws ScriptException {
         return new JRubyCompiledScriptWrapper(engine.compile(script));
@@ -140,20 +189,43 @@ public class JRubyEngineWrapper implements Compilable, Invocable, ScriptEngine {
 
     @Override
     public Object eval(@Nullable Reader reader) throws ScriptException {
-        Object ctx = getBindings(ScriptContext.ENGINE_SCOPE).get(CONTEXT_VAR_NAME);
-
-        if (ctx == null) {
-            return engine.eval(reader);
-        }
-
-        getContext().setAttribute(GLOBAL_VAR_NAME, ctx, ScriptContext.ENGINE_SCOPE);
+        // this is how script files are loaded
+        long evalStartNanos = System.nanoTime();
         try {
-            return engine.eval(reader);
+            Object ctx = getBindings(ScriptContext.ENGINE_SCOPE).get(CONTEXT_VAR_NAME);
+
+            if (ctx == null) {
+                return engine.eval(reader);
+            }
+
+            getContext().setAttribute(GLOBAL_VAR_NAME, ctx, ScriptContext.ENGINE_SCOPE);
+            try {
+                return engine.eval(reader);
+            } finally {
+                getContext().removeAttribute(GLOBAL_VAR_NAME, ScriptContext.ENGINE_SCOPE);
+            }
         } finally {
-            getContext().removeAttribute(GLOBAL_VAR_NAME, ScriptContext.ENGINE_SCOPE);
+            logStartup(evalStartNanos);
         }
     }
 
+    private void logStartup(long evalStartNanos) {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (logger.isDebugEnabled()) {
+            long now = System.nanoTime();
+            logger.debug("Loaded script '{}' in {} ms (runtime: {} ms{}, requires: {} ms, script: {} ms)",
+                    getContext().getAttribute(ScriptEngine.FILENAME), millis(now - startNanos), millis(runtimeNanos),
+                    pooled ? " from pool" : "", millis(requireNanos), millis(now - evalStartNanos));
+        }
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
     @Override
     public Object get(@Nullable String key) {
         return engine.get(key);
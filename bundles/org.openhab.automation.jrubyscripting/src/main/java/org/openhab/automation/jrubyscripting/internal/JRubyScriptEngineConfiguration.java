@@ -14,10 +14,12 @@ package org.openhab.automation.jrubyscripting.internal;
 
 import java.io.File;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.script.ScriptContext;
@@ -60,10 +62,16 @@ public class JRubyScriptEngineConfiguration {
     private static final String REQUIRE_CONFIG_KEY = "require";
     private static final String CHECK_UPDATE_CONFIG_KEY = "check_update";
     private static final String DEPENDENCY_TRACKING_CONFIG_KEY = "dependency_tracking";
+    private static final String LOCAL_CONTEXT_CONFIG_KEY = "local_context";
+    private static final String ENGINE_POOL_SIZE_CONFIG_KEY = "engine_pool_size";
+    private static final String SCRIPT_LOADING_THREADS_CONFIG_KEY = "script_loading_threads";
+
+    // the local contexts with one runtime per engine that can be used on any thread
+    private static final List<String> POOLABLE_LOCAL_CONTEXTS = List.of("singlethread", "concurrent");
 
     // Map of configuration parameters
     private final Map<String, OptionalConfigurationElement> configurationParameters = Map.ofEntries(
-            Map.entry("local_context",
+            Map.entry(LOCAL_CONTEXT_CONFIG_KEY,
                     new OptionalConfigurationElement(OptionalConfigurationElement.Type.SYSTEM_PROPERTY, "singlethread",
                             "org.jruby.embed.localcontext.scope")),
 
@@ -85,7 +93,11 @@ public class JRubyScriptEngineConfiguration {
 
             Map.entry(CHECK_UPDATE_CONFIG_KEY, new OptionalConfigurationElement("true")),
 
-            Map.entry(DEPENDENCY_TRACKING_CONFIG_KEY, new OptionalConfigurationElement("true")));
+            Map.entry(DEPENDENCY_TRACKING_CONFIG_KEY, new OptionalConfigurationElement("true")),
+
+            Map.entry(ENGINE_POOL_SIZE_CONFIG_KEY, new OptionalConfigurationElement("0")),
+
+            Map.entry(SCRIPT_LOADING_THREADS_CONFIG_KEY, new OptionalConfigurationElement("1")));
 
     /**
      * Update configuration
@@ -129,6 +141,19 @@ public class JRubyScriptEngineConfiguration {
         return Objects.requireNonNull(configElement).getValue();
     }
 
+    /**
+     * Gets a single integer configuration element, or the given default if it is not a valid integer.
+     */
+    private int getInteger(String key, int defaultValue) {
+        String value = get(key);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for {}, using {}", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
     /**
      * Gets the concrete gem home to install gems into for this version of JRuby.
      * 
@@ -203,15 +228,40 @@ public class JRubyScriptEngineConfiguration {
             return;
         }
 
+        List<String> gemArguments = getGemArguments();
+        if (gemArguments.isEmpty()) {
+            return;
+        }
+
         boolean checkUpdate = "true".equals(get(CHECK_UPDATE_CONFIG_KEY));
 
-        String[] gemsArray = gems.split(",");
         // Set update_native_env_enabled to false so that bundler doesn't leak
         // into other script engines
         String gemCommand = "require 'jruby'\nJRuby.runtime.instance_config.update_native_env_enabled = false\nrequire 'bundler/inline'\nrequire 'openssl'\n\ngemfile("
                 + checkUpdate + ") do\n" + "  source 'https://rubygems.org/'\n";
-        int validGems = 0;
-        for (String gem : gemsArray) {
+        for (String arguments : gemArguments) {
+            gemCommand += "  gem " + arguments + ", require: false\n";
+        }
+        gemCommand += "end\n";
+
+        try {
+            logger.debug("Installing Gems");
+            logger.trace("Gem install code:\n{}", gemCommand);
+            engine.eval(gemCommand);
+        } catch (ScriptException e) {
+            logger.warn("Error installing Gems", unwrap(e));
+        }
+    }
+
+    /**
+     * Parses the configured gems into the arguments of Ruby's <code>gem</code> method, i.e. the quoted name and
+     * version requirements.
+     *
+     * @return the arguments for each gem
+     */
+    private List<String> getGemArguments() {
+        List<String> gemArguments = new ArrayList<>();
+        for (String gem : get(GEMS_CONFIG_KEY).split(",")) {
             gem = gem.trim();
             String[] versions = {};
             if (gem.contains("=")) {
@@ -224,27 +274,41 @@ public class JRubyScriptEngineConfiguration {
                 continue;
             }
 
-            gemCommand += "  gem '" + gem + "'";
+            String arguments = "'" + gem + "'";
             for (String version : versions) {
                 version = version.trim();
                 if (!version.isEmpty()) {
-                    gemCommand += ", '" + version + "'";
+                    arguments += ", '" + version + "'";
                 }
             }
-            gemCommand += ", require: false\n";
-            validGems += 1;
+            gemArguments.add(arguments);
         }
-        if (validGems == 0) {
+        return gemArguments;
+    }
+
+    /**
+     * Activate the configured gems in the ScriptEngine, so the runtime has already loaded RubyGems and resolved the
+     * gem specifications when a script requires them.
+     *
+     * The gems are not required, as the required scripts are evaluated with the presets and the dependency listener
+     * of the script, see {@link #injectRequire(ScriptEngine)}.
+     *
+     * @param engine Engine in which to activate the gems
+     */
+    public void activateGems(ScriptEngine engine) {
+        List<String> gemArguments = getGemArguments();
+        if (gemArguments.isEmpty() || getSpecificGemHome().isEmpty()) {
             return;
         }
-        gemCommand += "end\n";
 
+        String code = "require 'rubygems'\n"
+                + gemArguments.stream().map(arguments -> "gem " + arguments + "\n").collect(Collectors.joining());
         try {
-            logger.debug("Installing Gems");
-            logger.trace("Gem install code:\n{}", gemCommand);
-            engine.eval(gemCommand);
+            logger.trace("Gem activation code:\n{}", code);
+            engine.eval(code);
         } catch (ScriptException e) {
-            logger.warn("Error installing Gems", unwrap(e));
+            // the gem is activated again when it is required, which reports the error to the script
+            logger.debug("Error activating Gems: {}", unwrap(e).getMessage());
         }
     }
 
@@ -334,6 +398,26 @@ public class JRubyScriptEngineConfiguration {
         return "true".equals(get(DEPENDENCY_TRACKING_CONFIG_KEY));
     }
 
+    /**
+     * Gets the number of engines to keep pre-created.
+     *
+     * The pool is only used if each engine has a runtime of its own that can be used on any thread, so it is disabled
+     * for the <code>singleton</code> and <code>threadsafe</code> local contexts.
+     */
+    public int getEnginePoolSize() {
+        int size = Math.max(0, getInteger(ENGINE_POOL_SIZE_CONFIG_KEY, 0));
+        String localContext = get(LOCAL_CONTEXT_CONFIG_KEY);
+        if (size > 0 && !POOLABLE_LOCAL_CONTEXTS.contains(localContext)) {
+            logger.debug("Not using an engine pool with local context '{}'", localContext);
+            return 0;
+        }
+        return size;
+    }
+
+    public int getScriptLoadingThreads() {
+        return Math.max(1, getInteger(SCRIPT_LOADING_THREADS_CONFIG_KEY, 1));
+    }
+
     /**
      * Configure system properties
      * 
@@ -26,6 +26,7 @@ import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.jruby.embed.jsr223.JRubyEngine;
 import org.openhab.automation.jrubyscripting.internal.watch.JRubyDependencyTracker;
 import org.openhab.core.automation.module.script.AbstractScriptEngineFactory;
 import org.openhab.core.automation.module.script.ScriptDependencyTracker;
@@ -62,6 +63,8 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
 
     private final JRubyDependencyTracker jrubyDependencyTracker;
 
+    private final JRubyEnginePool enginePool = new JRubyEnginePool(this::createPooledEngine);
+
     // Adds $ in front of a set of variables so that Ruby recognizes them as global
     // variables
     private static Map.Entry<String, Object> mapGlobalPresets(Map.Entry<String, Object> entry) {
@@ -83,6 +86,7 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
     @Deactivate
     protected void deactivate() {
         jrubyDependencyTracker.deactivate();
+        enginePool.dispose();
     }
 
     // The modified call updates configuration for the automation
@@ -94,6 +98,8 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
         if (configuration.enableDependencyTracking()) {
             jrubyDependencyTracker.activate();
         }
+        // Discard the engines warmed up with the previous configuration.
+        enginePool.configure(configuration.getEnginePoolSize());
     }
 
     @Override
@@ -137,7 +143,11 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
         // presets, including 'ir'. We wait for the second call before running the
         // require statements.
         if (scopeValues.containsKey("ir")) {
+            long start = System.nanoTime();
             configuration.injectRequire(scriptEngine);
+            if (scriptEngine instanceof JRubyEngineWrapper wrapper) {
+                wrapper.addRequireStatistics(System.nanoTime() - start);
+            }
         }
     }
 
@@ -158,9 +168,26 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
         if (!scriptTypes.contains(scriptType)) {
             return null;
         }
+        long start = System.nanoTime();
+        JRubyEngineWrapper engine = enginePool.poll();
+        boolean pooled = engine != null;
+        if (engine == null) {
+            engine = createEngine();
+        }
+        engine.setStartupStatistics(start, System.nanoTime() - start, pooled);
+        return engine;
+    }
+
+    private JRubyEngineWrapper createEngine() {
         ScriptEngine engine = factory.getScriptEngine();
         configuration.configureRubyEnvironment(engine);
-        return new JRubyEngineWrapper((org.jruby.embed.jsr223.JRubyEngine) engine);
+        return new JRubyEngineWrapper((JRubyEngine) engine);
+    }
+
+    private JRubyEngineWrapper createPooledEngine() {
+        JRubyEngineWrapper engine = createEngine();
+        configuration.activateGems(engine);
+        return engine;
     }
 
     @Override
@@ -177,6 +204,10 @@ public class JRubyScriptEngineFactory extends AbstractScriptEngineFactory {
         jrubyDependencyTracker.removeChangeTracker(listener);
     }
 
+    public int getScriptLoadingThreads() {
+        return configuration.getScriptLoadingThreads();
+    }
+
     public List<String> getRubyLibPaths() {
         return configuration.getRubyLibPaths();
     }
@@ -12,7 +12,6 @@
  */
 package org.openhab.automation.jrubyscripting.internal.watch;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -52,8 +51,8 @@ public class BidiSetBag<K, V> {
     public Set<V> getValues(K key) {
         lock.readLock().lock();
         try {
-            Set<V> values = keyToValues.getOrDefault(key, Set.of());
-            return Collections.unmodifiableSet(values);
+            // a copy, as the sets are modified by other threads, e.g. while scripts are loaded in parallel
+            return Set.copyOf(keyToValues.getOrDefault(key, Set.of()));
         } finally {
             lock.readLock().unlock();
         }
@@ -62,8 +61,7 @@ public class BidiSetBag<K, V> {
     public Set<K> getKeys(V value) {
         lock.readLock().lock();
         try {
-            Set<K> keys = valueToKeys.getOrDefault(value, Set.of());
-            return Collections.unmodifiableSet(keys);
+            return Set.copyOf(valueToKeys.getOrDefault(value, Set.of()));
         } finally {
             lock.readLock().unlock();
         }
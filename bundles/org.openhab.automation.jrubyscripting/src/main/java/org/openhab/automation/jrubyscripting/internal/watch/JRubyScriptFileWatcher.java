@@ -15,14 +15,18 @@ package org.openhab.automation.jrubyscripting.internal.watch;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.automation.jrubyscripting.internal.JRubyScriptEngineFactory;
 import org.openhab.core.automation.module.script.ScriptDependencyTracker;
 import org.openhab.core.automation.module.script.ScriptEngineFactory;
 import org.openhab.core.automation.module.script.ScriptEngineManager;
 import org.openhab.core.automation.module.script.rulesupport.loader.AbstractScriptFileWatcher;
 import org.openhab.core.automation.module.script.rulesupport.loader.ScriptFileWatcher;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.service.ReadyService;
 import org.openhab.core.service.StartLevelService;
 import org.openhab.core.service.WatchService;
@@ -48,6 +52,9 @@ public class JRubyScriptFileWatcher extends AbstractScriptFileWatcher {
 
     private final JRubyScriptEngineFactory scriptEngineFactory;
 
+    // created by the constructor of the super class, so it must not have an initializer
+    private @Nullable ScheduledThreadPoolExecutor loader;
+
     @Activate
     public JRubyScriptFileWatcher(final @Reference ScriptEngineManager manager,
             final @Reference ReadyService readyService, final @Reference StartLevelService startLevelService,
@@ -57,6 +64,23 @@ public class JRubyScriptFileWatcher extends AbstractScriptFileWatcher {
         super(watchService, manager, readyService, startLevelService, FILE_DIRECTORY, true);
 
         this.scriptEngineFactory = (JRubyScriptEngineFactory) scriptEngineFactory;
+
+        // Script files are independent of each other, they only share the libraries tracked by the
+        // JRubyDependencyTracker, so they can be loaded in parallel.
+        int threads = this.scriptEngineFactory.getScriptLoadingThreads();
+        ScheduledThreadPoolExecutor loader = this.loader;
+        if (loader != null && threads > 1) {
+            logger.debug("Loading scripts with {} threads", threads);
+            loader.setCorePoolSize(threads);
+        }
+    }
+
+    @Override
+    protected ScheduledExecutorService getScheduler() {
+        ScheduledThreadPoolExecutor loader = new ScheduledThreadPoolExecutor(1,
+                new NamedThreadFactory("jrubyscripting-loader"));
+        this.loader = loader;
+        return loader;
     }
 
     @Override
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of {@link OpenhabGraalJSScriptEngine}s whose polyglot contexts have already been created in the background, so
+ * creating a script engine, e.g. for each script module of the UI-based rules, does not have to wait for it.
+ *
+ * Every engine is handed out once and never returned, so each script still gets a context of its own. The globals and
+ * the openhab-js injection are evaluated on the first invocation as before, because they depend on the engine
+ * identifier of the script.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class GraalJSContextPool {
+    private static final @Nullable ThreadMXBean THREAD_MX_BEAN = getThreadMXBean();
+
+    private final Logger logger = LoggerFactory.getLogger(GraalJSContextPool.class);
+
+    private final ExecutorService executor = Executors
+            .newSingleThreadExecutor(new NamedThreadFactory("jsscripting-pool"));
+
+    // guarded by this
+    private final Deque<OpenhabGraalJSScriptEngine> engines = new ArrayDeque<>();
+    private Supplier<OpenhabGraalJSScriptEngine> engineSupplier;
+    private int size;
+    private int pending;
+    private long generation;
+    private boolean disposed;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong createdEngines = new AtomicLong();
+    private final AtomicLong totalCreationNanos = new AtomicLong();
+    private final AtomicLong totalAllocatedBytes = new AtomicLong();
+
+    /**
+     * The statistics of the pool.
+     *
+     * @param size the configured number of pre-created engines
+     * @param available the number of engines currently in the pool
+     * @param hits the number of engines taken from the pool
+     * @param misses the number of engines created on demand, because the pool was empty
+     * @param createdEngines the number of engines created
+     * @param averageCreationMillis the average time to create an engine and its context
+     * @param averageAllocatedBytes the average heap allocated while creating an engine and its context, an estimate
+     *            of the heap used by a context before the first invocation (-1 if not supported by the JVM)
+     */
+    public record Statistics(int size, int available, long hits, long misses, long createdEngines,
+            double averageCreationMillis, long averageAllocatedBytes) {
+    }
+
+    /**
+     * @param size the number of engines to keep pre-created, 0 disables the pool
+     * @param engineSupplier creates an engine with the current configuration
+     */
+    public GraalJSContextPool(int size, Supplier<OpenhabGraalJSScriptEngine> engineSupplier) {
+        this.engineSupplier = engineSupplier;
+        configure(size, engineSupplier);
+    }
+
+    /**
+     * Changes the size of the pool and the engine supplier. Pooled engines created with the old supplier are discarded.
+     *
+     * @param size the number of engines to keep pre-created, 0 disables the pool
+     * @param engineSupplier creates an engine with the current configuration
+     */
+    public synchronized void configure(int size, Supplier<OpenhabGraalJSScriptEngine> engineSupplier) {
+        this.size = Math.max(0, size);
+        this.engineSupplier = engineSupplier;
+        generation++;
+        engines.forEach(OpenhabGraalJSScriptEngine::close);
+        engines.clear();
+        refill();
+    }
+
+    /**
+     * Takes a pre-created engine from the pool, or creates a new one if the pool is empty.
+     *
+     * @return an engine that has not been used before
+     */
+    public OpenhabGraalJSScriptEngine take() {
+        OpenhabGraalJSScriptEngine engine;
+        Supplier<OpenhabGraalJSScriptEngine> supplier;
+        synchronized (this) {
+            engine = engines.poll();
+            supplier = engineSupplier;
+            refill();
+        }
+        if (engine != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            engine = create(supplier);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Providing GraalJS script engine: {}", getStatistics());
+        }
+        return engine;
+    }
+
+    /**
+     * Stops creating engines and discards the pooled ones.
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        executor.shutdownNow();
+        engines.forEach(OpenhabGraalJSScriptEngine::close);
+        engines.clear();
+    }
+
+    public synchronized Statistics getStatistics() {
+        long created = createdEngines.get();
+        double averageCreationMillis = created == 0 ? 0 : totalCreationNanos.get() / (double) created / 1_000_000;
+        long averageAllocatedBytes = THREAD_MX_BEAN == null ? -1
+                : created == 0 ? 0 : totalAllocatedBytes.get() / created;
+        return new Statistics(size, engines.size(), hits.get(), misses.get(), created, averageCreationMillis,
+                averageAllocatedBytes);
+    }
+
+    // guarded by this
+    private void refill() {
+        while (!disposed && engines.size() + pending < size) {
+            long engineGeneration = generation;
+            Supplier<OpenhabGraalJSScriptEngine> supplier = engineSupplier;
+            try {
+                executor.execute(() -> fill(engineGeneration, supplier));
+                pending++;
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    private void fill(long engineGeneration, Supplier<OpenhabGraalJSScriptEngine> supplier) {
+        OpenhabGraalJSScriptEngine engine = null;
+        try {
+            engine = create(supplier);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to create GraalJS script engine for the pool: {}", e.getMessage());
+        }
+        synchronized (this) {
+            pending--;
+            if (engine != null) {
+                if (disposed || engineGeneration != generation || engines.size() >= size) {
+                    engine.close();
+                } else {
+                    engines.add(engine);
+                }
+                // replaces an engine of an outdated configuration, failed creations are retried with the next take
+                refill();
+            }
+        }
+    }
+
+    private OpenhabGraalJSScriptEngine create(Supplier<OpenhabGraalJSScriptEngine> supplier) {
+        long start = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        OpenhabGraalJSScriptEngine engine = supplier.get();
+        engine.createContext();
+        long creationNanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        engine.setCreationStatistics(creationNanos, allocatedBefore < 0 ? -1 : allocated);
+
+        createdEngines.incrementAndGet();
+        totalCreationNanos.addAndGet(creationNanos);
+        if (allocatedBefore >= 0) {
+            totalAllocatedBytes.addAndGet(allocated);
+        }
+        return engine;
+    }
+
+    /**
+     * Gets the number of bytes allocated on the heap by the current thread so far.
+     *
+     * @return the number of bytes, or -1 if not supported by the JVM
+     */
+    static long allocatedBytes() {
+        ThreadMXBean threadMXBean = THREAD_MX_BEAN;
+        if (threadMXBean != null && threadMXBean instanceof com.sun.management.ThreadMXBean sunThreadMXBean) {
+            return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static @Nullable ThreadMXBean getThreadMXBean() {
+        try {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (threadMXBean instanceof com.sun.management.ThreadMXBean sunThreadMXBean
+                    && sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+                sunThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+                return threadMXBean;
+            }
+        } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+            // com.sun.management is not available, no heap estimates
+        }
+        return null;
+    }
+}
@@ -28,6 +28,7 @@ import org.openhab.core.config.core.ConfigurableService;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 
@@ -46,6 +47,8 @@ import com.oracle.truffle.js.scriptengine.GraalJSEngineFactory;
 public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final String CFG_INJECTION_ENABLED = "injectionEnabled";
     private static final String CFG_INJECTION_CACHING_ENABLED = "injectionCachingEnabled";
+    private static final String CFG_CONTEXT_POOL_SIZE = "contextPoolSize";
+    private static final int DEFAULT_CONTEXT_POOL_SIZE = 2;
 
     private static final GraalJSEngineFactory factory = new GraalJSEngineFactory();
 
@@ -63,15 +66,22 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
 
     private final JSScriptServiceUtil jsScriptServiceUtil;
     private final JSDependencyTracker jsDependencyTracker;
+    private final GraalJSContextPool contextPool;
 
     @Activate
     public GraalJSScriptEngineFactory(final @Reference JSScriptServiceUtil jsScriptServiceUtil,
             final @Reference JSDependencyTracker jsDependencyTracker, Map<String, Object> config) {
         this.jsDependencyTracker = jsDependencyTracker;
         this.jsScriptServiceUtil = jsScriptServiceUtil;
+        this.contextPool = new GraalJSContextPool(0, this::createEngine);
         modified(config);
     }
 
+    @Deactivate
+    public void deactivate() {
+        contextPool.dispose();
+    }
+
     @Override
     public List<String> getScriptTypes() {
         return scriptTypes;
@@ -87,8 +97,21 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         if (!scriptTypes.contains(scriptType)) {
             return null;
         }
-        return new DebuggingGraalScriptEngine<>(new OpenhabGraalJSScriptEngine(injectionEnabled,
-                injectionCachingEnabled, jsScriptServiceUtil, jsDependencyTracker));
+        return new DebuggingGraalScriptEngine<>(contextPool.take());
+    }
+
+    private OpenhabGraalJSScriptEngine createEngine() {
+        return new OpenhabGraalJSScriptEngine(injectionEnabled, injectionCachingEnabled, jsScriptServiceUtil,
+                jsDependencyTracker);
+    }
+
+    /**
+     * Gets the statistics of the pool of pre-created script engines.
+     *
+     * @return the statistics
+     */
+    public GraalJSContextPool.Statistics getContextPoolStatistics() {
+        return contextPool.getStatistics();
     }
 
     @Override
@@ -101,5 +124,9 @@ public final class GraalJSScriptEngineFactory implements ScriptEngineFactory {
         this.injectionEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_ENABLED), Boolean.class, true);
         this.injectionCachingEnabled = ConfigParser.valueAsOrElse(config.get(CFG_INJECTION_CACHING_ENABLED),
                 Boolean.class, true);
+        int contextPoolSize = ConfigParser.valueAsOrElse(config.get(CFG_CONTEXT_POOL_SIZE), Integer.class,
+                DEFAULT_CONTEXT_POOL_SIZE);
+        // engines already in the pool were created with the previous configuration
+        contextPool.configure(contextPoolSize, this::createEngine);
     }
 }
@@ -12,10 +12,12 @@
  */
 package org.openhab.automation.jsscripting.internal;
 
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.ExecutorService;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.automation.jsscripting.internal.threading.ScriptEventLoop;
 import org.openhab.core.automation.module.script.action.ScriptExecution;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.scheduler.Scheduler;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -29,6 +31,8 @@ import org.osgi.service.component.annotations.Reference;
 @Component(immediate = true, service = JSScriptServiceUtil.class)
 @NonNullByDefault
 public class JSScriptServiceUtil {
+    private static final String EVENT_LOOP_POOL_NAME = "jsscripting";
+
     private final Scheduler scheduler;
     private final ScriptExecution scriptExecution;
 
@@ -46,7 +50,17 @@ public class JSScriptServiceUtil {
         return scriptExecution;
     }
 
-    public JSRuntimeFeatures getJSRuntimeFeatures(Lock lock) {
-        return new JSRuntimeFeatures(lock, this);
+    public JSRuntimeFeatures getJSRuntimeFeatures(ScriptEventLoop eventLoop) {
+        return new JSRuntimeFeatures(eventLoop, this);
+    }
+
+    /**
+     * Creates the {@link ScriptEventLoop} of a script engine. The event loops of all engines share a thread pool.
+     *
+     * @return the event loop
+     */
+    public ScriptEventLoop createEventLoop() {
+        ExecutorService executor = ThreadPoolManager.getPool(EVENT_LOOP_POOL_NAME);
+        return new ScriptEventLoop(executor);
     }
 }
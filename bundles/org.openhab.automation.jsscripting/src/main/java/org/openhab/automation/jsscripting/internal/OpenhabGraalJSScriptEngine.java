@@ -29,11 +29,12 @@ import java.nio.file.Paths;
 import java.nio.file.attribute.FileAttribute;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -51,6 +52,7 @@ import org.openhab.automation.jsscripting.internal.fs.PrefixedSeekableByteChanne
 import org.openhab.automation.jsscripting.internal.fs.ReadOnlySeekableByteArrayChannel;
 import org.openhab.automation.jsscripting.internal.fs.watch.JSDependencyTracker;
 import org.openhab.automation.jsscripting.internal.scriptengine.InvocationInterceptingScriptEngineWithInvocableAndCompilableAndAutoCloseable;
+import org.openhab.automation.jsscripting.internal.threading.ScriptEventLoop;
 import org.openhab.core.automation.module.script.ScriptExtensionAccessor;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.types.QuantityType;
@@ -104,8 +106,7 @@ public class OpenhabGraalJSScriptEngine
     private static final HostAccess HOST_ACCESS = HostAccess.newBuilder(HostAccess.ALL)
             // Translate JS-Joda ZonedDateTime to java.time.ZonedDateTime
             .targetTypeMapping(Value.class, ZonedDateTime.class, v -> v.hasMember("withFixedOffsetZone"),
-                    v -> ZonedDateTime.parse(v.invokeMember("withFixedOffsetZone").invokeMember("toString").asString()),
-                    HostAccess.TargetMappingPrecedence.LOW)
+                    OpenhabGraalJSScriptEngine::toZonedDateTime, HostAccess.TargetMappingPrecedence.LOW)
 
             // Translate JS-Joda Duration to java.time.Duration
             .targetTypeMapping(Value.class, Duration.class,
@@ -129,8 +130,8 @@ public class OpenhabGraalJSScriptEngine
                     v -> v.getMember("rawQtyType").as(QuantityType.class), HostAccess.TargetMappingPrecedence.LOW)
             .build();
 
-    /** {@link Lock} synchronization of multi-thread access */
-    private final Lock lock = new ReentrantLock();
+    /** {@link Lock} synchronization of multi-thread access, also queues the timer callbacks */
+    private final ScriptEventLoop lock;
     private final JSRuntimeFeatures jsRuntimeFeatures;
 
     // these fields start as null because they are populated on first use
@@ -141,6 +142,10 @@ public class OpenhabGraalJSScriptEngine
     private final boolean injectionEnabled;
     private final boolean injectionCachingEnabled;
 
+    // set by the GraalJSContextPool, which creates the context before the first invocation
+    private long contextCreationNanos;
+    private long contextAllocatedBytes = -1;
+
     /**
      * Creates an implementation of ScriptEngine {@code (& Invocable)}, wrapping the contained engine,
      * that tracks the script lifecycle and provides hooks for scripts to do so too.
@@ -150,6 +155,7 @@ public class OpenhabGraalJSScriptEngine
         super(null); // delegate depends on fields not yet initialised, so we cannot set it immediately
         this.injectionEnabled = injectionEnabled;
         this.injectionCachingEnabled = injectionCachingEnabled;
+        this.lock = jsScriptServiceUtil.createEventLoop();
         this.jsRuntimeFeatures = jsScriptServiceUtil.getJSRuntimeFeatures(lock);
 
         LOGGER.debug("Initializing GraalJS script engine...");
@@ -232,6 +238,8 @@ public class OpenhabGraalJSScriptEngine
         if (initialized) {
             return;
         }
+        long initializationStart = System.nanoTime();
+        long allocatedBefore = GraalJSContextPool.allocatedBytes();
 
         ScriptContext ctx = delegate.getContext();
         if (ctx == null) {
@@ -293,6 +301,35 @@ public class OpenhabGraalJSScriptEngine
         } catch (ScriptException e) {
             LOGGER.error("Could not inject global script", e);
         }
+
+        if (LOGGER.isDebugEnabled()) {
+            long initializationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - initializationStart);
+            long allocatedAfter = GraalJSContextPool.allocatedBytes();
+            String allocated = allocatedBefore < 0 || contextAllocatedBytes < 0 ? "unknown"
+                    : (contextAllocatedBytes + allocatedAfter - allocatedBefore) / 1024 + " KiB";
+            LOGGER.debug("Initialized GraalJS script engine '{}' in {} ms, context created in {} ms, allocated: {}",
+                    engineIdentifier, initializationMillis, TimeUnit.NANOSECONDS.toMillis(contextCreationNanos),
+                    allocated);
+        }
+    }
+
+    /**
+     * Creates the polyglot context and initializes the JS language in it, which otherwise happens on the first
+     * invocation.
+     */
+    void createContext() {
+        delegate.getPolyglotContext().initialize("js");
+    }
+
+    /**
+     * Sets the statistics of the context creation, which are logged after the initialization.
+     *
+     * @param creationNanos the time needed to create the engine and its context in ns
+     * @param allocatedBytes the bytes allocated while creating the engine and its context, -1 if unknown
+     */
+    void setCreationStatistics(long creationNanos, long allocatedBytes) {
+        this.contextCreationNanos = creationNanos;
+        this.contextAllocatedBytes = allocatedBytes;
     }
 
     @Override
@@ -310,6 +347,35 @@ public class OpenhabGraalJSScriptEngine
     @Override
     public void close() {
         jsRuntimeFeatures.close();
+        lock.close();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Closed GraalJS script engine '{}': {}", engineIdentifier, lock.getStatistics());
+        }
+    }
+
+    /**
+     * Gets the statistics of the event loop, which runs the timer callbacks and synchronizes all access to the
+     * context.
+     *
+     * @return the statistics
+     */
+    public ScriptEventLoop.Statistics getEventLoopStatistics() {
+        return lock.getStatistics();
+    }
+
+    /**
+     * Converts a JS-Joda ZonedDateTime to a {@link ZonedDateTime} with the same instant and a fixed offset zone. The
+     * epoch second, nanos and offset are transferred as primitives instead of formatting and parsing an ISO string.
+     *
+     * @param value the JS-Joda ZonedDateTime
+     * @return the {@link ZonedDateTime}
+     */
+    static ZonedDateTime toZonedDateTime(Value value) {
+        long epochSecond = value.invokeMember("toEpochSecond").asLong();
+        int nano = value.invokeMember("nano").asInt();
+        int offsetSeconds = value.invokeMember("offset").invokeMember("totalSeconds").asInt();
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano),
+                ZoneOffset.ofTotalSeconds(offsetSeconds));
     }
 
     /**
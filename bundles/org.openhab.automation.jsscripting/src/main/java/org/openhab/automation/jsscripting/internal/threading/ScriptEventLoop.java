@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal.threading;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ScriptEventLoop} controls the access to the single-threaded GraalJS context of a script engine.
+ *
+ * It is a reentrant {@link Lock} for synchronous callers like script invocations and rule executions, which need the
+ * result. Asynchronous work like timer callbacks is queued with {@link #execute(Runnable)} instead and run by a single
+ * consumer on the given executor. The consumer only takes the lock if it is free, otherwise the queue is drained when
+ * the lock is released, so no thread of the executor or of the scheduler is ever parked on the lock.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class ScriptEventLoop implements Lock {
+    private final Logger logger = LoggerFactory.getLogger(ScriptEventLoop.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Executor executor;
+    private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile boolean closed;
+
+    private final AtomicLong executedTasks = new AtomicLong();
+    private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicLong totalExecutionNanos = new AtomicLong();
+    private final AtomicLong lockAcquisitions = new AtomicLong();
+    private final AtomicLong contendedLockAcquisitions = new AtomicLong();
+    private final AtomicLong totalLockWaitNanos = new AtomicLong();
+
+    /**
+     * The statistics of an event loop.
+     *
+     * @param queueDepth the number of queued tasks
+     * @param executedTasks the number of executed tasks
+     * @param averageQueueWaitMillis the average time tasks were queued
+     * @param maxQueueWaitMillis the longest time a task was queued
+     * @param averageExecutionMillis the average execution time of the tasks
+     * @param lockAcquisitions the number of synchronous lock acquisitions
+     * @param contendedLockAcquisitions the number of synchronous lock acquisitions that had to wait
+     * @param averageLockWaitMillis the average time the contended lock acquisitions waited
+     */
+    public record Statistics(int queueDepth, long executedTasks, double averageQueueWaitMillis,
+            double maxQueueWaitMillis, double averageExecutionMillis, long lockAcquisitions,
+            long contendedLockAcquisitions, double averageLockWaitMillis) {
+    }
+
+    private record Task(Runnable runnable, long queuedNanos) {
+    }
+
+    /**
+     * @param executor the executor running the queued tasks
+     */
+    public ScriptEventLoop(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queues a task, which is run with the lock held after all previously queued tasks.
+     *
+     * @param task the task
+     */
+    public void execute(Runnable task) {
+        if (closed) {
+            logger.debug("Discarding task for a closed script engine");
+            return;
+        }
+        queue.add(new Task(task, System.nanoTime()));
+        queueDepth.incrementAndGet();
+        scheduleDrain();
+    }
+
+    /**
+     * Discards all queued tasks and the tasks queued later.
+     */
+    public void close() {
+        closed = true;
+        queue.clear();
+        queueDepth.set(0);
+    }
+
+    public Statistics getStatistics() {
+        long executed = executedTasks.get();
+        long contended = contendedLockAcquisitions.get();
+        return new Statistics(queueDepth.get(), executed, millis(totalQueueWaitNanos.get(), executed),
+                millis(maxQueueWaitNanos.get(), 1), millis(totalExecutionNanos.get(), executed),
+                lockAcquisitions.get(), contended, millis(totalLockWaitNanos.get(), contended));
+    }
+
+    @Override
+    public void lock() {
+        lockAcquisitions.incrementAndGet();
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lock();
+            contendedLockAcquisitions.incrementAndGet();
+            totalLockWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        lockAcquisitions.incrementAndGet();
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lockInterruptibly();
+            contendedLockAcquisitions.incrementAndGet();
+            totalLockWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        return lock.tryLock(time, unit);
+    }
+
+    @Override
+    public void unlock() {
+        lock.unlock();
+        if (lock.getHoldCount() == 0) {
+            // tasks queued while the lock was held
+            scheduleDrain();
+        }
+    }
+
+    @Override
+    public Condition newCondition() {
+        return lock.newCondition();
+    }
+
+    private void scheduleDrain() {
+        if (!queue.isEmpty() && !lock.isLocked() && drainScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drainScheduled.set(false);
+                logger.warn("Failed to run queued script tasks: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void drain() {
+        if (!lock.tryLock()) {
+            // the lock holder schedules the drain again when releasing it
+            drainScheduled.set(false);
+            scheduleDrain();
+            return;
+        }
+        try {
+            Task task;
+            while (!closed && (task = queue.poll()) != null) {
+                queueDepth.decrementAndGet();
+                run(task);
+            }
+        } finally {
+            drainScheduled.set(false);
+            lock.unlock();
+        }
+        // tasks queued after the last poll, whose scheduling attempt saw the drain still running
+        scheduleDrain();
+    }
+
+    private void run(Task task) {
+        long start = System.nanoTime();
+        long waitNanos = start - task.queuedNanos();
+        totalQueueWaitNanos.addAndGet(waitNanos);
+        maxQueueWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        try {
+            task.runnable().run();
+        } catch (RuntimeException e) {
+            // do not pass the exception to the logger, it holds a reference to the context
+            logger.warn("Failed to execute queued script task: {}", e.getMessage());
+        } finally {
+            executedTasks.incrementAndGet();
+            totalExecutionNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private static double millis(long nanos, long count) {
+        return count == 0 ? 0 : nanos / (double) count / 1_000_000;
+    }
+}
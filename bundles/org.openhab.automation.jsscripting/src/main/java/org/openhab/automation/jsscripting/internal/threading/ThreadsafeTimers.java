@@ -19,7 +19,6 @@ import java.time.temporal.Temporal;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.automation.module.script.action.ScriptExecution;
@@ -32,11 +31,14 @@ import org.openhab.core.scheduler.SchedulerTemporalAdjuster;
  * A polyfill implementation of NodeJS timer functionality (<code>setTimeout()</code>, <code>setInterval()</code> and
  * the cancel methods) which controls multithreaded execution access to the single-threaded GraalJS contexts.
  *
+ * The callbacks are queued in the {@link ScriptEventLoop} of the engine, so the scheduler threads do not wait for the
+ * engine to be available.
+ *
  * @author Florian Hotze - Initial contribution; Reimplementation to conform standard JS setTimeout and setInterval;
  *         Threadsafe reimplementation of the timer creation methods of {@link ScriptExecution}
  */
 public class ThreadsafeTimers {
-    private final Lock lock;
+    private final ScriptEventLoop eventLoop;
     private final Scheduler scheduler;
     private final ScriptExecution scriptExecution;
     // Mapping of positive, non-zero integer values (used as timeoutID or intervalID) and the Scheduler
@@ -44,8 +46,8 @@ public class ThreadsafeTimers {
     private AtomicLong lastId = new AtomicLong();
     private String identifier = "javascript";
 
-    public ThreadsafeTimers(Lock lock, ScriptExecution scriptExecution, Scheduler scheduler) {
-        this.lock = lock;
+    public ThreadsafeTimers(ScriptEventLoop eventLoop, ScriptExecution scriptExecution, Scheduler scheduler) {
+        this.eventLoop = eventLoop;
         this.scheduler = scheduler;
         this.scriptExecution = scriptExecution;
     }
@@ -79,15 +81,7 @@ public class ThreadsafeTimers {
      * @return a handle to the created timer, so that it can be canceled or rescheduled
      */
     public Timer createTimer(@Nullable String identifier, ZonedDateTime instant, Runnable closure) {
-        return scriptExecution.createTimer(identifier, instant, () -> {
-            lock.lock();
-            try {
-                closure.run();
-            } finally { // Make sure that Lock is unlocked regardless of an exception is thrown or not to avoid
-                        // deadlocks
-                lock.unlock();
-            }
-        });
+        return scriptExecution.createTimer(identifier, instant, () -> eventLoop.execute(closure));
     }
 
     /**
@@ -101,16 +95,12 @@ public class ThreadsafeTimers {
      */
     public long setTimeout(Runnable callback, long delay) {
         long id = lastId.incrementAndGet();
-        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> {
-            lock.lock();
-            try {
+        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> eventLoop.execute(() -> {
+            // the timeout might have been cleared while it was queued
+            if (idSchedulerMapping.remove(id) != null) {
                 callback.run();
-                idSchedulerMapping.remove(id);
-            } finally { // Make sure that Lock is unlocked regardless of an exception is thrown or not to avoid
-                        // deadlocks
-                lock.unlock();
             }
-        }, identifier + ".timeout." + id, Instant.now().plusMillis(delay));
+        }), identifier + ".timeout." + id, Instant.now().plusMillis(delay));
         idSchedulerMapping.put(id, future);
         return id;
     }
@@ -144,15 +134,12 @@ public class ThreadsafeTimers {
      */
     public long setInterval(Runnable callback, long delay) {
         long id = lastId.incrementAndGet();
-        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> {
-            lock.lock();
-            try {
+        ScheduledCompletableFuture<Object> future = scheduler.schedule(() -> eventLoop.execute(() -> {
+            // the interval might have been cleared while it was queued
+            if (idSchedulerMapping.containsKey(id)) {
                 callback.run();
-            } finally { // Make sure that Lock is unlocked regardless of an exception is thrown or not to avoid
-                        // deadlocks
-                lock.unlock();
             }
-        }, identifier + ".interval." + id, new LoopingAdjuster(Duration.ofMillis(delay)));
+        }), identifier + ".interval." + id, new LoopingAdjuster(Duration.ofMillis(delay)));
         idSchedulerMapping.put(id, future);
         return id;
     }
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.jsscripting.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Tests the conversion of JS-Joda ZonedDateTime values by {@link OpenhabGraalJSScriptEngine}.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class OpenhabGraalJSScriptEngineTest {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final ZoneId ST_JOHNS = ZoneId.of("America/St_Johns");
+
+    private static @NonNullByDefault({}) Context context;
+
+    @BeforeAll
+    public static void setUp() {
+        context = Context.newBuilder("js").option("engine.WarnInterpreterOnly", "false").build();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        context.close();
+    }
+
+    private static Stream<ZonedDateTime> zonedDateTimes() {
+        LocalDateTime fallBack = LocalDateTime.of(2023, 10, 29, 2, 30, 15, 250_000_000);
+        return Stream.of( //
+                // negative offset with nanos
+                ZonedDateTime.of(2024, 3, 1, 8, 15, 30, 123_456_789, NEW_YORK),
+                // negative offset which is not a whole hour, before the epoch
+                ZonedDateTime.of(1969, 12, 31, 20, 29, 59, 500_000_000, ST_JOHNS),
+                // last hour before and first hour after the start of daylight saving time
+                ZonedDateTime.of(2024, 3, 10, 1, 59, 59, 999_999_999, NEW_YORK),
+                ZonedDateTime.of(2024, 3, 10, 3, 0, 0, 1, NEW_YORK),
+                // the same local time before and after the end of daylight saving time
+                ZonedDateTime.ofLocal(fallBack, BERLIN, ZoneOffset.ofHours(2)),
+                ZonedDateTime.ofLocal(fallBack, BERLIN, ZoneOffset.ofHours(1)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("zonedDateTimes")
+    public void jsJodaZonedDateTimeIsConverted(ZonedDateTime expected) {
+        ZonedDateTime actual = OpenhabGraalJSScriptEngine.toZonedDateTime(jsJodaZonedDateTime(expected));
+
+        assertEquals(expected.toInstant(), actual.toInstant());
+        assertEquals(expected.getOffset(), actual.getOffset());
+        assertEquals(expected.getNano(), actual.getNano());
+        assertEquals(expected.withFixedOffsetZone(), actual);
+    }
+
+    /**
+     * Creates a JS object with the members of a JS-Joda ZonedDateTime used by the conversion.
+     */
+    private Value jsJodaZonedDateTime(ZonedDateTime dateTime) {
+        return context.eval("js",
+                String.format("({ toEpochSecond: () => %d, nano: () => %d, offset: () => ({ totalSeconds: () => %d })"
+                        + " })", dateTime.toEpochSecond(), dateTime.getNano(), dateTime.getOffset().getTotalSeconds()));
+    }
+}
@@ -20,6 +20,7 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
@@ -29,6 +30,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -39,11 +41,14 @@ import org.eclipse.jetty.client.util.BasicAuthentication;
 import org.eclipse.jetty.client.util.DigestAuthentication;
 import org.openhab.binding.http.internal.config.HttpChannelConfig;
 import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.binding.http.internal.http.HostConcurrencyLimiter;
 import org.openhab.binding.http.internal.http.HttpAuthException;
 import org.openhab.binding.http.internal.http.HttpResponseListener;
 import org.openhab.binding.http.internal.http.HttpStatusListener;
 import org.openhab.binding.http.internal.http.RateLimitedHttpClient;
-import org.openhab.binding.http.internal.http.RefreshingUrlCache;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry.Key;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry.Subscription;
 import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.library.types.PointType;
@@ -90,18 +95,22 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
     private final RateLimitedHttpClient rateLimitedHttpClient;
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
     private final TimeZoneProvider timeZoneProvider;
+    private final RefreshingUrlCacheRegistry urlCacheRegistry;
 
     private HttpThingConfig config = new HttpThingConfig();
-    private final Map<String, RefreshingUrlCache> urlHandlers = new HashMap<>();
+    private final Map<Key, List<Consumer<@Nullable ChannelHandlerContent>>> urlConsumers = new HashMap<>();
+    private final Map<Key, Subscription> urlHandlers = new HashMap<>();
     private final Map<ChannelUID, ChannelHandler> channels = new HashMap<>();
-    private final Map<ChannelUID, String> channelUrls = new HashMap<>();
+    private final Map<ChannelUID, Key> channelUrls = new HashMap<>();
 
     public HttpThingHandler(Thing thing, HttpClientProvider httpClientProvider,
-            HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider,
-            TimeZoneProvider timeZoneProvider) {
+            HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider, TimeZoneProvider timeZoneProvider,
+            RefreshingUrlCacheRegistry urlCacheRegistry, HostConcurrencyLimiter concurrencyLimiter) {
         super(thing);
         this.httpClientProvider = httpClientProvider;
-        this.rateLimitedHttpClient = new RateLimitedHttpClient(httpClientProvider.getSecureClient(), scheduler);
+        this.urlCacheRegistry = urlCacheRegistry;
+        this.rateLimitedHttpClient = new RateLimitedHttpClient(httpClientProvider.getSecureClient(), scheduler,
+                concurrencyLimiter);
         this.httpDynamicStateDescriptionProvider = httpDynamicStateDescriptionProvider;
         this.timeZoneProvider = timeZoneProvider;
     }
@@ -115,12 +124,12 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
         }
 
         if (command instanceof RefreshType) {
-            String key = channelUrls.get(channelUID);
+            Key key = channelUrls.get(channelUID);
             if (key != null) {
-                RefreshingUrlCache refreshingUrlCache = urlHandlers.get(key);
-                if (refreshingUrlCache != null) {
+                Subscription subscription = urlHandlers.get(key);
+                if (subscription != null) {
                     try {
-                        refreshingUrlCache.get().ifPresentOrElse(itemValueConverter::process, () -> {
+                        subscription.getCache().get().ifPresentOrElse(itemValueConverter::process, () -> {
                             if (config.strictErrorHandling) {
                                 itemValueConverter.process(null);
                             }
@@ -227,7 +236,7 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
         // create channels
         thing.getChannels().forEach(this::createChannel);
 
-        int urlHandlerCount = urlHandlers.size();
+        int urlHandlerCount = urlConsumers.size();
         if (urlHandlerCount * config.delay > config.refresh * 1000) {
             // this should prevent the rate limit queue from filling up
             config.refresh = (urlHandlerCount * config.delay) / 1000 + 1;
@@ -236,19 +245,22 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
                     urlHandlerCount, thing.getUID(), config.delay, config.refresh);
         }
 
-        urlHandlers.values().forEach(urlHandler -> urlHandler.start(scheduler, config.refresh));
+        // caches are shared with other things requesting the same URL with the same configuration
+        urlConsumers.forEach((key, consumers) -> urlHandlers.put(key, urlCacheRegistry.subscribe(key, config,
+                rateLimitedHttpClient, this, consumers, scheduler, config.refresh)));
 
         updateStatus(ThingStatus.UNKNOWN);
     }
 
     @Override
     public void dispose() {
-        // stop update tasks
-        urlHandlers.values().forEach(RefreshingUrlCache::stop);
+        // stop update tasks, unless they are shared with other things
+        urlHandlers.values().forEach(subscription -> urlCacheRegistry.unsubscribe(subscription, scheduler));
         rateLimitedHttpClient.shutdown();
 
         // clear lists
         urlHandlers.clear();
+        urlConsumers.clear();
         channels.clear();
         channelUrls.clear();
 
@@ -329,14 +341,11 @@ public class HttpThingHandler extends BaseThingHandler implements HttpStatusList
 
         channels.put(channelUID, itemValueConverter);
         if (channelConfig.mode != ChannelMode.WRITEONLY) {
-            // we need a key consisting of stateContent and URL, only if both are equal, we can use the same cache
-            String key = channelConfig.stateContent + "$" + stateUrl;
+            // we need a key consisting of stateContent, URL and request configuration, only if all are equal, we can
+            // use the same cache
+            Key key = Key.of(stateUrl, channelConfig.stateContent, config);
             channelUrls.put(channelUID, key);
-            Objects.requireNonNull(
-                    urlHandlers.computeIfAbsent(key,
-                            k -> new RefreshingUrlCache(rateLimitedHttpClient, stateUrl, config,
-                                    channelConfig.stateContent, config.contentType, this)))
-                    .addConsumer(itemValueConverter::process);
+            urlConsumers.computeIfAbsent(key, k -> new ArrayList<>()).add(itemValueConverter::process);
         }
 
         StateDescription stateDescription = StateDescriptionFragmentBuilder.create()
@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link HostConcurrencyLimiter} limits the number of concurrent requests per destination (scheme, host and port).
+ * All things requesting the same destination share one queue.
+ *
+ * The limit adapts to the destination (additive increase, multiplicative decrease): it grows by one for each limit's
+ * worth of requests answered in time, is halved on errors, timeouts and overload responses, and is slightly reduced
+ * when the latency exceeds twice the lowest latency observed recently (plus some slack for jitter).
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class HostConcurrencyLimiter {
+    static final int INITIAL_LIMIT = 4;
+    static final int MIN_LIMIT = 1;
+    // the default of Jetty's maximum connections per destination, more requests are queued by the client anyway
+    static final int MAX_LIMIT = 64;
+    private static final int MAX_QUEUE_SIZE = 1000;
+
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // jitter of fast destinations is not taken as overload
+    private static final long LATENCY_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final double ERROR_BACKOFF = 0.5;
+    private static final double LATENCY_BACKOFF = 0.9;
+    // the baseline follows a rising latency slowly, so a permanently slower destination is not throttled forever
+    private static final double BASELINE_ADAPTION = 0.01;
+    // permits of requests that were never sent are released after this time
+    private static final long STALE_PERMIT_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Logger logger = LoggerFactory.getLogger(HostConcurrencyLimiter.class);
+
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    /**
+     * The metrics of a destination.
+     *
+     * @param destination the destination
+     * @param limit the current concurrency limit
+     * @param inFlight the number of requests that have been started but not completed
+     * @param queued the number of requests waiting for a permit
+     * @param completed the number of completed requests
+     * @param averageQueueWaitMillis the average time requests waited for a permit
+     * @param maxQueueWaitMillis the longest time a request waited for a permit
+     */
+    public record Metrics(String destination, int limit, int inFlight, int queued, long completed,
+            double averageQueueWaitMillis, double maxQueueWaitMillis) {
+    }
+
+    /**
+     * The permission to run a request. It needs to be released when the request is complete.
+     */
+    public static class Permit {
+        private final Destination destination;
+        private final long startNanos = System.nanoTime();
+        private boolean released;
+
+        private Permit(Destination destination) {
+            this.destination = destination;
+        }
+
+        /**
+         * Releases the permit and adapts the limit to the result of the request.
+         *
+         * @param result the result of the request
+         */
+        public void release(Result result) {
+            boolean overloaded = result.isFailed();
+            if (!overloaded) {
+                int status = result.getResponse().getStatus();
+                overloaded = status == HttpStatus.TOO_MANY_REQUESTS_429 || status == HttpStatus.BAD_GATEWAY_502
+                        || status == HttpStatus.SERVICE_UNAVAILABLE_503 || status == HttpStatus.GATEWAY_TIMEOUT_504;
+            }
+            destination.release(this, overloaded);
+        }
+
+        /**
+         * Releases the permit of a request that was not sent, without adapting the limit.
+         */
+        public void cancel() {
+            destination.release(this, null);
+        }
+    }
+
+    /**
+     * Requests a permit for a request to the destination of an URI.
+     *
+     * @param uri the URI of the request
+     * @param priority if the request is queued before the non-priority requests
+     * @return a {@link CompletableFuture} that completes with the permit, or exceptionally with a
+     *         {@link RejectedExecutionException} if too many requests are queued. A permit of a cancelled future is
+     *         released immediately.
+     */
+    public CompletableFuture<Permit> acquire(URI uri, boolean priority) {
+        String key = destinationOf(uri);
+        return destinations.computeIfAbsent(key, Destination::new).acquire(priority);
+    }
+
+    /**
+     * Gets the metrics of all destinations requested so far.
+     *
+     * @return the metrics
+     */
+    public List<Metrics> getMetrics() {
+        return destinations.values().stream().map(Destination::getMetrics).toList();
+    }
+
+    /**
+     * Gets the metrics of the destination of an URI.
+     *
+     * @param uri the URI
+     * @return the metrics, or <code>null</code> if the destination has not been requested
+     */
+    public @Nullable Metrics getMetrics(URI uri) {
+        Destination destination = destinations.get(destinationOf(uri));
+        return destination == null ? null : destination.getMetrics();
+    }
+
+    private static String destinationOf(URI uri) {
+        String scheme = uri.getScheme();
+        scheme = scheme == null ? "http" : scheme.toLowerCase(Locale.ROOT);
+        String host = uri.getHost();
+        host = host == null ? "" : host.toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equals(scheme) ? 443 : 80;
+        }
+        return scheme + "://" + host + ":" + port;
+    }
+
+    private class Destination {
+        private final String name;
+
+        // all fields are guarded by this
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        private final ArrayDeque<Waiter> priorityQueue = new ArrayDeque<>();
+        private final Set<Permit> permits = new HashSet<>();
+        private double limit = INITIAL_LIMIT;
+        private long baselineNanos = Long.MAX_VALUE;
+        private long completed;
+        private long dispatched;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        private Destination(String name) {
+            this.name = name;
+        }
+
+        private CompletableFuture<Permit> acquire(boolean priority) {
+            Waiter waiter = new Waiter();
+            List<Dispatch> dispatches;
+            synchronized (this) {
+                ArrayDeque<Waiter> target = priority ? priorityQueue : queue;
+                if (target.size() >= MAX_QUEUE_SIZE) {
+                    waiter.future.completeExceptionally(
+                            new RejectedExecutionException("Maximum queue size for '" + name + "' exceeded."));
+                    return waiter.future;
+                }
+                target.add(waiter);
+                dispatches = drain();
+            }
+            dispatches.forEach(Dispatch::run);
+            return waiter.future;
+        }
+
+        private void release(Permit permit, @Nullable Boolean overloaded) {
+            List<Dispatch> dispatches;
+            synchronized (this) {
+                if (permit.released) {
+                    return;
+                }
+                permit.released = true;
+                permits.remove(permit);
+                if (overloaded != null) {
+                    completed++;
+                    adapt(System.nanoTime() - permit.startNanos, overloaded);
+                }
+                dispatches = drain();
+            }
+            dispatches.forEach(Dispatch::run);
+        }
+
+        // guarded by this
+        private void adapt(long latencyNanos, boolean overloaded) {
+            int oldLimit = (int) limit;
+            if (overloaded) {
+                limit = Math.max(MIN_LIMIT, limit * ERROR_BACKOFF);
+            } else {
+                if (latencyNanos < baselineNanos) {
+                    baselineNanos = latencyNanos;
+                } else {
+                    baselineNanos += (long) ((latencyNanos - baselineNanos) * BASELINE_ADAPTION);
+                }
+                if (latencyNanos > Math.max(baselineNanos * LATENCY_TOLERANCE, baselineNanos + LATENCY_SLACK_NANOS)) {
+                    limit = Math.max(MIN_LIMIT, limit * LATENCY_BACKOFF);
+                } else if (permits.size() + 1 >= (int) limit) {
+                    // only increase the limit if it was reached, otherwise it is not known to be sufficient
+                    limit = Math.min(MAX_LIMIT, limit + 1 / limit);
+                }
+            }
+            if ((int) limit != oldLimit) {
+                logger.debug("Changed concurrency limit for '{}' from {} to {}", name, oldLimit, (int) limit);
+            }
+        }
+
+        /**
+         * Takes the waiters that can run with the current limit from the queues. They are completed after leaving the
+         * monitor, as completing them runs their dependent stages.
+         */
+        // guarded by this
+        private List<Dispatch> drain() {
+            expireStalePermits();
+            List<Dispatch> dispatches = List.of();
+            while (permits.size() < (int) limit) {
+                Waiter waiter = priorityQueue.poll();
+                if (waiter == null) {
+                    waiter = queue.poll();
+                }
+                if (waiter == null) {
+                    break;
+                }
+                if (waiter.future.isDone()) {
+                    // cancelled while waiting
+                    continue;
+                }
+                Permit permit = new Permit(this);
+                permits.add(permit);
+                long waitNanos = permit.startNanos - waiter.queuedNanos;
+                dispatched++;
+                totalWaitNanos += waitNanos;
+                maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+                if (dispatches.isEmpty()) {
+                    dispatches = new ArrayList<>();
+                }
+                dispatches.add(new Dispatch(waiter, permit));
+            }
+            return dispatches;
+        }
+
+        // guarded by this
+        private void expireStalePermits() {
+            if (permits.size() < (int) limit) {
+                return;
+            }
+            long now = System.nanoTime();
+            Iterator<Permit> iterator = permits.iterator();
+            while (iterator.hasNext()) {
+                Permit permit = iterator.next();
+                if (now - permit.startNanos > STALE_PERMIT_NANOS) {
+                    logger.debug("Releasing permit for '{}' of a request that never completed", name);
+                    permit.released = true;
+                    iterator.remove();
+                }
+            }
+        }
+
+        private synchronized Metrics getMetrics() {
+            double averageWait = dispatched == 0 ? 0 : totalWaitNanos / (double) dispatched / 1_000_000;
+            return new Metrics(name, (int) limit, permits.size(), queue.size() + priorityQueue.size(), completed,
+                    averageWait, maxWaitNanos / 1_000_000.0);
+        }
+    }
+
+    private static class Waiter {
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+        private final long queuedNanos = System.nanoTime();
+    }
+
+    private record Dispatch(Waiter waiter, Permit permit) {
+        private void run() {
+            if (!waiter.future.complete(permit)) {
+                // cancelled after it was taken from the queue
+                permit.cancel();
+            }
+        }
+    }
+}
@@ -39,6 +39,7 @@ public class HttpResponseListener extends BufferingResponseListener {
     private final CompletableFuture<@Nullable ChannelHandlerContent> future;
     private final HttpStatusListener httpStatusListener;
     private final String fallbackEncoding;
+    private final @Nullable ChannelHandlerContent notModifiedContent;
 
     /**
      * the HttpResponseListener is responsible
@@ -49,10 +50,25 @@ public class HttpResponseListener extends BufferingResponseListener {
      */
     public HttpResponseListener(CompletableFuture<@Nullable ChannelHandlerContent> future,
             @Nullable String fallbackEncoding, int bufferSize, HttpStatusListener httpStatusListener) {
+        this(future, fallbackEncoding, bufferSize, httpStatusListener, null);
+    }
+
+    /**
+     * the HttpResponseListener for a conditional request
+     *
+     * @param future Content future to complete with the result of the request
+     * @param fallbackEncoding a fallback encoding for the content (UTF-8 if null)
+     * @param bufferSize the buffer size for the content in kB (default 2048 kB)
+     * @param notModifiedContent the content to complete the future with if the server answers 304 (Not Modified)
+     */
+    public HttpResponseListener(CompletableFuture<@Nullable ChannelHandlerContent> future,
+            @Nullable String fallbackEncoding, int bufferSize, HttpStatusListener httpStatusListener,
+            @Nullable ChannelHandlerContent notModifiedContent) {
         super(bufferSize * 1024);
         this.future = future;
         this.fallbackEncoding = fallbackEncoding != null ? fallbackEncoding : StandardCharsets.UTF_8.name();
         this.httpStatusListener = httpStatusListener;
+        this.notModifiedContent = notModifiedContent;
     }
 
     @Override
@@ -92,15 +108,30 @@ public class HttpResponseListener extends BufferingResponseListener {
                             request.getURI(), request.getMethod(), request.getContent());
                     future.completeExceptionally(new HttpAuthException());
                     break;
+                case HttpStatus.NOT_MODIFIED_304:
+                    ChannelHandlerContent localNotModifiedContent = notModifiedContent;
+                    if (localNotModifiedContent != null) {
+                        logger.trace("Content of '{}' not modified", request.getURI());
+                        future.complete(localNotModifiedContent);
+                        httpStatusListener.onHttpSuccess();
+                    } else {
+                        // an unexpected answer to an unconditional request
+                        onUnexpectedStatus(request, response);
+                    }
+                    break;
                 default:
-                    logger.debug("Requesting '{}' (method='{}', content='{}') failed: {} {}", request.getURI(),
-                            request.getMethod(), request.getContent(), response.getStatus(), response.getReason());
-                    future.complete(null);
-                    httpStatusListener.onHttpError(response.getReason());
+                    onUnexpectedStatus(request, response);
             }
         }
     }
 
+    private void onUnexpectedStatus(Request request, Response response) {
+        logger.debug("Requesting '{}' (method='{}', content='{}') failed: {} {}", request.getURI(), request.getMethod(),
+                request.getContent(), response.getStatus(), response.getReason());
+        future.complete(null);
+        httpStatusListener.onHttpError(response.getReason());
+    }
+
     private String responseToLogString(Response response) {
         String logString = "Code = {" + response.getStatus() + "}, Headers = {"
                 + response.getHeaders().stream().map(HttpField::toString).collect(Collectors.joining(", "))
@@ -13,8 +13,10 @@
 package org.openhab.binding.http.internal.http;
 
 import java.net.URI;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
@@ -29,6 +31,7 @@ import org.eclipse.jetty.client.api.AuthenticationStore;
 import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.util.StringContentProvider;
 import org.eclipse.jetty.http.HttpMethod;
+import org.openhab.binding.http.internal.http.HostConcurrencyLimiter.Permit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +39,9 @@ import org.slf4j.LoggerFactory;
  * The {@link RateLimitedHttpClient} is a wrapper for a Jetty HTTP client that limits the number of requests by delaying
  * the request creation
  *
+ * Independent of the delay, the number of concurrent requests per destination is limited by a
+ * {@link HostConcurrencyLimiter}, which is shared by the clients of all things.
+ *
  * @author Jan N. Klug - Initial contribution
  */
 @NonNullByDefault
@@ -50,11 +56,20 @@ public class RateLimitedHttpClient {
     private final LinkedBlockingQueue<RequestQueueEntry> priorityRequestQueue = new LinkedBlockingQueue<>(
             MAX_QUEUE_SIZE);
 
+    private final HostConcurrencyLimiter concurrencyLimiter;
+    private final Set<CompletableFuture<Permit>> pendingPermits = ConcurrentHashMap.newKeySet();
+
     private @Nullable ScheduledFuture<?> processJob;
 
     public RateLimitedHttpClient(HttpClient httpClient, ScheduledExecutorService scheduler) {
+        this(httpClient, scheduler, new HostConcurrencyLimiter());
+    }
+
+    public RateLimitedHttpClient(HttpClient httpClient, ScheduledExecutorService scheduler,
+            HostConcurrencyLimiter concurrencyLimiter) {
         this.httpClient = httpClient;
         this.scheduler = scheduler;
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
     /**
@@ -63,6 +78,7 @@ public class RateLimitedHttpClient {
     public void shutdown() {
         stopProcessJob();
         requestQueue.forEach(RequestQueueEntry::cancel);
+        pendingPermits.forEach(permitFuture -> permitFuture.cancel(false));
     }
 
     /**
@@ -100,7 +116,7 @@ public class RateLimitedHttpClient {
      */
     public CompletableFuture<Request> newRequest(URI finalUrl, HttpMethod method, String content,
             @Nullable String contentType) {
-        return queueRequest(finalUrl, method, content, contentType, requestQueue);
+        return queueRequest(finalUrl, method, content, contentType, false);
     }
 
     /**
@@ -113,17 +129,19 @@ public class RateLimitedHttpClient {
      */
     public CompletableFuture<Request> newPriorityRequest(URI finalUrl, HttpMethod method, String content,
             @Nullable String contentType) {
-        return queueRequest(finalUrl, method, content, contentType, priorityRequestQueue);
+        return queueRequest(finalUrl, method, content, contentType, true);
     }
 
     private CompletableFuture<Request> queueRequest(URI finalUrl, HttpMethod method, String content,
-            @Nullable String contentType, LinkedBlockingQueue<RequestQueueEntry> queue) {
-        // if no delay is set, return a completed CompletableFuture
+            @Nullable String contentType, boolean priority) {
+        // if no delay is set, only wait for the concurrency limit
         CompletableFuture<Request> future = new CompletableFuture<>();
-        RequestQueueEntry queueEntry = new RequestQueueEntry(finalUrl, method, content, contentType, future);
+        RequestQueueEntry queueEntry = new RequestQueueEntry(finalUrl, method, content, contentType, priority,
+                future);
         if (delay == 0) {
-            queueEntry.completeFuture(httpClient);
+            acquirePermit(queueEntry);
         } else {
+            LinkedBlockingQueue<RequestQueueEntry> queue = priority ? priorityRequestQueue : requestQueue;
             if (!queue.offer(queueEntry)) {
                 future.completeExceptionally(new RejectedExecutionException("Maximum queue size exceeded."));
             }
@@ -132,6 +150,20 @@ public class RateLimitedHttpClient {
         return future;
     }
 
+    private void acquirePermit(RequestQueueEntry queueEntry) {
+        CompletableFuture<Permit> permitFuture = concurrencyLimiter.acquire(queueEntry.finalUrl, queueEntry.priority);
+        pendingPermits.add(permitFuture);
+        permitFuture.whenComplete((permit, e) -> {
+            pendingPermits.remove(permitFuture);
+            if (permit != null) {
+                queueEntry.completeFuture(httpClient, permit);
+            } else {
+                queueEntry.future.completeExceptionally(e instanceof CancellationException ? e
+                        : new RejectedExecutionException("Could not acquire permit: " + e.getMessage(), e));
+            }
+        });
+    }
+
     /**
      * Get the {@link AuthenticationStore} from the wrapped {@link HttpClient}
      *
@@ -178,7 +210,7 @@ public class RateLimitedHttpClient {
             queueEntry = requestQueue.poll();
         }
         if (queueEntry != null) {
-            queueEntry.completeFuture(httpClient);
+            acquirePermit(queueEntry);
         }
     }
 
@@ -187,14 +219,16 @@ public class RateLimitedHttpClient {
         private final HttpMethod method;
         private final String content;
         private final @Nullable String contentType;
+        private final boolean priority;
         private final CompletableFuture<Request> future;
 
         public RequestQueueEntry(URI finalUrl, HttpMethod method, String content, @Nullable String contentType,
-                CompletableFuture<Request> future) {
+                boolean priority, CompletableFuture<Request> future) {
             this.finalUrl = finalUrl;
             this.method = method;
             this.content = content;
             this.contentType = contentType;
+            this.priority = priority;
             this.future = future;
         }
 
@@ -202,17 +236,28 @@ public class RateLimitedHttpClient {
          * complete the future with a request
          *
          * @param httpClient the client to create the request
+         * @param permit the permit of the request, released when the request is complete
          */
-        public void completeFuture(HttpClient httpClient) {
-            Request request = httpClient.newRequest(finalUrl).method(method);
-            if ((method == HttpMethod.POST || method == HttpMethod.PUT) && !content.isEmpty()) {
-                if (contentType == null) {
-                    request.content(new StringContentProvider(content));
-                } else {
-                    request.content(new StringContentProvider(content), contentType);
+        public void completeFuture(HttpClient httpClient, Permit permit) {
+            Request request;
+            try {
+                request = httpClient.newRequest(finalUrl).method(method);
+                if ((method == HttpMethod.POST || method == HttpMethod.PUT) && !content.isEmpty()) {
+                    if (contentType == null) {
+                        request.content(new StringContentProvider(content));
+                    } else {
+                        request.content(new StringContentProvider(content), contentType);
+                    }
                 }
+            } catch (RuntimeException e) {
+                permit.cancel();
+                future.completeExceptionally(e);
+                return;
+            }
+            request.onComplete(permit::release);
+            if (!future.complete(request)) {
+                permit.cancel();
             }
-            future.complete(request);
         }
 
         /**
@@ -15,8 +15,11 @@ package org.openhab.binding.http.internal.http;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
@@ -25,11 +28,16 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
 import org.openhab.binding.http.internal.Util;
 import org.openhab.binding.http.internal.config.HttpThingConfig;
 import org.openhab.core.thing.binding.generic.ChannelHandlerContent;
@@ -40,6 +48,10 @@ import org.slf4j.LoggerFactory;
  * The {@link RefreshingUrlCache} is responsible for requesting from a single URL and passing the content to the
  * channels
  *
+ * GET requests are sent as conditional requests if the last response had an <code>ETag</code> or
+ * <code>Last-Modified</code> header, a 304 (Not Modified) answer is handled like a response with the last content. If
+ * <code>skipUnchanged</code> is set, content equal to the last content is not passed to the channels.
+ *
  * @author Jan N. Klug - Initial contribution
  */
 @NonNullByDefault
@@ -47,8 +59,9 @@ public class RefreshingUrlCache {
     private final Logger logger = LoggerFactory.getLogger(RefreshingUrlCache.class);
 
     private final String url;
-    private final RateLimitedHttpClient httpClient;
+    private volatile RateLimitedHttpClient httpClient;
     private final boolean strictErrorHandling;
+    private final boolean skipUnchanged;
     private final int timeout;
     private final int bufferSize;
     private final @Nullable String fallbackEncoding;
@@ -57,23 +70,45 @@ public class RefreshingUrlCache {
     private final HttpMethod httpMethod;
     private final String httpContent;
     private final @Nullable String httpContentType;
-    private final HttpStatusListener httpStatusListener;
+    private final Set<HttpStatusListener> httpStatusListeners = ConcurrentHashMap.newKeySet();
+    private final HttpStatusListener httpStatusListener = new HttpStatusListener() {
+        @Override
+        public void onHttpError(@Nullable String message) {
+            httpStatusListeners.forEach(listener -> listener.onHttpError(message));
+        }
+
+        @Override
+        public void onHttpSuccess() {
+            httpStatusListeners.forEach(HttpStatusListener::onHttpSuccess);
+        }
+    };
+
+    private final AtomicLong deliveredUpdates = new AtomicLong();
+    private final AtomicLong skippedUpdates = new AtomicLong();
 
     private @Nullable ScheduledFuture<?> future;
-    private @Nullable ChannelHandlerContent lastContent;
+    private volatile @Nullable CachedContent lastContent;
+
+    /**
+     * The content of the last successful response and its validators for conditional requests.
+     */
+    private record CachedContent(ChannelHandlerContent content, @Nullable String etag,
+            @Nullable String lastModified) {
+    }
 
     public RefreshingUrlCache(RateLimitedHttpClient httpClient, String url, HttpThingConfig thingConfig,
             String httpContent, @Nullable String httpContentType, HttpStatusListener httpStatusListener) {
         this.httpClient = httpClient;
         this.url = url;
         this.strictErrorHandling = thingConfig.strictErrorHandling;
+        this.skipUnchanged = thingConfig.skipUnchanged;
         this.timeout = thingConfig.timeout;
         this.bufferSize = thingConfig.bufferSize;
         this.httpMethod = thingConfig.stateMethod;
         this.headers = thingConfig.getHeaders();
         this.httpContent = httpContent;
         this.httpContentType = httpContentType;
-        this.httpStatusListener = httpStatusListener;
+        this.httpStatusListeners.add(httpStatusListener);
         fallbackEncoding = thingConfig.encoding;
     }
 
@@ -86,6 +121,21 @@ public class RefreshingUrlCache {
         logger.trace("Started refresh task for URL '{}' with interval {}s", url, refreshTime);
     }
 
+    /**
+     * Starts the refresh task, or restarts it if it is already started, e.g. to change the refresh interval.
+     *
+     * @param executor the executor running the refresh task
+     * @param refreshTime the interval between two refreshes in s
+     */
+    public void restart(ScheduledExecutorService executor, int refreshTime) {
+        ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+            this.future = null;
+        }
+        start(executor, refreshTime);
+    }
+
     public void stop() {
         // clearing all listeners to prevent further updates
         consumers.clear();
@@ -115,6 +165,27 @@ public class RefreshingUrlCache {
                 request.timeout(timeout, TimeUnit.MILLISECONDS);
                 headers.forEach(request::header);
 
+                ChannelHandlerContent notModifiedContent = null;
+                CachedContent cachedContent = lastContent;
+                if (httpMethod == HttpMethod.GET && cachedContent != null
+                        && (cachedContent.etag() != null || cachedContent.lastModified() != null)) {
+                    String etag = cachedContent.etag();
+                    if (etag != null) {
+                        request.header(HttpHeader.IF_NONE_MATCH, etag);
+                    }
+                    String lastModified = cachedContent.lastModified();
+                    if (lastModified != null) {
+                        request.header(HttpHeader.IF_MODIFIED_SINCE, lastModified);
+                    }
+                    notModifiedContent = cachedContent.content();
+                }
+                AtomicReference<@Nullable HttpFields> responseHeaders = new AtomicReference<>();
+                request.onResponseHeaders(response -> {
+                    if (response.getStatus() == HttpStatus.OK_200) {
+                        responseHeaders.set(response.getHeaders());
+                    }
+                });
+
                 CompletableFuture<@Nullable ChannelHandlerContent> responseContentFuture = new CompletableFuture<>();
                 responseContentFuture.exceptionally(t -> {
                     if (t instanceof HttpAuthException) {
@@ -126,14 +197,14 @@ public class RefreshingUrlCache {
                         }
                     }
                     return null;
-                }).thenAccept(this::processResult);
+                }).thenAccept(content -> processResult(content, responseHeaders.get()));
 
                 if (logger.isTraceEnabled()) {
                     logger.trace("Sending to '{}': {}", uri, Util.requestToLogString(request));
                 }
 
                 request.send(new HttpResponseListener(responseContentFuture, fallbackEncoding, bufferSize,
-                        httpStatusListener));
+                        httpStatusListener, notModifiedContent));
             }).exceptionally(e -> {
                 if (e instanceof CancellationException) {
                     logger.debug("Request to URL {} was cancelled by thing handler.", uri);
@@ -151,12 +222,76 @@ public class RefreshingUrlCache {
         consumers.add(consumer);
     }
 
+    public void removeConsumer(Consumer<@Nullable ChannelHandlerContent> consumer) {
+        consumers.remove(consumer);
+    }
+
+    public void addStatusListener(HttpStatusListener listener) {
+        httpStatusListeners.add(listener);
+    }
+
+    public void removeStatusListener(HttpStatusListener listener) {
+        httpStatusListeners.remove(listener);
+    }
+
+    /**
+     * Sets the client for the following requests, e.g. because the client used so far has been shut down.
+     *
+     * @param httpClient the client
+     */
+    public void setHttpClient(RateLimitedHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Passes the content of the last successful response to the given consumers and reports the success to the given
+     * listener, e.g. when they are added to a cache that has already been refreshed.
+     *
+     * @param listener the listener for the request results
+     * @param consumers the consumers of the content
+     */
+    public void deliverLastContent(HttpStatusListener listener,
+            Collection<Consumer<@Nullable ChannelHandlerContent>> consumers) {
+        CachedContent cachedContent = lastContent;
+        if (cachedContent == null) {
+            return;
+        }
+        listener.onHttpSuccess();
+        for (Consumer<@Nullable ChannelHandlerContent> consumer : consumers) {
+            try {
+                consumer.accept(cachedContent.content());
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                logger.warn("Failed processing result for URL {}: {}", url, e.getMessage());
+            }
+        }
+    }
+
     public Optional<ChannelHandlerContent> get() {
-        return Optional.ofNullable(lastContent);
+        return Optional.ofNullable(lastContent).map(CachedContent::content);
+    }
+
+    /**
+     * @return the number of results passed to the channels
+     */
+    public long getDeliveredUpdates() {
+        return deliveredUpdates.get();
+    }
+
+    /**
+     * @return the number of results not passed to the channels, because the content did not change
+     */
+    public long getSkippedUpdates() {
+        return skippedUpdates.get();
     }
 
-    private void processResult(@Nullable ChannelHandlerContent content) {
-        if (content != null || strictErrorHandling) {
+    private void processResult(@Nullable ChannelHandlerContent content, @Nullable HttpFields responseHeaders) {
+        CachedContent cachedContent = lastContent;
+        if (skipUnchanged && content != null && cachedContent != null
+                && isSameContent(content, cachedContent.content())) {
+            skippedUpdates.incrementAndGet();
+            logger.trace("Content of URL {} unchanged, skipping update", url);
+        } else if (content != null || strictErrorHandling) {
+            deliveredUpdates.incrementAndGet();
             for (Consumer<@Nullable ChannelHandlerContent> consumer : consumers) {
                 try {
                     consumer.accept(content);
@@ -165,6 +300,19 @@ public class RefreshingUrlCache {
                 }
             }
         }
-        lastContent = content;
+
+        if (content == null) {
+            lastContent = null;
+        } else if (cachedContent == null || content != cachedContent.content()) {
+            // a new response, not the last content returned for a 304 (Not Modified) answer
+            lastContent = responseHeaders == null ? new CachedContent(content, null, null)
+                    : new CachedContent(content, responseHeaders.get(HttpHeader.ETAG),
+                            responseHeaders.get(HttpHeader.LAST_MODIFIED));
+        }
+    }
+
+    private static boolean isSameContent(ChannelHandlerContent content, ChannelHandlerContent other) {
+        return content == other || (Objects.equals(content.getMediaType(), other.getMediaType())
+                && Arrays.equals(content.getRawContent(), other.getRawContent()));
     }
 }
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.http.HttpMethod;
+import org.openhab.binding.http.internal.config.HttpAuthMode;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.core.thing.binding.generic.ChannelHandlerContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RefreshingUrlCacheRegistry} shares {@link RefreshingUrlCache}s between all things requesting the same
+ * URL with the same request configuration, so the URL is requested only once per refresh interval.
+ *
+ * A shared cache is refreshed with the shortest refresh time of its subscriptions and uses the
+ * {@link RateLimitedHttpClient} of one of them. It is stopped when the last subscription is removed.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheRegistry {
+    private final Logger logger = LoggerFactory.getLogger(RefreshingUrlCacheRegistry.class);
+
+    // guarded by this
+    private final Map<Key, SharedCache> caches = new HashMap<>();
+
+    /**
+     * Everything that influences the requests of a {@link RefreshingUrlCache} or the processing of their results.
+     */
+    public record Key(String url, String content, @Nullable String contentType, HttpMethod method,
+            Map<String, String> headers, int timeout, int bufferSize, @Nullable String encoding,
+            boolean strictErrorHandling, boolean skipUnchanged, boolean ignoreSSLErrors, String username,
+            String password, HttpAuthMode authMode) {
+
+        public static Key of(String url, String content, HttpThingConfig config) {
+            return new Key(url, content, config.contentType, config.stateMethod, config.getHeaders(), config.timeout,
+                    config.bufferSize, config.encoding, config.strictErrorHandling, config.skipUnchanged,
+                    config.ignoreSSLErrors, config.username, config.password, config.authMode);
+        }
+
+        @Override
+        public String toString() {
+            // do not log credentials
+            return method + " " + url;
+        }
+    }
+
+    /**
+     * The subscription of a thing to a shared cache.
+     */
+    public static class Subscription {
+        private final Key key;
+        private final RefreshingUrlCache cache;
+        private final RateLimitedHttpClient httpClient;
+        private final HttpStatusListener statusListener;
+        private final List<Consumer<@Nullable ChannelHandlerContent>> consumers;
+        private final int refreshTime;
+
+        private Subscription(Key key, RefreshingUrlCache cache, RateLimitedHttpClient httpClient,
+                HttpStatusListener statusListener, List<Consumer<@Nullable ChannelHandlerContent>> consumers,
+                int refreshTime) {
+            this.key = key;
+            this.cache = cache;
+            this.httpClient = httpClient;
+            this.statusListener = statusListener;
+            this.consumers = consumers;
+            this.refreshTime = refreshTime;
+        }
+
+        public RefreshingUrlCache getCache() {
+            return cache;
+        }
+    }
+
+    private static class SharedCache {
+        private final RefreshingUrlCache cache;
+        private final List<Subscription> subscriptions = new ArrayList<>();
+        private RateLimitedHttpClient httpClient;
+        private int refreshTime;
+
+        private SharedCache(RefreshingUrlCache cache, RateLimitedHttpClient httpClient) {
+            this.cache = cache;
+            this.httpClient = httpClient;
+        }
+    }
+
+    /**
+     * Subscribes to the shared cache for a key, creating and starting the cache if there is none yet.
+     *
+     * @param key the key of the cache
+     * @param config the configuration of the subscribing thing
+     * @param httpClient the client of the subscribing thing
+     * @param statusListener the listener for the request results
+     * @param consumers the consumers of the content
+     * @param executor the executor running the refresh task
+     * @param refreshTime the refresh time of the subscribing thing in s
+     * @return the subscription
+     */
+    public synchronized Subscription subscribe(Key key, HttpThingConfig config, RateLimitedHttpClient httpClient,
+            HttpStatusListener statusListener, List<Consumer<@Nullable ChannelHandlerContent>> consumers,
+            ScheduledExecutorService executor, int refreshTime) {
+        SharedCache sharedCache = caches.get(key);
+        if (sharedCache == null) {
+            sharedCache = new SharedCache(new RefreshingUrlCache(httpClient, key.url(), config, key.content(),
+                    key.contentType(), statusListener), httpClient);
+            caches.put(key, sharedCache);
+        } else {
+            sharedCache.cache.addStatusListener(statusListener);
+            logger.debug("Sharing refresh task for '{}' with {} other subscriptions", key,
+                    sharedCache.subscriptions.size());
+        }
+
+        Subscription subscription = new Subscription(key, sharedCache.cache, httpClient, statusListener,
+                List.copyOf(consumers), refreshTime);
+        sharedCache.subscriptions.add(subscription);
+        subscription.consumers.forEach(sharedCache.cache::addConsumer);
+
+        if (sharedCache.subscriptions.size() > 1) {
+            // the next refresh may be far away or skip unchanged content, so pass the content received so far
+            RefreshingUrlCache cache = sharedCache.cache;
+            executor.execute(() -> cache.deliverLastContent(statusListener, subscription.consumers));
+        }
+        if (sharedCache.subscriptions.size() == 1 || refreshTime < sharedCache.refreshTime) {
+            sharedCache.refreshTime = refreshTime;
+            sharedCache.cache.restart(executor, refreshTime);
+        }
+        return subscription;
+    }
+
+    /**
+     * Removes a subscription. The cache is stopped if it was the last subscription.
+     *
+     * @param subscription the subscription
+     * @param executor the executor running the refresh task
+     */
+    public synchronized void unsubscribe(Subscription subscription, ScheduledExecutorService executor) {
+        SharedCache sharedCache = caches.get(subscription.key);
+        if (sharedCache == null || !sharedCache.subscriptions.remove(subscription)) {
+            return;
+        }
+        if (sharedCache.subscriptions.isEmpty()) {
+            caches.remove(subscription.key);
+            sharedCache.cache.stop();
+            return;
+        }
+
+        subscription.consumers.forEach(sharedCache.cache::removeConsumer);
+        sharedCache.cache.removeStatusListener(subscription.statusListener);
+        if (sharedCache.httpClient == subscription.httpClient) {
+            // the client is shut down with the thing of the subscription
+            sharedCache.httpClient = sharedCache.subscriptions.get(0).httpClient;
+            sharedCache.cache.setHttpClient(sharedCache.httpClient);
+        }
+        int refreshTime = sharedCache.subscriptions.stream().mapToInt(s -> s.refreshTime).min()
+                .orElse(subscription.refreshTime);
+        if (refreshTime != sharedCache.refreshTime) {
+            sharedCache.refreshTime = refreshTime;
+            sharedCache.cache.restart(executor, refreshTime);
+        }
+    }
+}
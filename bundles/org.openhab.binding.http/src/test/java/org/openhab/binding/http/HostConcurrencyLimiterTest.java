@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.http.HttpStatus;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.http.internal.http.HostConcurrencyLimiter;
+import org.openhab.binding.http.internal.http.HostConcurrencyLimiter.Metrics;
+import org.openhab.binding.http.internal.http.HostConcurrencyLimiter.Permit;
+
+/**
+ * The {@link HostConcurrencyLimiterTest} implements tests for the {@link HostConcurrencyLimiter}
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class HostConcurrencyLimiterTest {
+    private static final URI FIRST_URI = URI.create("http://device.local/status");
+    private static final URI SECOND_URI = URI.create("http://DEVICE.local:80/other?query");
+    private static final URI OTHER_PORT_URI = URI.create("http://device.local:8080/status");
+
+    private final HostConcurrencyLimiter limiter = new HostConcurrencyLimiter();
+
+    @Test
+    public void requestsToTheSameDestinationShareTheLimit() {
+        List<CompletableFuture<Permit>> permits = acquire(FIRST_URI, 3, false);
+        permits.addAll(acquire(SECOND_URI, 2, false));
+
+        assertEquals(4, permits.stream().filter(CompletableFuture::isDone).count());
+        assertFalse(permits.get(4).isDone());
+
+        Metrics metrics = getMetrics(FIRST_URI);
+        assertEquals(4, metrics.inFlight());
+        assertEquals(1, metrics.queued());
+
+        // a different port is a different destination
+        assertTrue(limiter.acquire(OTHER_PORT_URI, false).isDone());
+
+        permits.get(0).join().release(result(false, HttpStatus.OK_200));
+        assertTrue(permits.get(4).isDone());
+        metrics = getMetrics(FIRST_URI);
+        assertEquals(4, metrics.inFlight());
+        assertEquals(0, metrics.queued());
+        assertEquals(1, metrics.completed());
+    }
+
+    @Test
+    public void priorityRequestsAreDispatchedFirst() {
+        List<CompletableFuture<Permit>> permits = acquire(FIRST_URI, 4, false);
+        CompletableFuture<Permit> regular = limiter.acquire(FIRST_URI, false);
+        CompletableFuture<Permit> priority = limiter.acquire(FIRST_URI, true);
+
+        permits.get(0).join().release(result(false, HttpStatus.OK_200));
+
+        assertTrue(priority.isDone());
+        assertFalse(regular.isDone());
+    }
+
+    @Test
+    public void errorsReduceTheLimit() {
+        List<CompletableFuture<Permit>> permits = acquire(FIRST_URI, 4, false);
+
+        permits.get(0).join().release(result(true, 0));
+        assertEquals(2, getMetrics(FIRST_URI).limit());
+
+        permits.get(1).join().release(result(false, HttpStatus.SERVICE_UNAVAILABLE_503));
+        assertEquals(1, getMetrics(FIRST_URI).limit());
+
+        // the limit does not drop below one
+        permits.get(2).join().release(result(true, 0));
+        assertEquals(1, getMetrics(FIRST_URI).limit());
+
+        // the queued request only runs when all requests above the new limit are complete
+        CompletableFuture<Permit> queued = limiter.acquire(FIRST_URI, false);
+        assertFalse(queued.isDone());
+        permits.get(3).join().release(result(false, HttpStatus.OK_200));
+        assertTrue(queued.isDone());
+    }
+
+    @Test
+    public void fastResponsesIncreaseTheLimit() {
+        int limit = 4;
+        for (int i = 0; i < 20; i++) {
+            // use the full limit, so it is increased
+            List<CompletableFuture<Permit>> permits = acquire(FIRST_URI, limit, false);
+            permits.forEach(permit -> permit.join().release(result(false, HttpStatus.OK_200)));
+            limit = getMetrics(FIRST_URI).limit();
+        }
+
+        assertTrue(limit > 4);
+    }
+
+    @Test
+    public void cancelledRequestsReleaseTheirPermit() {
+        List<CompletableFuture<Permit>> permits = acquire(FIRST_URI, 4, false);
+        CompletableFuture<Permit> cancelled = limiter.acquire(FIRST_URI, false);
+        CompletableFuture<Permit> queued = limiter.acquire(FIRST_URI, false);
+        cancelled.cancel(false);
+
+        permits.get(0).join().cancel();
+
+        assertTrue(queued.isDone());
+        Metrics metrics = getMetrics(FIRST_URI);
+        assertEquals(4, metrics.inFlight());
+        assertEquals(0, metrics.queued());
+        // requests that were not sent do not count
+        assertEquals(0, metrics.completed());
+    }
+
+    @Test
+    public void queueIsBounded() {
+        acquire(FIRST_URI, 4, false);
+        List<CompletableFuture<Permit>> queued = acquire(FIRST_URI, 1001, false);
+
+        CompletableFuture<Permit> rejected = queued.get(1000);
+        assertTrue(rejected.isCompletedExceptionally());
+        assertTrue(rejected.handle((permit, e) -> e instanceof RejectedExecutionException).join());
+    }
+
+    private List<CompletableFuture<Permit>> acquire(URI uri, int count, boolean priority) {
+        List<CompletableFuture<Permit>> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.acquire(uri, priority));
+        }
+        return permits;
+    }
+
+    private Metrics getMetrics(URI uri) {
+        return Objects.requireNonNull(limiter.getMetrics(uri));
+    }
+
+    private Result result(boolean failed, int status) {
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        Result result = mock(Result.class);
+        when(result.isFailed()).thenReturn(failed);
+        when(result.getResponse()).thenReturn(response);
+        return result;
+    }
+}
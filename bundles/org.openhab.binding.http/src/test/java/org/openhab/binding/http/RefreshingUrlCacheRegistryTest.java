@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.binding.http.internal.http.HttpStatusListener;
+import org.openhab.binding.http.internal.http.RateLimitedHttpClient;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry.Key;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry.Subscription;
+import org.openhab.core.thing.binding.generic.ChannelHandlerContent;
+
+/**
+ * The {@link RefreshingUrlCacheRegistryTest} implements tests for the {@link RefreshingUrlCacheRegistry}
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RefreshingUrlCacheRegistryTest extends AbstractWireMockTest {
+    private static final String TEST_LOCATION = "/testlocation";
+    private static final String TEST_CONTENT = "TESTCONTENT";
+
+    private @NonNullByDefault({}) RateLimitedHttpClient firstClient;
+    private @NonNullByDefault({}) RateLimitedHttpClient secondClient;
+    private @NonNullByDefault({}) HttpThingConfig thingConfig;
+    private @NonNullByDefault({}) String url;
+
+    private final RefreshingUrlCacheRegistry registry = new RefreshingUrlCacheRegistry();
+    private final List<@Nullable ChannelHandlerContent> firstContents = new CopyOnWriteArrayList<>();
+    private final List<@Nullable ChannelHandlerContent> secondContents = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void initTest() {
+        // this is usually done inside the HttpHandlerFactory when creating the clients
+        httpClient.setUserAgentField(null);
+
+        firstClient = new RateLimitedHttpClient(httpClient, scheduler);
+        secondClient = new RateLimitedHttpClient(httpClient, scheduler);
+
+        thingConfig = new HttpThingConfig();
+        thingConfig.baseURL = "http://localhost:" + port;
+        thingConfig.timeout = 500;
+        thingConfig.refresh = 1;
+
+        url = thingConfig.baseURL + TEST_LOCATION;
+    }
+
+    @AfterEach
+    public void cleanUpTest() {
+        firstClient.shutdown();
+        secondClient.shutdown();
+        firstContents.clear();
+        secondContents.clear();
+        wireMockServer.resetRequests();
+        super.cleanUpTest();
+    }
+
+    @Test
+    public void testSameUrlIsRequestedOnce() {
+        stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+
+        Subscription first = registry.subscribe(Key.of(url, "", thingConfig), thingConfig, firstClient,
+                mock(HttpStatusListener.class), List.of(firstContents::add), scheduler, 1);
+        Subscription second = registry.subscribe(Key.of(url, "", thingConfig), thingConfig, secondClient,
+                mock(HttpStatusListener.class), List.of(secondContents::add), scheduler, 1);
+        assertSame(first.getCache(), second.getCache());
+
+        // wait until we got at least three results or timeout (after 10s)
+        waitForAssert(() -> assertTrue(secondContents.size() >= 3));
+        registry.unsubscribe(first, scheduler);
+        registry.unsubscribe(second, scheduler);
+
+        // every request was passed to both subscriptions
+        int requests = wireMockServer.getAllServeEvents().size();
+        assertTrue(requests >= secondContents.size() && requests <= secondContents.size() + 1);
+        assertEquals(firstContents.size(), secondContents.size());
+    }
+
+    @Test
+    public void testDifferentConfigurationIsNotShared() {
+        Subscription first = registry.subscribe(Key.of(url, "", thingConfig), thingConfig, firstClient,
+                mock(HttpStatusListener.class), List.of(firstContents::add), scheduler, 30);
+        Subscription second = registry.subscribe(Key.of(url, "content", thingConfig), thingConfig, secondClient,
+                mock(HttpStatusListener.class), List.of(secondContents::add), scheduler, 30);
+
+        assertNotSame(first.getCache(), second.getCache());
+        registry.unsubscribe(first, scheduler);
+        registry.unsubscribe(second, scheduler);
+    }
+
+    @Test
+    public void testRemainingSubscriptionIsRefreshed() {
+        stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+
+        Subscription first = registry.subscribe(Key.of(url, "", thingConfig), thingConfig, firstClient,
+                mock(HttpStatusListener.class), List.of(firstContents::add), scheduler, 1);
+        Subscription second = registry.subscribe(Key.of(url, "", thingConfig), thingConfig, secondClient,
+                mock(HttpStatusListener.class), List.of(secondContents::add), scheduler, 1);
+
+        // remove the subscription whose client is used by the cache, like a disposed thing
+        registry.unsubscribe(first, scheduler);
+        firstClient.shutdown();
+
+        // wait until we got at least two results or timeout (after 10s)
+        waitForAssert(() -> assertTrue(secondContents.size() >= 2));
+        registry.unsubscribe(second, scheduler);
+
+        assertTrue(firstContents.isEmpty());
+    }
+
+    @Test
+    public void testLateSubscriptionGetsLastContent() {
+        stubFor(get(urlEqualTo(TEST_LOCATION)).willReturn(aResponse().withBody(TEST_CONTENT)));
+        thingConfig.skipUnchanged = true;
+
+        Subscription first = registry.subscribe(Key.of(url, "", thingConfig), thingConfig, firstClient,
+                mock(HttpStatusListener.class), List.of(firstContents::add), scheduler, 30);
+        waitForAssert(() -> assertEquals(1, firstContents.size()));
+
+        // the next refresh is not due for 30s and would skip the unchanged content
+        HttpStatusListener secondStatusListener = mock(HttpStatusListener.class);
+        Subscription second = registry.subscribe(Key.of(url, "", thingConfig), thingConfig, secondClient,
+                secondStatusListener, List.of(secondContents::add), scheduler, 30);
+
+        waitForAssert(() -> assertEquals(1, secondContents.size()));
+        assertEquals(TEST_CONTENT, Objects.requireNonNull(secondContents.get(0)).getAsString());
+        verify(secondStatusListener, timeout(1000)).onHttpSuccess();
+        assertEquals(1, wireMockServer.getAllServeEvents().size());
+
+        registry.unsubscribe(first, scheduler);
+        registry.unsubscribe(second, scheduler);
+    }
+}
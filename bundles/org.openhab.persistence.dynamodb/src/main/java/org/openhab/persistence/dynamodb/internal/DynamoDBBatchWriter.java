@@ -0,0 +1,359 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+/**
+ * Buffers items to store and writes them with BatchWriteItem requests of up to 25 items.
+ *
+ * Items are collected for the commit interval, or until a full batch is available. One batch is written at a time,
+ * unprocessed items (e.g. due to throttling) are retried with exponential backoff. When the buffer is full, storing
+ * blocks for a while to slow down the producer before items are dropped.
+ *
+ * BatchWriteItem does not create missing tables, so a batch failing with {@link ResourceNotFoundException} falls
+ * back to {@link TableCreatingPutItem} for its items.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class DynamoDBBatchWriter {
+    /**
+     * Maximum number of items of a BatchWriteItem request, as defined by DynamoDB
+     */
+    static final int MAX_BATCH_SIZE = 25;
+    private static final int MAX_ATTEMPTS = 6;
+    private static final long RETRY_BASE_DELAY_MILLIS = 50;
+    private static final long OFFER_TIMEOUT_MILLIS = 5000;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Logger logger = LoggerFactory.getLogger(DynamoDBBatchWriter.class);
+
+    private final DynamoDBPersistenceService service;
+    private final DynamoDbEnhancedAsyncClient client;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private final BlockingQueue<DynamoDBItem<?>> buffer;
+    private final long commitIntervalMillis;
+
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
+    private volatile CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+    private volatile @Nullable ScheduledFuture<?> commitJob;
+
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public DynamoDBBatchWriter(DynamoDBPersistenceService service, DynamoDbEnhancedAsyncClient client,
+            ScheduledExecutorService scheduler, ExecutorService executor, int bufferSize, long commitIntervalMillis) {
+        this.service = service;
+        this.client = client;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(MAX_BATCH_SIZE, bufferSize));
+        this.commitIntervalMillis = commitIntervalMillis;
+    }
+
+    /**
+     * Adds an item to the buffer. Blocks while the buffer is full, up to a timeout after which the item is dropped.
+     *
+     * @param dto the item to write
+     * @return true if the item was buffered, false if it was dropped
+     */
+    public boolean add(DynamoDBItem<?> dto) {
+        try {
+            if (!buffer.offer(dto)) {
+                logger.debug("Write buffer is full, waiting for pending writes");
+                if (!buffer.offer(dto, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    droppedCount.incrementAndGet();
+                    logger.warn("Write buffer is full, dropping item {}. Consider increasing the write capacity.",
+                            dto.getName());
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        if (buffer.size() >= MAX_BATCH_SIZE || commitIntervalMillis == 0) {
+            writeNext();
+        } else {
+            scheduleCommit();
+        }
+        return true;
+    }
+
+    private void scheduleCommit() {
+        if (commitScheduled.compareAndSet(false, true)) {
+            commitJob = scheduler.schedule(() -> {
+                commitScheduled.set(false);
+                writeNext();
+            }, commitIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts writing the next batch, unless a batch is being written already. Once that batch is done, the next one is
+     * started until the buffer is empty.
+     */
+    private void writeNext() {
+        if (!writing.compareAndSet(false, true)) {
+            return;
+        }
+        List<DynamoDBItem<?>> items = new ArrayList<>(MAX_BATCH_SIZE);
+        buffer.drainTo(items, MAX_BATCH_SIZE);
+        if (items.isEmpty()) {
+            writing.set(false);
+            return;
+        }
+        CompletableFuture<Void> batchFuture = write(new PendingBatch(items), 1);
+        inFlight = batchFuture;
+        batchFuture.whenCompleteAsync((result, exception) -> {
+            writing.set(false);
+            if (!buffer.isEmpty()) {
+                writeNext();
+            }
+        }, executor);
+    }
+
+    private CompletableFuture<Void> write(PendingBatch batch, int attempt) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Instant start = Instant.now();
+        client.batchWriteItem(batch.toRequest()).whenCompleteAsync((result, exception) -> {
+            if (exception != null) {
+                Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                        ? exception.getCause()
+                        : exception;
+                if (cause instanceof ResourceNotFoundException) {
+                    logger.trace(
+                            "BatchWriteItem: Table was not present. Writing {} items with PutItem, creating the table",
+                            batch.size());
+                    CompletableFuture.allOf(batch.putItemsCreatingTables())
+                            .whenComplete((putResult, putException) -> done.complete(null));
+                } else {
+                    droppedCount.addAndGet(batch.size());
+                    logger.warn("BatchWriteItem: failed (final) with {} {}. Dropping {} items.",
+                            cause.getClass().getSimpleName(), cause.getMessage(), batch.size());
+                    done.complete(null);
+                }
+                return;
+            }
+            PendingBatch unprocessed = batch.unprocessed(result);
+            writtenCount.addAndGet(batch.size() - unprocessed.size());
+            if (unprocessed.isEmpty()) {
+                logger.trace("BatchWriteItem: {} items written in {} ms", batch.size(),
+                        Duration.between(start, Instant.now()).toMillis());
+                done.complete(null);
+            } else if (attempt >= MAX_ATTEMPTS) {
+                droppedCount.addAndGet(unprocessed.size());
+                logger.warn("BatchWriteItem: {} items still unprocessed after {} attempts. Dropping them.",
+                        unprocessed.size(), attempt);
+                done.complete(null);
+            } else {
+                long delay = RETRY_BASE_DELAY_MILLIS << (attempt - 1);
+                logger.debug("BatchWriteItem: {} of {} items unprocessed, retrying in {} ms", unprocessed.size(),
+                        batch.size(), delay);
+                scheduler.schedule(() -> write(unprocessed, attempt + 1)
+                        .whenComplete((retryResult, retryException) -> done.complete(null)), delay,
+                        TimeUnit.MILLISECONDS);
+            }
+        }, executor);
+        return done;
+    }
+
+    /**
+     * Writes the buffered items and stops the writer. Items that cannot be written within a timeout are lost.
+     */
+    public void close() {
+        ScheduledFuture<?> job = commitJob;
+        if (job != null) {
+            job.cancel(false);
+        }
+        long deadline = System.nanoTime() + CLOSE_TIMEOUT.toNanos();
+        try {
+            while (!buffer.isEmpty() || writing.get()) {
+                writeNext();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                inFlight.get(remaining, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Waiting for pending writes failed: {}", e.getMessage());
+        }
+        int lost = buffer.size();
+        if (lost > 0) {
+            droppedCount.addAndGet(lost);
+            logger.warn("{} buffered items could not be written before shutdown", lost);
+        }
+        logger.debug("Batch writer closed, {} items written, {} dropped", writtenCount.get(), droppedCount.get());
+    }
+
+    long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    int getBufferedCount() {
+        return buffer.size();
+    }
+
+    private static <T extends DynamoDBItem<?>> WriteBatch writeBatch(Class<T> dtoClass,
+            DynamoDBPersistenceService service, List<T> items) {
+        WriteBatch.Builder<T> builder = WriteBatch.builder(dtoClass).mappedTableResource(service.getTable(dtoClass));
+        items.forEach(builder::addPutItem);
+        return builder.build();
+    }
+
+    /**
+     * The primary key of an item, which consists of the item name and the timestamp in milliseconds
+     */
+    private static String key(DynamoDBItem<?> item) {
+        return item.getName() + "/" + item.getTime().toInstant().toEpochMilli();
+    }
+
+    /**
+     * Items of one BatchWriteItem request, split by table
+     */
+    private class PendingBatch {
+        private final List<DynamoDBBigDecimalItem> numbers;
+        private final List<DynamoDBStringItem> strings;
+
+        PendingBatch(List<DynamoDBItem<?>> items) {
+            // BatchWriteItem rejects requests that contain the same key twice, only the last state is kept. Number and
+            // string items share one table in the new table schema, so the key does not include the item type.
+            Map<String, DynamoDBItem<?>> unique = new LinkedHashMap<>();
+            for (DynamoDBItem<?> item : items) {
+                unique.put(key(item), item);
+            }
+            numbers = new ArrayList<>();
+            strings = new ArrayList<>();
+            for (DynamoDBItem<?> item : unique.values()) {
+                item.accept(new DynamoDBItemVisitor<Boolean>() {
+                    @Override
+                    public Boolean visit(DynamoDBBigDecimalItem dynamoBigDecimalItem) {
+                        return numbers.add(dynamoBigDecimalItem);
+                    }
+
+                    @Override
+                    public Boolean visit(DynamoDBStringItem dynamoStringItem) {
+                        return strings.add(dynamoStringItem);
+                    }
+                });
+            }
+        }
+
+        PendingBatch(List<DynamoDBBigDecimalItem> numbers, List<DynamoDBStringItem> strings) {
+            this.numbers = numbers;
+            this.strings = strings;
+        }
+
+        int size() {
+            return numbers.size() + strings.size();
+        }
+
+        boolean isEmpty() {
+            return numbers.isEmpty() && strings.isEmpty();
+        }
+
+        BatchWriteItemEnhancedRequest toRequest() {
+            List<WriteBatch> writeBatches = new ArrayList<>(2);
+            if (!numbers.isEmpty()) {
+                writeBatches.add(writeBatch(DynamoDBBigDecimalItem.class, service, numbers));
+            }
+            if (!strings.isEmpty()) {
+                writeBatches.add(writeBatch(DynamoDBStringItem.class, service, strings));
+            }
+            return BatchWriteItemEnhancedRequest.builder().writeBatches(writeBatches).build();
+        }
+
+        PendingBatch unprocessed(BatchWriteResult result) {
+            // in the new table schema both item types are stored in the same table, so its unprocessed items are
+            // looked up once and matched to the original items by their key
+            List<DynamoDbAsyncTable<? extends DynamoDBItem<?>>> tables = new ArrayList<>(2);
+            if (!numbers.isEmpty()) {
+                tables.add(service.getTable(DynamoDBBigDecimalItem.class));
+            }
+            if (!strings.isEmpty()) {
+                tables.add(service.getTable(DynamoDBStringItem.class));
+            }
+            Set<String> tableNames = new HashSet<>();
+            Set<String> unprocessedKeys = new HashSet<>();
+            for (DynamoDbAsyncTable<? extends DynamoDBItem<?>> table : tables) {
+                if (tableNames.add(table.tableName())) {
+                    for (DynamoDBItem<?> item : result.unprocessedPutItemsForTable(table)) {
+                        unprocessedKeys.add(key(item));
+                    }
+                }
+            }
+            if (unprocessedKeys.isEmpty()) {
+                return new PendingBatch(List.of(), List.of());
+            }
+            return new PendingBatch(
+                    numbers.stream().filter(item -> unprocessedKeys.contains(key(item))).collect(Collectors.toList()),
+                    strings.stream().filter(item -> unprocessedKeys.contains(key(item))).collect(Collectors.toList()));
+        }
+
+        CompletableFuture<?>[] putItemsCreatingTables() {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(size());
+            for (DynamoDBBigDecimalItem item : numbers) {
+                futures.add(new TableCreatingPutItem<>(service, item, service.getTable(DynamoDBBigDecimalItem.class))
+                        .putItemAsync().thenRun(writtenCount::incrementAndGet));
+            }
+            for (DynamoDBStringItem item : strings) {
+                futures.add(new TableCreatingPutItem<>(service, item, service.getTable(DynamoDBStringItem.class))
+                        .putItemAsync().thenRun(writtenCount::incrementAndGet));
+            }
+            return futures.toArray(CompletableFuture[]::new);
+        }
+    }
+}
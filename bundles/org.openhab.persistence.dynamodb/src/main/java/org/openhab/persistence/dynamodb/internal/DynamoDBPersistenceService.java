@@ -27,6 +27,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 
@@ -103,6 +104,7 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
     protected static final String CONFIG_URI = "persistence:dynamodb";
 
     private static final String DYNAMODB_THREADPOOL_NAME = "dynamodbPersistenceService";
+    private static final String DYNAMODB_WRITER_THREADPOOL_NAME = "dynamodbPersistenceService-writer";
 
     private final ItemRegistry itemRegistry;
     private final UnitProvider unitProvider;
@@ -113,6 +115,9 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
     private @Nullable DynamoDBConfig dbConfig;
     private @Nullable DynamoDBTableNameResolver tableNameResolver;
     private final ExecutorService executor = ThreadPoolManager.getPool(DYNAMODB_THREADPOOL_NAME);
+    private final ScheduledExecutorService writerScheduler = ThreadPoolManager
+            .getScheduledPool(DYNAMODB_WRITER_THREADPOOL_NAME);
+    private @Nullable DynamoDBBatchWriter batchWriter;
     private static final Duration TIMEOUT_API_CALL = Duration.ofSeconds(60);
     private static final Duration TIMEOUT_API_CALL_ATTEMPT = Duration.ofSeconds(5);
     private Map<Class<? extends DynamoDBItem<?>>, DynamoDbAsyncTable<? extends DynamoDBItem<?>>> tableCache = new ConcurrentHashMap<>(
@@ -176,6 +181,11 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
         return dbConfig;
     }
 
+    @Nullable
+    DynamoDBBatchWriter getBatchWriter() {
+        return batchWriter;
+    }
+
     @Activate
     public void activate(final @Nullable BundleContext bundleContext, final Map<String, Object> config) {
         disconnect();
@@ -197,6 +207,14 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
             return;
         }
 
+        DynamoDbEnhancedAsyncClient localClient = client;
+        if (localClient == null) {
+            logger.error("Error creating dynamodb database client. Aborting service activation.");
+            return;
+        }
+        batchWriter = new DynamoDBBatchWriter(this, localClient, writerScheduler, executor,
+                localDbConfig.getBufferSize(), localDbConfig.getBufferCommitIntervalMillis());
+
         isProperlyConfigured = true;
         logger.debug("dynamodb persistence service activated");
     }
@@ -277,7 +295,7 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
         }
     }
 
-    private <T extends DynamoDBItem<?>> DynamoDbAsyncTable<T> getTable(Class<T> dtoClass) {
+    <T extends DynamoDBItem<?>> DynamoDbAsyncTable<T> getTable(Class<T> dtoClass) {
         DynamoDbEnhancedAsyncClient localClient = client;
         DynamoDBTableNameResolver localTableNameResolver = tableNameResolver;
         if (!ensureClient() || localClient == null || localTableNameResolver == null) {
@@ -316,6 +334,12 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
     }
 
     private void disconnect() {
+        DynamoDBBatchWriter localBatchWriter = batchWriter;
+        if (localBatchWriter != null) {
+            // write the buffered items while the client is still available
+            localBatchWriter.close();
+            batchWriter = null;
+        }
         DynamoDbAsyncClient localLowLevelClient = lowLevelClient;
         if (client == null || localLowLevelClient == null) {
             return;
@@ -530,58 +554,54 @@ public class DynamoDBPersistenceService implements QueryablePersistenceService {
         // We 'copy' the item for local use. copyItem also normalizes the unit with NumberItems.
         final GenericItem copiedItem = copyItem(itemTemplate, item, effectiveName, null, unitProvider);
 
+        DynamoDBTableNameResolver localTableNameResolver = tableNameResolver;
+        if (localTableNameResolver != null && localTableNameResolver.isFullyResolved()) {
+            // buffer in the calling thread, so a full buffer slows down the producer
+            bufferItem(copiedItem, time, effectiveName);
+            return;
+        }
         resolveTableSchema().thenAcceptAsync(resolved -> {
             if (!resolved) {
                 logger.warn("Table schema not resolved, not storing item {}.", copiedItem.getName());
                 return;
             }
-
-            DynamoDbEnhancedAsyncClient localClient = client;
-            DynamoDbAsyncClient localLowlevelClient = lowLevelClient;
-            DynamoDBConfig localConfig = dbConfig;
-            DynamoDBTableNameResolver localTableNameResolver = tableNameResolver;
-            if (!isProperlyConfigured || localClient == null || localLowlevelClient == null || localConfig == null
-                    || localTableNameResolver == null) {
-                logger.warn("Not ready to store (config error?), not storing item {}.", item.getName());
-                return;
-            }
-
-            Integer expireDays = localConfig.getExpireDays();
-
-            final DynamoDBItem<?> dto;
-            switch (localTableNameResolver.getTableSchema()) {
-                case NEW:
-                    dto = AbstractDynamoDBItem.fromStateNew(copiedItem, time, expireDays);
-                    break;
-                case LEGACY:
-                    dto = AbstractDynamoDBItem.fromStateLegacy(copiedItem, time);
-                    break;
-                default:
-                    throw new IllegalStateException("Unexpected. Bug");
-            }
-            logger.trace("store() called with item {} {} '{}', which was converted to DTO {}",
-                    copiedItem.getClass().getSimpleName(), effectiveName, copiedItem.getState(), dto);
-            dto.accept(new DynamoDBItemVisitor<TableCreatingPutItem<? extends DynamoDBItem<?>>>() {
-
-                @Override
-                public TableCreatingPutItem<? extends DynamoDBItem<?>> visit(
-                        DynamoDBBigDecimalItem dynamoBigDecimalItem) {
-                    return new TableCreatingPutItem<>(DynamoDBPersistenceService.this, dynamoBigDecimalItem,
-                            getTable(DynamoDBBigDecimalItem.class));
-                }
-
-                @Override
-                public TableCreatingPutItem<? extends DynamoDBItem<?>> visit(DynamoDBStringItem dynamoStringItem) {
-                    return new TableCreatingPutItem<>(DynamoDBPersistenceService.this, dynamoStringItem,
-                            getTable(DynamoDBStringItem.class));
-                }
-            }).putItemAsync();
+            bufferItem(copiedItem, time, effectiveName);
         }, executor).exceptionally(e -> {
             logger.error("Unexcepted error", e);
             return null;
         });
     }
 
+    private void bufferItem(GenericItem copiedItem, ZonedDateTime time, String effectiveName) {
+        DynamoDbEnhancedAsyncClient localClient = client;
+        DynamoDbAsyncClient localLowlevelClient = lowLevelClient;
+        DynamoDBConfig localConfig = dbConfig;
+        DynamoDBTableNameResolver localTableNameResolver = tableNameResolver;
+        DynamoDBBatchWriter localBatchWriter = batchWriter;
+        if (!isProperlyConfigured || localClient == null || localLowlevelClient == null || localConfig == null
+                || localTableNameResolver == null || localBatchWriter == null) {
+            logger.warn("Not ready to store (config error?), not storing item {}.", copiedItem.getName());
+            return;
+        }
+
+        Integer expireDays = localConfig.getExpireDays();
+
+        final DynamoDBItem<?> dto;
+        switch (localTableNameResolver.getTableSchema()) {
+            case NEW:
+                dto = AbstractDynamoDBItem.fromStateNew(copiedItem, time, expireDays);
+                break;
+            case LEGACY:
+                dto = AbstractDynamoDBItem.fromStateLegacy(copiedItem, time);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected. Bug");
+        }
+        logger.trace("store() called with item {} {} '{}', which was converted to DTO {}",
+                copiedItem.getClass().getSimpleName(), effectiveName, copiedItem.getState(), dto);
+        localBatchWriter.add(dto);
+    }
+
     private Item getEffectiveItem(Item item) {
         final Item effectiveItem;
         if (item instanceof GroupItem groupItem) {
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.dynamodb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+
+/**
+ * Stores more states than fit into a single BatchWriteItem request, mixing both tables.
+ *
+ * @author Tobias Brenner - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class BatchWriteIntegrationTest extends BaseIntegrationTest {
+
+    public static final boolean LEGACY_MODE = false;
+    private static final int STATE_COUNT = DynamoDBBatchWriter.MAX_BATCH_SIZE * 2 + 5;
+
+    private static @Nullable ZonedDateTime storeStart;
+
+    @SuppressWarnings("null")
+    @BeforeAll
+    public static void populateData() {
+        storeStart = ZonedDateTime.now();
+
+        NumberItem numberItem = (NumberItem) ITEMS.get("number");
+        StringItem stringItem = (StringItem) ITEMS.get("string");
+        for (int i = 0; i < STATE_COUNT; i++) {
+            numberItem.setState(new DecimalType(i));
+            stringItem.setState(new StringType("state" + i));
+            try {
+                // Add some delay to enforce different timestamps in ms accuracy
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                fail("Interrupted");
+                return;
+            }
+            service.store(numberItem);
+            service.store(stringItem);
+        }
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testAllNumberStatesWritten() {
+        waitForAssert(() -> {
+            List<BigDecimal> states = new ArrayList<>();
+            for (HistoricItem historicItem : BaseIntegrationTest.service.query(createCriteria("number"))) {
+                states.add(((DecimalType) historicItem.getState()).toBigDecimal());
+            }
+            assertEquals(STATE_COUNT, states.size());
+            for (int i = 0; i < STATE_COUNT; i++) {
+                assertEquals(0, states.get(i).compareTo(new BigDecimal(i)));
+            }
+        });
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testAllStringStatesWritten() {
+        waitForAssert(() -> {
+            List<String> states = new ArrayList<>();
+            for (HistoricItem historicItem : BaseIntegrationTest.service.query(createCriteria("string"))) {
+                states.add(historicItem.getState().toString());
+            }
+            assertEquals(STATE_COUNT, states.size());
+            assertEquals("state0", states.get(0));
+            assertEquals("state" + (STATE_COUNT - 1), states.get(STATE_COUNT - 1));
+        });
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testNothingDropped() {
+        waitForAssert(() -> {
+            DynamoDBBatchWriter writer = Objects.requireNonNull(BaseIntegrationTest.service.getBatchWriter());
+            assertEquals(2L * STATE_COUNT, writer.getWrittenCount());
+            assertEquals(0L, writer.getDroppedCount());
+            assertEquals(0, writer.getBufferedCount());
+        });
+    }
+
+    private FilterCriteria createCriteria(String itemName) {
+        FilterCriteria criteria = new FilterCriteria();
+        criteria.setItemName(itemName);
+        criteria.setBeginDate(Objects.requireNonNull(storeStart));
+        criteria.setOrdering(Ordering.ASCENDING);
+        return criteria;
+    }
+}
@@ -254,5 +254,22 @@ public class DynamoDBConfigTest {
         assertEquals(5, fromConfig.getWriteCapacityUnits());
         assertEquals(Optional.empty(), fromConfig.getRetryPolicy().map(RetryPolicy::retryMode));
         assertEquals(ExpectedTableSchema.MAYBE_LEGACY, fromConfig.getTableRevision());
+        assertEquals(501, fromConfig.getBufferCommitIntervalMillis());
+        assertEquals(112, fromConfig.getBufferSize());
+    }
+
+    @SuppressWarnings("null")
+    @Test
+    public void testDefaultBufferSettings() throws Exception {
+        DynamoDBConfig fromConfig = DynamoDBConfig
+                .fromConfig(mapFrom("region", "eu-west-1", "accessKey", "access1", "secretKey", "secret1"));
+        assertEquals(DynamoDBConfig.DEFAULT_BUFFER_COMMIT_INTERVAL_MILLIS, fromConfig.getBufferCommitIntervalMillis());
+        assertEquals(DynamoDBConfig.DEFAULT_BUFFER_SIZE, fromConfig.getBufferSize());
+    }
+
+    @Test
+    public void testInvalidBufferSize() throws Exception {
+        assertNull(DynamoDBConfig.fromConfig(
+                mapFrom("region", "eu-west-1", "accessKey", "access1", "secretKey", "secret1", "bufferSize", "0")));
     }
 }
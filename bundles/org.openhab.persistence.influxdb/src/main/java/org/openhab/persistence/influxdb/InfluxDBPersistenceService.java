@@ -14,32 +14,38 @@ package org.openhab.persistence.influxdb;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemFactory;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.ItemUtil;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.ModifiablePersistenceService;
@@ -50,6 +56,7 @@ import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBHistoricItem;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
@@ -57,6 +64,8 @@ import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
+import org.openhab.persistence.influxdb.internal.InfluxPointQueue;
+import org.openhab.persistence.influxdb.internal.InfluxPointSpool;
 import org.openhab.persistence.influxdb.internal.influx1.InfluxDB1RepositoryImpl;
 import org.openhab.persistence.influxdb.internal.influx2.InfluxDB2RepositoryImpl;
 import org.osgi.framework.Constants;
@@ -99,7 +108,13 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
     private final Logger logger = LoggerFactory.getLogger(InfluxDBPersistenceService.class);
 
     private static final int COMMIT_INTERVAL = 3; // in s
+    private static final int QUERY_BUFFER_SIZE = 1000;
+    private static final Duration QUERY_IDLE_TIMEOUT = Duration.ofSeconds(30);
+    private static final String QUERY_THREADPOOL_NAME = "influxdb-query";
+    private static final InfluxDBRepository.InfluxRow END_OF_ROWS = new InfluxDBRepository.InfluxRow(Instant.EPOCH,
+            "", "");
     protected static final String CONFIG_URI = "persistence:influxdb";
+    private static final Path SPOOL_FOLDER = Path.of(OpenHAB.getUserDataFolder(), "persistence", "influxdb");
 
     // External dependencies
     private final ItemRegistry itemRegistry;
@@ -111,7 +126,8 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
 
     // storage
     private final ScheduledFuture<?> storeJob;
-    private final BlockingQueue<InfluxPoint> pointsQueue = new LinkedBlockingQueue<>();
+    private final InfluxPointQueue pointsQueue;
+    private long reportedDroppedCount = 0;
 
     // conversion
     private final Set<ItemFactory> itemFactories = new HashSet<>();
@@ -124,6 +140,7 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         this.influxDBMetadataService = influxDBMetadataService;
         this.configuration = new InfluxDBConfiguration(config);
         if (configuration.isValid()) {
+            this.pointsQueue = new InfluxPointQueue(configuration.getQueueSize(), createSpool());
             this.influxDBRepository = createInfluxDBRepository();
             this.influxDBRepository.connect();
             this.storeJob = ThreadPoolManager.getScheduledPool("org.openhab.influxdb")
@@ -136,6 +153,13 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         logger.info("InfluxDB persistence service started.");
     }
 
+    // Visible for testing
+    protected @Nullable InfluxPointSpool createSpool() {
+        return configuration.getSpoolSize() > 0
+                ? new InfluxPointSpool(SPOOL_FOLDER, configuration.getReplayBatchSize(), configuration.getSpoolSize())
+                : null;
+    }
+
     // Visible for testing
     protected InfluxDBRepository createInfluxDBRepository() throws IllegalArgumentException {
         return switch (configuration.getVersion()) {
@@ -155,8 +179,12 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         storeJob.cancel(false);
         commit(); // ensure we at least tried to store the data;
 
-        if (!pointsQueue.isEmpty()) {
-            logger.warn("InfluxDB failed to finally store {} points.", pointsQueue.size());
+        long lost = pointsQueue.close();
+        if (lost > 0) {
+            logger.warn("InfluxDB failed to finally store {} points.", lost);
+        } else if (!pointsQueue.isEmpty()) {
+            logger.info("InfluxDB spooled {} points, they will be written after the next start.",
+                    pointsQueue.getSpoolSize());
         }
 
         influxDBRepository.disconnect();
@@ -213,7 +241,7 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
             if (pointsQueue.offer(point)) {
                 logger.trace("Queued {} for item {}", point, item);
             } else {
-                logger.warn("Failed to queue {} for item {}", point, item);
+                logger.debug("Dropped {} for item {}, queue and spool are full", point, item);
             }
         });
     }
@@ -244,9 +272,53 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
                 return List.of();
             }
 
-            List<InfluxDBRepository.InfluxRow> results = influxDBRepository.query(filter,
-                    configuration.getRetentionPolicy());
-            return results.stream().map(this::mapRowToHistoricItem).collect(Collectors.toList());
+            String retentionPolicy = configuration.getRetentionPolicy();
+            if (filter.getPageSize() != Integer.MAX_VALUE) {
+                // a page is read at once, so callers taking only the first items do not keep the response open
+                List<HistoricItem> items = new ArrayList<>();
+                influxDBRepository.query(filter, retentionPolicy, row -> items.add(mapRowToHistoricItem(row)));
+                return items;
+            }
+            return () -> new HistoricItemIterator(filter, retentionPolicy);
+        } else {
+            logger.debug("Query for persisted data ignored, InfluxDB is not connected");
+            return List.of();
+        }
+    }
+
+    /**
+     * Queries the database for values aggregated into time windows. The aggregation is done by the database, so only
+     * one value per window is transferred, e.g. for charts spanning a long time range.
+     *
+     * @param filter the filter to apply to the query
+     * @param window the length of a time window, at least one second
+     * @param aggregation the aggregation applied to the values of each window
+     * @return a time series of items with one entry per window that contains values
+     */
+    public Iterable<HistoricItem> query(FilterCriteria filter, Duration window, InfluxDBAggregation aggregation) {
+        if (window.getSeconds() < 1) {
+            throw new IllegalArgumentException("Window must be at least one second");
+        }
+        String itemName = filter.getItemName();
+        if (itemName == null) {
+            logger.warn("Item name is missing in filter {} when querying data.", filter);
+            return List.of();
+        }
+        if (aggregation.isNumeric()) {
+            Item item = itemRegistry.get(itemName);
+            if (item != null && !(item instanceof NumberItem)) {
+                logger.warn("Aggregation {} requires a number item, but '{}' is a {}", aggregation, itemName,
+                        item.getType());
+                return List.of();
+            }
+        }
+        if (serviceActivated && checkConnection()) {
+            List<HistoricItem> items = new ArrayList<>();
+            // the rows of an aggregated query do not carry the item tag, they all belong to the queried item
+            influxDBRepository.queryAggregated(filter, configuration.getRetentionPolicy(), window, aggregation,
+                    row -> items.add(mapRowToHistoricItem(new InfluxDBRepository.InfluxRow(row.time(), itemName,
+                            row.value()))));
+            return items;
         } else {
             logger.debug("Query for persisted data ignored, InfluxDB is not connected");
             return List.of();
@@ -280,19 +352,65 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
     }
 
     private void commit() {
-        if (!pointsQueue.isEmpty() && checkConnection()) {
-            List<InfluxPoint> points = new ArrayList<>();
-            pointsQueue.drainTo(points);
+        long dropped = pointsQueue.getDroppedCount();
+        if (dropped > reportedDroppedCount) {
+            logger.warn("Dropped {} points because the queue and the spool are full.", dropped - reportedDroppedCount);
+            reportedDroppedCount = dropped;
+        }
+        if (pointsQueue.isEmpty()) {
+            return;
+        }
+        if (!checkConnection()) {
+            pointsQueue.flush();
+            return;
+        }
+
+        List<InfluxPoint> points = pointsQueue.drain();
+        if (!points.isEmpty()) {
             if (!influxDBRepository.write(points)) {
                 logger.warn("Re-queuing {} elements, failed to write batch.", points.size());
-                pointsQueue.addAll(points);
+                pointsQueue.requeue(points);
+                pointsQueue.flush();
                 influxDBRepository.disconnect();
+                return;
+            }
+            logger.trace("Wrote {} elements to database", points.size());
+        }
+
+        // replay a single chunk per commit, so a reconnected database is not flooded with the backlog
+        List<InfluxPoint> spooled = pointsQueue.peekSpooled();
+        if (!spooled.isEmpty()) {
+            if (influxDBRepository.write(spooled)) {
+                pointsQueue.replayed(spooled.size());
+                logger.debug("Replayed {} spooled elements, {} remaining", spooled.size(),
+                        pointsQueue.getSpoolSize());
             } else {
-                logger.trace("Wrote {} elements to database", points.size());
+                logger.warn("Failed to replay {} spooled elements.", spooled.size());
+                influxDBRepository.disconnect();
             }
         }
     }
 
+    public int getQueueSize() {
+        return pointsQueue.getQueueSize();
+    }
+
+    public long getSpoolSize() {
+        return pointsQueue.getSpoolSize();
+    }
+
+    public long getSpooledCount() {
+        return pointsQueue.getSpooledCount();
+    }
+
+    public long getReplayedCount() {
+        return pointsQueue.getReplayedCount();
+    }
+
+    public long getDroppedCount() {
+        return pointsQueue.getDroppedCount();
+    }
+
     /**
      * Convert incoming data to an {@link InfluxPoint} for further processing. This is needed because storage is
      * asynchronous and the item data may have changed.
@@ -377,4 +495,98 @@ public class InfluxDBPersistenceService implements ModifiablePersistenceService
         });
         this.desiredClasses = desiredClasses;
     }
+
+    // Visible for testing
+    protected Duration getQueryIdleTimeout() {
+        return QUERY_IDLE_TIMEOUT;
+    }
+
+    /**
+     * Converts the rows of a query to historic items while they are read. The rows are read by a separate thread into
+     * a bounded buffer. The query is cancelled and its response released when the iterator is closed, or when no row
+     * has been taken from the full buffer for the query idle timeout, e.g. because the caller stopped iterating.
+     */
+    private class HistoricItemIterator implements Iterator<HistoricItem>, AutoCloseable {
+        private final BlockingQueue<InfluxDBRepository.InfluxRow> buffer = new ArrayBlockingQueue<>(
+                QUERY_BUFFER_SIZE);
+        private final Duration idleTimeout = getQueryIdleTimeout();
+        private volatile boolean closed;
+        private boolean finished;
+        private InfluxDBRepository.@Nullable InfluxRow next;
+
+        HistoricItemIterator(FilterCriteria filter, String retentionPolicy) {
+            ThreadPoolManager.getPool(QUERY_THREADPOOL_NAME).execute(() -> {
+                try {
+                    influxDBRepository.query(filter, retentionPolicy, this::offer);
+                } finally {
+                    finish();
+                }
+            });
+        }
+
+        private void finish() {
+            // the end is also marked after cancelling, so a late reader does not wait forever
+            try {
+                if (!buffer.offer(END_OF_ROWS, idleTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    logger.debug("Discarding query result, it has not been read for {}", idleTimeout);
+                    buffer.clear();
+                    buffer.offer(END_OF_ROWS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean offer(InfluxDBRepository.InfluxRow row) {
+            try {
+                if (!closed && buffer.offer(row, idleTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return !closed;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!closed) {
+                logger.debug("Cancelling query, the result has not been read for {}", idleTimeout);
+                closed = true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !finished) {
+                try {
+                    InfluxDBRepository.InfluxRow row = buffer.take();
+                    if (row == END_OF_ROWS) {
+                        finished = true;
+                    } else {
+                        next = row;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public HistoricItem next() {
+            InfluxDBRepository.InfluxRow row = hasNext() ? next : null;
+            if (row == null) {
+                throw new NoSuchElementException();
+            }
+            next = null;
+            return mapRowToHistoricItem(row);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            finished = true;
+            next = null;
+            // unblocks the reading thread, which then cancels the query
+            buffer.clear();
+        }
+    }
 }
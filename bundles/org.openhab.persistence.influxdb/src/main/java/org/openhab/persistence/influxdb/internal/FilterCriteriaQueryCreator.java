@@ -12,6 +12,8 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import java.time.Duration;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.persistence.FilterCriteria;
 
@@ -31,6 +33,18 @@ public interface FilterCriteriaQueryCreator {
      */
     String createQuery(FilterCriteria criteria, String retentionPolicy);
 
+    /**
+     * Create query from {@link FilterCriteria} that returns one aggregated value per time window
+     *
+     * @param criteria Criteria to create query from
+     * @param retentionPolicy Name of the retentionPolicy/bucket to use in query
+     * @param window Length of a time window, at least one second
+     * @param aggregation Aggregation applied by the database to the values of each window
+     * @return Created query as a String
+     */
+    String createAggregateQuery(FilterCriteria criteria, String retentionPolicy, Duration window,
+            InfluxDBAggregation aggregation);
+
     default String getOperationSymbol(FilterCriteria.Operator operator, InfluxDBVersion version) {
         return switch (operator) {
             case EQ -> "=";
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.Locale;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Aggregation applied by the database to the values of each time window of an aggregated query.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public enum InfluxDBAggregation {
+    MEAN,
+    MIN,
+    MAX,
+    LAST;
+
+    /**
+     * Returns true if the aggregation calculates a new value and therefore requires numeric values.
+     */
+    public boolean isNumeric() {
+        return this != LAST;
+    }
+
+    /**
+     * Returns the name of the function in InfluxQL (InfluxDB 1.X).
+     */
+    public String getInfluxQLFunction() {
+        return name();
+    }
+
+    /**
+     * Returns the name of the aggregate function in Flux (InfluxDB 2.X).
+     */
+    public String getFluxFunction() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -12,9 +12,12 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.persistence.FilterCriteria;
@@ -66,7 +69,39 @@ public interface InfluxDBRepository {
      * @return Query results
      * 
      */
-    List<InfluxRow> query(FilterCriteria filter, String retentionPolicy);
+    default List<InfluxRow> query(FilterCriteria filter, String retentionPolicy) {
+        List<InfluxRow> rows = new ArrayList<>();
+        query(filter, retentionPolicy, rows::add);
+        return rows;
+    }
+
+    /**
+     * Executes query, passing each row to the consumer as soon as it has been read
+     *
+     * Reading stops and the response is released as soon as the consumer returns <code>false</code>.
+     *
+     * @param filter the query filter
+     * @param retentionPolicy name of the retention policy/bucket to query
+     * @param consumer receives the rows in the order they are returned by the database
+     * @return <code>true</code> if query executed successfully, <code>false</code> otherwise
+     */
+    boolean query(FilterCriteria filter, String retentionPolicy, Predicate<InfluxRow> consumer);
+
+    /**
+     * Executes query returning one value per time window, aggregated by the database, passing each row to the consumer
+     * as soon as it has been read
+     *
+     * Reading stops and the response is released as soon as the consumer returns <code>false</code>.
+     *
+     * @param filter the query filter
+     * @param retentionPolicy name of the retention policy/bucket to query
+     * @param window length of a time window
+     * @param aggregation aggregation applied to the values of each window
+     * @param consumer receives the rows in the order they are returned by the database
+     * @return <code>true</code> if query executed successfully, <code>false</code> otherwise
+     */
+    boolean queryAggregated(FilterCriteria filter, String retentionPolicy, Duration window,
+            InfluxDBAggregation aggregation, Predicate<InfluxRow> consumer);
 
     /**
      * Write points to database
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Bounded queue of the points waiting to be written to InfluxDB.
+ *
+ * New points are kept in memory. Points that do not fit into memory, and points of batches that could not be written,
+ * go to the optional {@link InfluxPointSpool} on disk, from which they are replayed one segment at a time. Points
+ * that neither fit into memory nor into the spool are dropped.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointQueue {
+    private final BlockingQueue<InfluxPoint> points;
+    private final @Nullable InfluxPointSpool spool;
+
+    private final AtomicLong spooledCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * @param capacity the maximum number of points kept in memory
+     * @param spool the disk spool, or <code>null</code> to drop points that do not fit into memory
+     */
+    public InfluxPointQueue(int capacity, @Nullable InfluxPointSpool spool) {
+        this.points = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.spool = spool;
+    }
+
+    /**
+     * Adds a new point.
+     *
+     * @param point the point
+     * @return <code>true</code> if the point was queued or spooled, <code>false</code> if it was dropped
+     */
+    public boolean offer(InfluxPoint point) {
+        return points.offer(point) || spool(List.of(point)) == 1;
+    }
+
+    /**
+     * Removes all points from memory.
+     *
+     * @return the removed points
+     */
+    public List<InfluxPoint> drain() {
+        List<InfluxPoint> drained = new ArrayList<>();
+        points.drainTo(drained);
+        return drained;
+    }
+
+    /**
+     * Takes back points that could not be written. They are spooled, or put back into memory if there is no spool.
+     *
+     * @param failed the points that could not be written
+     */
+    public void requeue(List<InfluxPoint> failed) {
+        if (spool != null) {
+            spool(failed);
+        } else {
+            int requeued = 0;
+            for (InfluxPoint point : failed) {
+                if (!points.offer(point)) {
+                    break;
+                }
+                requeued++;
+            }
+            droppedCount.addAndGet(failed.size() - requeued);
+        }
+    }
+
+    /**
+     * Returns the next chunk of spooled points to replay, without removing them from the spool.
+     *
+     * @return the oldest spooled points, empty if nothing is spooled
+     */
+    public List<InfluxPoint> peekSpooled() {
+        InfluxPointSpool spool = this.spool;
+        return spool != null ? spool.peek() : List.of();
+    }
+
+    /**
+     * Removes the chunk returned by {@link #peekSpooled()} after it has been written.
+     *
+     * @param count the number of points of the chunk
+     */
+    public void replayed(int count) {
+        InfluxPointSpool spool = this.spool;
+        if (spool != null) {
+            spool.removeOldest();
+            replayedCount.addAndGet(count);
+        }
+    }
+
+    public boolean isEmpty() {
+        return points.isEmpty() && getSpoolSize() == 0;
+    }
+
+    public int getQueueSize() {
+        return points.size();
+    }
+
+    public long getSpoolSize() {
+        InfluxPointSpool spool = this.spool;
+        return spool != null ? spool.size() : 0;
+    }
+
+    public long getSpooledCount() {
+        return spooledCount.get();
+    }
+
+    public long getReplayedCount() {
+        return replayedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Writes buffered spooled points to disk.
+     */
+    public void flush() {
+        InfluxPointSpool spool = this.spool;
+        if (spool != null) {
+            spool.flush();
+        }
+    }
+
+    /**
+     * Spools the points still kept in memory and closes the spool.
+     *
+     * @return the number of points that were lost
+     */
+    public long close() {
+        List<InfluxPoint> remaining = drain();
+        long lost = remaining.size();
+        InfluxPointSpool spool = this.spool;
+        if (spool != null) {
+            lost -= spool(remaining);
+            spool.close();
+        } else {
+            droppedCount.addAndGet(lost);
+        }
+        return lost;
+    }
+
+    private int spool(List<InfluxPoint> toSpool) {
+        InfluxPointSpool spool = this.spool;
+        int spooled = spool != null ? spool.append(toSpool) : 0;
+        spooledCount.addAndGet(spooled);
+        droppedCount.addAndGet(toSpool.size() - spooled);
+        return spooled;
+    }
+}
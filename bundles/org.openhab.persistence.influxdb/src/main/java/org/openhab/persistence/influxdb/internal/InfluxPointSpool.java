@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only disk spool for points that could not be written to InfluxDB.
+ *
+ * Points are appended to numbered segment files holding at most {@code segmentSize} points each. Segments are
+ * replayed oldest first and deleted once they have been written to the database, so the spool survives restarts and a
+ * crash during replay at worst writes a segment twice (which InfluxDB ignores, as the points are identical).
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointSpool {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_DECIMAL = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_BOOLEAN = 5;
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxPointSpool.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSize;
+
+    // segment number -> number of points, the last segment is the one appended to
+    private final TreeMap<Long, Integer> segments = new TreeMap<>();
+    private long size;
+    private @Nullable DataOutputStream writer;
+    private long writerSegment = -1;
+
+    /**
+     * Creates a spool, picking up the segments left from a previous run.
+     *
+     * @param directory the directory the segments are stored in, created when the first point is spooled
+     * @param segmentSize the maximum number of points of a segment, i.e. the number of points replayed at once
+     * @param maxSize the maximum number of points kept in the spool
+     */
+    public InfluxPointSpool(Path directory, int segmentSize, long maxSize) {
+        this.directory = directory;
+        this.segmentSize = Math.max(1, segmentSize);
+        this.maxSize = maxSize;
+        loadSegments();
+    }
+
+    private void loadSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Long number = segmentNumber(file);
+                if (number != null) {
+                    int count = readSegment(file).size();
+                    if (count > 0) {
+                        segments.put(number, count);
+                        size += count;
+                    } else {
+                        deleteSegment(number);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Failed to read spool directory {}: {}", directory, e.getMessage());
+        }
+        if (size > 0) {
+            logger.info("Found {} spooled points in {} segments, they will be written to InfluxDB", size,
+                    segments.size());
+        }
+    }
+
+    private @Nullable Long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Appends the points to the spool.
+     *
+     * @param points the points to spool
+     * @return the number of points that were spooled, the others were dropped because the spool is full or could not
+     *         be written
+     */
+    public synchronized int append(List<InfluxPoint> points) {
+        int appended = 0;
+        for (InfluxPoint point : points) {
+            if (size >= maxSize) {
+                break;
+            }
+            try {
+                DataOutputStream out = openWriter();
+                writePoint(out, point);
+                int count = segments.merge(writerSegment, 1, Integer::sum);
+                size++;
+                appended++;
+                if (count >= segmentSize) {
+                    closeWriter();
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to spool points to {}: {}", directory, e.getMessage());
+                closeWriter();
+                break;
+            }
+        }
+        return appended;
+    }
+
+    /**
+     * Returns the points of the oldest segment, without removing them.
+     *
+     * @return the points of the oldest segment, empty if the spool is empty
+     */
+    public synchronized List<InfluxPoint> peek() {
+        Map.Entry<Long, Integer> oldest = segments.firstEntry();
+        if (oldest == null) {
+            return List.of();
+        }
+        if (oldest.getKey() == writerSegment) {
+            // never read the segment that is still appended to
+            closeWriter();
+        }
+        List<InfluxPoint> points = readSegment(segmentPath(oldest.getKey()));
+        if (points.isEmpty()) {
+            removeOldest();
+        }
+        return points;
+    }
+
+    /**
+     * Removes the oldest segment after its points have been written to the database.
+     */
+    public synchronized void removeOldest() {
+        Map.Entry<Long, Integer> oldest = segments.pollFirstEntry();
+        if (oldest != null) {
+            size -= oldest.getValue();
+            deleteSegment(oldest.getKey());
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Writes buffered points to disk.
+     */
+    public synchronized void flush() {
+        DataOutputStream out = writer;
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                logger.warn("Failed to flush spool segment {}: {}", writerSegment, e.getMessage());
+            }
+        }
+    }
+
+    public synchronized void close() {
+        closeWriter();
+    }
+
+    private DataOutputStream openWriter() throws IOException {
+        DataOutputStream out = writer;
+        if (out == null) {
+            Files.createDirectories(directory);
+            Long last = segments.isEmpty() ? null : segments.lastKey();
+            writerSegment = last == null ? 0 : last + 1;
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segmentPath(writerSegment),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)));
+            writer = out;
+            segments.put(writerSegment, 0);
+        }
+        return out;
+    }
+
+    private void closeWriter() {
+        DataOutputStream out = writer;
+        writer = null;
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close spool segment {}: {}", writerSegment, e.getMessage());
+            }
+        }
+        writerSegment = -1;
+    }
+
+    private void deleteSegment(long number) {
+        try {
+            Files.deleteIfExists(segmentPath(number));
+        } catch (IOException e) {
+            logger.warn("Failed to delete spool segment {}: {}", number, e.getMessage());
+        }
+    }
+
+    private List<InfluxPoint> readSegment(Path file) {
+        List<InfluxPoint> points = new ArrayList<>();
+        try (InputStream stream = Files.newInputStream(file);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            while (true) {
+                points.add(readPoint(in));
+            }
+        } catch (EOFException e) {
+            // end of segment, a partially written last point of a crashed run is skipped
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read spool segment {}, skipping its remaining points: {}", file, e.getMessage());
+        }
+        return points;
+    }
+
+    private void writePoint(DataOutputStream out, InfluxPoint point) throws IOException {
+        writeString(out, point.getMeasurementName());
+        out.writeLong(point.getTime().getEpochSecond());
+        out.writeInt(point.getTime().getNano());
+        Object value = point.getValue();
+        if (value instanceof String string) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, string);
+        } else if (value instanceof Integer integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt(integer);
+        } else if (value instanceof Long longValue) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(longValue);
+        } else if (value instanceof Boolean booleanValue) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(booleanValue);
+        } else if (value instanceof Number number) {
+            out.writeByte(TYPE_DECIMAL);
+            writeString(out, number.toString());
+        } else {
+            out.writeByte(TYPE_NULL);
+        }
+        Map<String, String> tags = point.getTags();
+        out.writeShort(tags.size());
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            writeString(out, tag.getKey());
+            writeString(out, tag.getValue());
+        }
+    }
+
+    private InfluxPoint readPoint(DataInputStream in) throws IOException {
+        InfluxPoint.Builder builder = InfluxPoint.newBuilder(readString(in));
+        builder.withTime(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_STRING -> builder.withValue(readString(in));
+            case TYPE_DECIMAL -> builder.withValue(new BigDecimal(readString(in)));
+            case TYPE_INTEGER -> builder.withValue(in.readInt());
+            case TYPE_LONG -> builder.withValue(in.readLong());
+            case TYPE_BOOLEAN -> builder.withValue(in.readBoolean());
+            case TYPE_NULL -> {
+            }
+            default -> throw new IOException("Unknown value type " + type);
+        }
+        int tagCount = in.readUnsignedShort();
+        for (int i = 0; i < tagCount; i++) {
+            builder.withTag(readString(in), readString(in));
+        }
+        return builder.build();
+    }
+
+    // not writeUTF, which is limited to 65535 bytes, e.g. a large String item state
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid length " + length);
+        } else if (length > in.available()) {
+            // a partially written last point
+            throw new EOFException("Truncated string of length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
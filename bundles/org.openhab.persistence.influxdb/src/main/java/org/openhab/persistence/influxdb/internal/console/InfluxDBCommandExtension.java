@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal.console;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.console.Console;
+import org.openhab.core.io.console.ConsoleCommandCompleter;
+import org.openhab.core.io.console.StringsCompleter;
+import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
+import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.persistence.PersistenceService;
+import org.openhab.core.persistence.PersistenceServiceRegistry;
+import org.openhab.persistence.influxdb.InfluxDBPersistenceService;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link InfluxDBCommandExtension} is responsible for handling console commands
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class InfluxDBCommandExtension extends AbstractConsoleCommandExtension implements ConsoleCommandCompleter {
+
+    private static final String CMD_STATS = "stats";
+    private static final String CMD_AGGREGATE = "aggregate";
+    private static final long DEFAULT_AGGREGATE_HOURS = 24;
+    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(List.of(CMD_STATS, CMD_AGGREGATE),
+            false);
+    private static final StringsCompleter AGGREGATION_COMPLETER = new StringsCompleter(
+            Stream.of(InfluxDBAggregation.values()).map(a -> a.name().toLowerCase(Locale.ROOT)).toList(), false);
+
+    private final PersistenceServiceRegistry persistenceServiceRegistry;
+
+    @Activate
+    public InfluxDBCommandExtension(final @Reference PersistenceServiceRegistry persistenceServiceRegistry) {
+        super(InfluxDBPersistenceService.SERVICE_NAME, "Interact with the InfluxDB persistence service.");
+        this.persistenceServiceRegistry = persistenceServiceRegistry;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        InfluxDBPersistenceService persistenceService = getPersistenceService();
+        if (persistenceService == null) {
+            console.println("No InfluxDB persistence service installed.");
+            return;
+        }
+        if (args.length == 1 && CMD_STATS.equalsIgnoreCase(args[0])) {
+            console.println("Queued points: " + persistenceService.getQueueSize());
+            console.println("Spooled points: " + persistenceService.getSpoolSize() + " (total spooled "
+                    + persistenceService.getSpooledCount() + ", replayed " + persistenceService.getReplayedCount()
+                    + ")");
+            console.println("Dropped points: " + persistenceService.getDroppedCount());
+            return;
+        }
+        if ((args.length == 4 || args.length == 5) && CMD_AGGREGATE.equalsIgnoreCase(args[0])
+                && aggregate(persistenceService, console, args)) {
+            return;
+        }
+        printUsage(console);
+    }
+
+    private boolean aggregate(InfluxDBPersistenceService persistenceService, Console console, String[] args) {
+        InfluxDBAggregation aggregation;
+        long windowSeconds;
+        long hours;
+        try {
+            aggregation = InfluxDBAggregation.valueOf(args[2].toUpperCase(Locale.ROOT));
+            windowSeconds = Long.parseLong(args[3]);
+            hours = args.length == 5 ? Long.parseLong(args[4]) : DEFAULT_AGGREGATE_HOURS;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (windowSeconds < 1 || hours < 1) {
+            return false;
+        }
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(args[1]);
+        filter.setBeginDate(ZonedDateTime.now().minusHours(hours));
+        filter.setOrdering(Ordering.ASCENDING);
+        for (HistoricItem historicItem : persistenceService.query(filter, Duration.ofSeconds(windowSeconds),
+                aggregation)) {
+            console.println(historicItem.getTimestamp() + "  " + historicItem.getState());
+        }
+        return true;
+    }
+
+    private @Nullable InfluxDBPersistenceService getPersistenceService() {
+        for (PersistenceService persistenceService : persistenceServiceRegistry.getAll()) {
+            if (persistenceService instanceof InfluxDBPersistenceService service) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return List.of(buildCommandUsage(CMD_STATS, "show queued, spooled, replayed and dropped points"),
+                buildCommandUsage(CMD_AGGREGATE + " <itemName> <mean|min|max|last> <windowSeconds> [<hours>]",
+                        "show the values of an item aggregated by the database (default: last 24 hours)"));
+    }
+
+    @Override
+    public @Nullable ConsoleCommandCompleter getCompleter() {
+        return this;
+    }
+
+    @Override
+    public boolean complete(String[] args, int cursorArgumentIndex, int cursorPosition, List<String> candidates) {
+        if (cursorArgumentIndex <= 0) {
+            return CMD_COMPLETER.complete(args, cursorArgumentIndex, cursorPosition, candidates);
+        } else if (cursorArgumentIndex == 2 && CMD_AGGREGATE.equalsIgnoreCase(args[0])) {
+            return AGGREGATION_COMPLETER.complete(args, cursorArgumentIndex, cursorPosition, candidates);
+        }
+        return false;
+    }
+}
@@ -16,6 +16,10 @@ import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -28,6 +32,7 @@ import org.influxdb.querybuilder.clauses.SimpleClause;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.types.State;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
@@ -94,6 +99,59 @@ public class InfluxDB1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
         return ((Query) select).getCommand();
     }
 
+    @Override
+    public String createAggregateQuery(FilterCriteria criteria, String retentionPolicy, Duration window,
+            InfluxDBAggregation aggregation) {
+        final String itemName = Objects.requireNonNull(criteria.getItemName()); // we checked non-null before
+        final String tableName = getTableName(itemName);
+
+        // GROUP BY time() is not supported by the query builder, so the query is built by hand
+        StringBuilder query = new StringBuilder("SELECT ");
+        query.append(aggregation.getInfluxQLFunction()).append("(\"").append(COLUMN_VALUE_NAME_V1).append("\") AS \"")
+                .append(COLUMN_VALUE_NAME_V1).append("\" FROM ")
+                .append(fullQualifiedTableName(retentionPolicy, tableName, true));
+
+        List<String> conditions = new ArrayList<>();
+        if (!tableName.equals(itemName)) {
+            conditions.add(TAG_ITEM_NAME + " = " + literal(itemName));
+        }
+        if (criteria.getBeginDate() != null) {
+            conditions.add(COLUMN_TIME_NAME_V1 + " >= " + literal(criteria.getBeginDate().toInstant().toString()));
+        }
+        if (criteria.getEndDate() != null) {
+            conditions.add(COLUMN_TIME_NAME_V1 + " <= " + literal(criteria.getEndDate().toInstant().toString()));
+        }
+        State filterState = criteria.getState();
+        if (filterState != null && criteria.getOperator() != null) {
+            conditions.add(COLUMN_VALUE_NAME_V1 + " " + getOperationSymbol(criteria.getOperator(), InfluxDBVersion.V1)
+                    + " " + literal(stateToObject(filterState)));
+        }
+        if (!conditions.isEmpty()) {
+            query.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        query.append(" GROUP BY time(").append(window.toSeconds()).append("s) fill(none)");
+        query.append(" ORDER BY time ")
+                .append(criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING ? "DESC" : "ASC");
+
+        if (criteria.getPageSize() != Integer.MAX_VALUE) {
+            query.append(" LIMIT ").append(criteria.getPageSize());
+            if (criteria.getPageNumber() != 0) {
+                query.append(" OFFSET ").append((long) criteria.getPageSize() * criteria.getPageNumber());
+            }
+        }
+        return query.append(';').toString();
+    }
+
+    private String literal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        } else if (value instanceof Number) {
+            return value.toString();
+        }
+        return "'" + value.toString().replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
     private String getTableName(@Nullable String itemName) {
         if (itemName == null) {
             return "/.*/";
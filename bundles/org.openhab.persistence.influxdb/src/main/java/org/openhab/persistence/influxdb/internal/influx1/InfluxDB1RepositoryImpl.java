@@ -17,14 +17,18 @@ import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.COLUMN
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.FIELD_VALUE_NAME;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.TAG_ITEM_NAME;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -38,6 +42,7 @@ import org.influxdb.dto.Query;
 import org.influxdb.dto.QueryResult;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
@@ -57,6 +62,7 @@ import com.influxdb.exceptions.InfluxException;
  */
 @NonNullByDefault
 public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
+    private static final int QUERY_CHUNK_SIZE = 1000;
     private final Logger logger = LoggerFactory.getLogger(InfluxDB1RepositoryImpl.class);
     private final InfluxDBConfiguration configuration;
     private final FilterCriteriaQueryCreator queryCreator;
@@ -168,26 +174,70 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
     }
 
     @Override
-    public List<InfluxRow> query(FilterCriteria filter, String retentionPolicy) {
+    public boolean query(FilterCriteria filter, String retentionPolicy, Predicate<InfluxRow> consumer) {
+        return executeQuery(filter, () -> queryCreator.createQuery(filter, retentionPolicy), consumer);
+    }
+
+    @Override
+    public boolean queryAggregated(FilterCriteria filter, String retentionPolicy, Duration window,
+            InfluxDBAggregation aggregation, Predicate<InfluxRow> consumer) {
+        return executeQuery(filter,
+                () -> queryCreator.createAggregateQuery(filter, retentionPolicy, window, aggregation), consumer);
+    }
+
+    private boolean executeQuery(FilterCriteria filter, Supplier<String> queryFactory, Predicate<InfluxRow> consumer) {
         try {
             final InfluxDB currentClient = client;
             if (currentClient != null) {
-                String query = queryCreator.createQuery(filter, retentionPolicy);
+                String query = queryFactory.get();
                 logger.trace("Query {}", query);
                 Query parsedQuery = new Query(query, configuration.getDatabaseName());
-                List<QueryResult.Result> results = currentClient.query(parsedQuery, TimeUnit.MILLISECONDS).getResults();
-                return convertClientResultToRepository(results);
+                // the response is read in chunks, so rows are converted while it is read and reading can be cancelled
+                CompletableFuture<@Nullable Void> completion = new CompletableFuture<>();
+                currentClient.query(parsedQuery, QUERY_CHUNK_SIZE, (cancellable, queryResult) -> {
+                    if (completion.isDone()) {
+                        cancellable.cancel();
+                        return;
+                    }
+                    try {
+                        String error = queryResult.getError();
+                        if (error != null) {
+                            throw new InfluxDBException(error);
+                        }
+                        if (!convertClientResultToRepository(queryResult.getResults(), consumer)) {
+                            cancellable.cancel();
+                            completion.complete(null);
+                        }
+                    } catch (RuntimeException e) {
+                        cancellable.cancel();
+                        completion.completeExceptionally(e);
+                    }
+                }, () -> completion.complete(null), completion::completeExceptionally);
+                completion.join();
+                return true;
             } else {
                 throw new InfluxException("API not present");
             }
+        } catch (CompletionException e) {
+            Throwable cause = Objects.requireNonNullElse(e.getCause(), e);
+            logger.warn("Failed to execute query '{}': {}", filter, cause.getMessage());
+            return false;
         } catch (InfluxException | InfluxDBException e) {
             logger.warn("Failed to execute query '{}': {}", filter, e.getMessage());
-            return List.of();
+            return false;
         }
     }
 
-    private List<InfluxRow> convertClientResultToRepository(List<QueryResult.Result> results) {
-        List<InfluxRow> rows = new ArrayList<>();
+    /**
+     * Passes the rows of the results to the consumer
+     *
+     * @return <code>false</code> if the consumer did not accept more rows, <code>true</code> otherwise
+     */
+    private boolean convertClientResultToRepository(@Nullable List<QueryResult.Result> results,
+            Predicate<InfluxRow> consumer) {
+        if (results == null) {
+            return true;
+        }
         for (QueryResult.Result result : results) {
             List<QueryResult.Series> allSeries = result.getSeries();
             if (result.getError() != null) {
@@ -214,21 +264,26 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                                 throw new IllegalStateException("missing column");
                             }
                             for (List<Object> valueObject : allValues) {
-                                Double rawTime = (Double) valueObject.get(timestampColumn);
-                                Instant time = Instant.ofEpochMilli(rawTime.longValue());
+                                // chunked responses return the time as RFC3339 string instead of epoch
+                                Object rawTime = valueObject.get(timestampColumn);
+                                Instant time = rawTime instanceof Number number
+                                        ? Instant.ofEpochMilli(number.longValue())
+                                        : Instant.parse((String) rawTime);
                                 Object value = valueObject.get(valueColumn);
                                 String itemName = itemNameColumn == -1 ? defaultItemName
                                         : Objects.requireNonNullElse((String) valueObject.get(itemNameColumn),
                                                 defaultItemName);
                                 logger.trace("adding historic item {}: time {} value {}", itemName, time, value);
-                                rows.add(new InfluxRow(time, itemName, value));
+                                if (!consumer.test(new InfluxRow(time, itemName, value))) {
+                                    return false;
+                                }
                             }
                         }
                     }
                 }
             }
         }
-        return rows;
+        return true;
     }
 
     @Override
@@ -17,6 +17,7 @@ import static com.influxdb.query.dsl.functions.restriction.Restrictions.tag;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
@@ -24,6 +25,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.types.State;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
@@ -50,24 +52,10 @@ public class InfluxDB2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
 
     @Override
     public String createQuery(FilterCriteria criteria, String retentionPolicy) {
-        Flux flux = Flux.from(retentionPolicy);
-
-        RangeFlux range = flux.range();
-        if (criteria.getBeginDate() != null) {
-            range.withStart(criteria.getBeginDate().toInstant());
-        } else {
-            range.withStart(-100L, ChronoUnit.YEARS); // Flux needs a mandatory start range
-        }
-        if (criteria.getEndDate() != null) {
-            range.withStop(criteria.getEndDate().toInstant());
-        } else {
-            range.withStop(100L, ChronoUnit.YEARS);
-        }
-        flux = range;
+        Flux flux = createRangeFlux(criteria, retentionPolicy);
 
         String itemName = Objects.requireNonNull(criteria.getItemName()); // we checked non-null before
-        String name = influxDBMetadataService.getMeasurementNameOrDefault(itemName, itemName);
-        String measurementName = configuration.isReplaceUnderscore() ? name.replace('_', '.') : name;
+        String measurementName = getMeasurementName(itemName);
         flux = flux.filter(measurement().equal(measurementName));
         if (!measurementName.equals(itemName)) {
             flux = flux.filter(tag(TAG_ITEM_NAME).equal(itemName));
@@ -90,6 +78,57 @@ public class InfluxDB2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQu
         return flux.toString();
     }
 
+    @Override
+    public String createAggregateQuery(FilterCriteria criteria, String retentionPolicy, Duration window,
+            InfluxDBAggregation aggregation) {
+        Flux flux = createRangeFlux(criteria, retentionPolicy);
+
+        String itemName = Objects.requireNonNull(criteria.getItemName()); // we checked non-null before
+        String measurementName = getMeasurementName(itemName);
+        Restrictions restrictions = Restrictions.and(measurement().equal(measurementName),
+                Restrictions.field().equal(FIELD_VALUE_NAME));
+        if (!measurementName.equals(itemName)) {
+            restrictions = Restrictions.and(restrictions, tag(TAG_ITEM_NAME).equal(itemName));
+        }
+        State filterState = criteria.getState();
+        if (filterState != null && criteria.getOperator() != null) {
+            restrictions = Restrictions.and(restrictions, Restrictions.value().custom(stateToObject(filterState),
+                    getOperationSymbol(criteria.getOperator(), InfluxDBVersion.V2)));
+        }
+        flux = flux.filter(restrictions);
+
+        // aggregateWindow needs the _start and _stop columns, so the other columns are dropped afterwards
+        flux = flux.aggregateWindow(window.toSeconds(), ChronoUnit.SECONDS, aggregation.getFluxFunction())
+                .withPropertyValue("createEmpty", false);
+        flux = flux.keep(new String[] { FIELD_MEASUREMENT_NAME, COLUMN_TIME_NAME_V2, COLUMN_VALUE_NAME_V2 });
+
+        flux = applyOrderingAndPageSize(criteria, flux);
+
+        return flux.toString();
+    }
+
+    private Flux createRangeFlux(FilterCriteria criteria, String retentionPolicy) {
+        Flux flux = Flux.from(retentionPolicy);
+
+        RangeFlux range = flux.range();
+        if (criteria.getBeginDate() != null) {
+            range.withStart(criteria.getBeginDate().toInstant());
+        } else {
+            range.withStart(-100L, ChronoUnit.YEARS); // Flux needs a mandatory start range
+        }
+        if (criteria.getEndDate() != null) {
+            range.withStop(criteria.getEndDate().toInstant());
+        } else {
+            range.withStop(100L, ChronoUnit.YEARS);
+        }
+        return range;
+    }
+
+    private String getMeasurementName(String itemName) {
+        String name = influxDBMetadataService.getMeasurementNameOrDefault(itemName, itemName);
+        return configuration.isReplaceUnderscore() ? name.replace('_', '.') : name;
+    }
+
     private Flux applyOrderingAndPageSize(FilterCriteria criteria, Flux flux) {
         var lastOptimization = criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING
                 && criteria.getPageSize() == 1;
@@ -12,8 +12,9 @@
  */
 package org.openhab.persistence.influxdb;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.DATABASE_PARAM;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.PASSWORD_PARAM;
@@ -23,9 +24,16 @@ import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.UR
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.USER_PARAM;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConfiguration.VERSION_PARAM;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -34,9 +42,13 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataService;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
+import org.openhab.persistence.influxdb.internal.InfluxDBRepository.InfluxRow;
 import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
+import org.openhab.persistence.influxdb.internal.InfluxPointSpool;
 import org.openhab.persistence.influxdb.internal.ItemTestHelper;
 import org.openhab.persistence.influxdb.internal.UnexpectedConditionException;
 
@@ -124,12 +136,86 @@ public class InfluxDBPersistenceServiceTest {
         verify(influxDBRepositoryMock, never()).write(any());
     }
 
+    @Test
+    public void queryReadsAllRows() {
+        InfluxDBPersistenceService instance = getService(VALID_V2_CONFIGURATION);
+        when(influxDBRepositoryMock.isConnected()).thenReturn(true);
+        CountDownLatch cancelled = mockQueryResult(2500);
+
+        int count = 0;
+        for (HistoricItem historicItem : instance.query(createFilter())) {
+            assertEquals(Instant.ofEpochSecond(count++), historicItem.getTimestamp().toInstant());
+        }
+        assertEquals(2500, count);
+        assertEquals(1, cancelled.getCount());
+    }
+
+    @Test
+    public void closingPartiallyReadQueryCancelsIt() throws Exception {
+        InfluxDBPersistenceService instance = getService(VALID_V2_CONFIGURATION);
+        when(influxDBRepositoryMock.isConnected()).thenReturn(true);
+        CountDownLatch cancelled = mockQueryResult(100000);
+
+        Iterator<HistoricItem> iterator = instance.query(createFilter()).iterator();
+        assertEquals(Instant.ofEpochSecond(0), iterator.next().getTimestamp().toInstant());
+        assertEquals(Instant.ofEpochSecond(1), iterator.next().getTimestamp().toInstant());
+        ((AutoCloseable) iterator).close();
+
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void abandonedPartiallyReadQueryIsCancelled() throws Exception {
+        InfluxDBPersistenceService instance = getService(VALID_V2_CONFIGURATION);
+        when(influxDBRepositoryMock.isConnected()).thenReturn(true);
+        CountDownLatch cancelled = mockQueryResult(100000);
+
+        Iterator<HistoricItem> iterator = instance.query(createFilter()).iterator();
+        assertTrue(iterator.hasNext());
+        iterator.next();
+
+        // the iterator is neither read to the end nor closed
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    private CountDownLatch mockQueryResult(int rowCount) {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(influxDBRepositoryMock.query(any(FilterCriteria.class), anyString(), any())).thenAnswer(invocation -> {
+            Predicate<InfluxRow> consumer = invocation.getArgument(2);
+            for (int i = 0; i < rowCount; i++) {
+                if (!consumer.test(new InfluxRow(Instant.ofEpochSecond(i), "number", i))) {
+                    cancelled.countDown();
+                    break;
+                }
+            }
+            return true;
+        });
+        return cancelled;
+    }
+
+    private FilterCriteria createFilter() {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("number");
+        return filter;
+    }
+
     private InfluxDBPersistenceService getService(Map<String, Object> config) {
         return new InfluxDBPersistenceService(mock(ItemRegistry.class), influxDBMetadataService, config) {
             @Override
             protected InfluxDBRepository createInfluxDBRepository() {
                 return influxDBRepositoryMock;
             }
+
+            @Override
+            protected @Nullable InfluxPointSpool createSpool() {
+                return null;
+            }
+
+            @Override
+            protected Duration getQueryIdleTimeout() {
+                return Duration.ofMillis(500);
+            }
         };
     }
 }
@@ -12,10 +12,12 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -186,6 +188,54 @@ public class InfluxFilterCriteriaQueryCreatorImplTest {
                 \t|> last()"""));
     }
 
+    @Test
+    public void testAggregateQuery() {
+        FilterCriteria criteria = createBaseCriteria();
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime yesterday = now.minus(1, ChronoUnit.DAYS);
+        criteria.setBeginDate(yesterday);
+        criteria.setEndDate(now);
+        criteria.setOrdering(FilterCriteria.Ordering.ASCENDING);
+
+        String queryV1 = instanceV1.createAggregateQuery(criteria, RETENTION_POLICY, Duration.ofMinutes(15),
+                InfluxDBAggregation.MEAN);
+        assertThat(queryV1, equalTo(String.format(
+                "SELECT MEAN(\"value\") AS \"value\" FROM \"origin\".\"sampleItem\" WHERE time >= '%s' AND time <= '%s' GROUP BY time(900s) fill(none) ORDER BY time ASC;",
+                yesterday.toInstant(), now.toInstant())));
+
+        String queryV2 = instanceV2.createAggregateQuery(criteria, RETENTION_POLICY, Duration.ofMinutes(15),
+                InfluxDBAggregation.MEAN);
+        assertThat(queryV2, containsString(String.format("|> range(start:%s, stop:%s)",
+                INFLUX2_DATE_FORMATTER.format(yesterday.toInstant()), INFLUX2_DATE_FORMATTER.format(now.toInstant()))));
+        assertThat(queryV2, containsString("r[\"_measurement\"] == \"sampleItem\""));
+        assertThat(queryV2, containsString("|> aggregateWindow(every:900s, fn:mean, createEmpty:false)"));
+        assertThat(queryV2, containsString("|> keep(columns:[\"_measurement\", \"_time\", \"_value\"])"));
+        assertThat(queryV2, containsString("|> sort(desc:false, columns:[\"_time\"])"));
+    }
+
+    @Test
+    public void testAggregateQueryWithMeasurementNameAndPagination() {
+        FilterCriteria criteria = createBaseCriteria();
+        criteria.setOperator(FilterCriteria.Operator.GT);
+        criteria.setState(new PercentType(10));
+        criteria.setPageNumber(1);
+        criteria.setPageSize(100);
+        MetadataKey metadataKey = new MetadataKey(InfluxDBPersistenceService.SERVICE_NAME, "sampleItem");
+        when(metadataRegistry.get(metadataKey)).thenReturn(new Metadata(metadataKey, "measurementName", Map.of()));
+
+        String queryV1 = instanceV1.createAggregateQuery(criteria, RETENTION_POLICY, Duration.ofHours(1),
+                InfluxDBAggregation.MAX);
+        assertThat(queryV1, equalTo(
+                "SELECT MAX(\"value\") AS \"value\" FROM \"origin\".\"measurementName\" WHERE item = 'sampleItem' AND value > 10 GROUP BY time(3600s) fill(none) ORDER BY time DESC LIMIT 100 OFFSET 100;"));
+
+        String queryV2 = instanceV2.createAggregateQuery(criteria, RETENTION_POLICY, Duration.ofHours(1),
+                InfluxDBAggregation.MAX);
+        assertThat(queryV2, containsString("r[\"item\"] == \"sampleItem\""));
+        assertThat(queryV2, containsString("r[\"_value\"] > 10"));
+        assertThat(queryV2, containsString("|> aggregateWindow(every:3600s, fn:max, createEmpty:false)"));
+        assertThat(queryV2, containsString("|> limit(n:100, offset:100)"));
+    }
+
     private FilterCriteria createBaseCriteria() {
         FilterCriteria criteria = new FilterCriteria();
         criteria.setItemName(ITEM_NAME);
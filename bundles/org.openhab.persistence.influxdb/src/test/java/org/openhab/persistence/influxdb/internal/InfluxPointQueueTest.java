@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxPointQueueTest {
+
+    @TempDir
+    @NonNullByDefault({})
+    Path spoolDirectory;
+
+    @Test
+    public void pointsExceedingTheCapacityAreSpooled() {
+        InfluxPointQueue queue = new InfluxPointQueue(2, new InfluxPointSpool(spoolDirectory, 10, 100));
+        for (int i = 0; i < 5; i++) {
+            assertThat(queue.offer(point(i)), is(true));
+        }
+
+        assertThat(queue.drain().size(), is(2));
+        assertThat(queue.getSpoolSize(), is(3L));
+        assertThat(queue.getSpooledCount(), is(3L));
+        assertThat(queue.getDroppedCount(), is(0L));
+    }
+
+    @Test
+    public void pointsExceedingTheSpoolAreDropped() {
+        InfluxPointQueue queue = new InfluxPointQueue(1, new InfluxPointSpool(spoolDirectory, 10, 2));
+        for (int i = 0; i < 5; i++) {
+            queue.offer(point(i));
+        }
+
+        assertThat(queue.getQueueSize(), is(1));
+        assertThat(queue.getSpoolSize(), is(2L));
+        assertThat(queue.getDroppedCount(), is(2L));
+    }
+
+    @Test
+    public void pointsAreDroppedWithoutSpool() {
+        InfluxPointQueue queue = new InfluxPointQueue(2, null);
+        for (int i = 0; i < 3; i++) {
+            queue.offer(point(i));
+        }
+        List<InfluxPoint> failed = queue.drain();
+        queue.offer(point(3));
+        queue.requeue(failed);
+
+        assertThat(queue.getQueueSize(), is(2));
+        assertThat(queue.getDroppedCount(), is(2L));
+    }
+
+    @Test
+    public void spooledPointsAreReplayedInSegments() {
+        InfluxPointQueue queue = new InfluxPointQueue(10, new InfluxPointSpool(spoolDirectory, 2, 100));
+        queue.requeue(List.of(point(0), point(1), point(2)));
+
+        List<InfluxPoint> first = queue.peekSpooled();
+        assertThat(first.size(), is(2));
+        assertThat(first.get(0).getValue(), is(new BigDecimal(0)));
+        queue.replayed(first.size());
+
+        List<InfluxPoint> second = queue.peekSpooled();
+        assertThat(second.size(), is(1));
+        queue.replayed(second.size());
+
+        assertThat(queue.peekSpooled(), is(empty()));
+        assertThat(queue.getReplayedCount(), is(3L));
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void spooledPointsSurviveRestart() {
+        InfluxPointQueue queue = new InfluxPointQueue(10, new InfluxPointSpool(spoolDirectory, 100, 100));
+        InfluxPoint point = InfluxPoint.newBuilder("measurement").withTime(Instant.ofEpochSecond(1700000000, 123))
+                .withValue("text").withTag("item", "Item").withTag("type", "String").build();
+        queue.offer(point);
+        queue.offer(InfluxPoint.newBuilder("switch").withTime(Instant.ofEpochSecond(1)).withValue(1).build());
+        queue.offer(InfluxPoint.newBuilder("date").withTime(Instant.ofEpochSecond(2)).withValue(2L).build());
+        assertThat(queue.close(), is(0L));
+
+        InfluxPointQueue restarted = new InfluxPointQueue(10, new InfluxPointSpool(spoolDirectory, 100, 100));
+        assertThat(restarted.getSpoolSize(), is(3L));
+        List<InfluxPoint> replayed = restarted.peekSpooled();
+        assertThat(replayed.size(), is(3));
+        assertThat(replayed.get(0).getMeasurementName(), is("measurement"));
+        assertThat(replayed.get(0).getTime(), is(point.getTime()));
+        assertThat(replayed.get(0).getValue(), is("text"));
+        assertThat(replayed.get(0).getTags(), is(point.getTags()));
+        assertThat(replayed.get(1).getValue(), is(1));
+        assertThat(replayed.get(2).getValue(), is(2L));
+    }
+
+    @Test
+    public void largeStringsAreSpooled() {
+        InfluxPointQueue queue = new InfluxPointQueue(10, new InfluxPointSpool(spoolDirectory, 100, 100));
+        String value = "\u00e4".repeat(70000);
+        String tag = "t".repeat(70000);
+        queue.requeue(List.of(InfluxPoint.newBuilder("string").withTime(Instant.ofEpochSecond(1)).withValue(value)
+                .withTag("item", tag).build(), point(1)));
+
+        List<InfluxPoint> replayed = queue.peekSpooled();
+        assertThat(replayed.size(), is(2));
+        assertThat(replayed.get(0).getValue(), is(value));
+        assertThat(replayed.get(0).getTags().get("item"), is(tag));
+        assertThat(replayed.get(1).getValue(), is(new BigDecimal(1)));
+    }
+
+    private InfluxPoint point(int value) {
+        return InfluxPoint.newBuilder("item").withTime(Instant.ofEpochSecond(value)).withValue(new BigDecimal(value))
+                .withTag("item", "item").build();
+    }
+}
@@ -0,0 +1,410 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.inmemory.internal;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+
+import javax.measure.Unit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link InMemorySeries} holds the persisted states of a single item, ordered by their timestamps.
+ *
+ * The states are stored in columns of a ring buffer: the timestamps in epoch milliseconds, and the values of
+ * {@link DecimalType} and {@link QuantityType} states as <code>double</code> with their scale. Only the unit of
+ * quantities and other states are kept as objects, in a column that is allocated when the first such state is stored.
+ * The oldest entries are overwritten once <code>maxEntries</code> is reached.
+ *
+ * Writers are serialized by a {@link StampedLock}, readers copy the requested range with an optimistic read and only
+ * take the read lock if a write interfered.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class InMemorySeries {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final @Nullable Object[] NO_OBJECTS = new Object[0];
+
+    private final StampedLock lock = new StampedLock();
+
+    // ring buffer columns, entry i is at physical index (head + i) % capacity
+    private long[] timestamps = new long[0];
+    private double[] values = new double[0];
+    private byte[] scales = new byte[0];
+    // null for DecimalType, the unit for QuantityType, the state otherwise; empty until the first such state is stored
+    private @Nullable Object[] objects = NO_OBJECTS;
+    private int head;
+    private int size;
+    private int maxEntries;
+
+    /**
+     * A copy of a range of entries, taken without holding a lock.
+     */
+    public static class Range {
+        private final long[] timestamps;
+        private final double[] values;
+        private final byte[] scales;
+        private final @Nullable Object[] objects;
+
+        private Range(long[] timestamps, double[] values, byte[] scales, @Nullable Object[] objects) {
+            this.timestamps = timestamps;
+            this.values = values;
+            this.scales = scales;
+            this.objects = objects;
+        }
+
+        public int size() {
+            return timestamps.length;
+        }
+
+        public long getTimestamp(int index) {
+            return timestamps[index];
+        }
+
+        public State getState(int index) {
+            return decode(values[index], scales[index], objects.length > 0 ? objects[index] : null);
+        }
+    }
+
+    public InMemorySeries(long maxEntries) {
+        this.maxEntries = toCapacity(maxEntries);
+    }
+
+    /**
+     * Adds a state. A state with the same timestamp as an already stored one is ignored.
+     *
+     * @param timestamp the timestamp in epoch milliseconds
+     * @param state the state
+     */
+    public void add(long timestamp, State state) {
+        long stamp = lock.writeLock();
+        try {
+            int index = lowerBound(timestamp);
+            if (index < size && timestampAt(index) == timestamp) {
+                return;
+            }
+            if (size == maxEntries) {
+                if (index == 0) {
+                    // older than all entries of a full series, it would be evicted right away
+                    return;
+                }
+                removeOldest(1);
+                index--;
+            } else if (size == timestamps.length) {
+                resize((int) Math.min(maxEntries, Math.max(INITIAL_CAPACITY, timestamps.length * 2L)));
+            }
+            insertAt(index, timestamp, state);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the entries within the time range that match the predicate.
+     *
+     * @param begin the begin of the range in epoch milliseconds, inclusive
+     * @param end the end of the range in epoch milliseconds, inclusive
+     * @param predicate the predicate the removed states match
+     */
+    public void remove(long begin, long end, Predicate<State> predicate) {
+        long stamp = lock.writeLock();
+        try {
+            int from = lowerBound(begin);
+            int to = upperBound(end);
+            int target = from;
+            for (int i = from; i < size; i++) {
+                if (i < to && predicate.test(stateAt(i))) {
+                    continue;
+                }
+                if (target != i) {
+                    copyEntry(i, target);
+                }
+                target++;
+            }
+            clearEntries(target, size);
+            size = target;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Changes the maximum number of entries, dropping the oldest entries if there are more.
+     *
+     * @param maxEntries the new maximum number of entries
+     */
+    public void setMaxEntries(long maxEntries) {
+        long stamp = lock.writeLock();
+        try {
+            this.maxEntries = toCapacity(maxEntries);
+            if (size > this.maxEntries) {
+                removeOldest(size - this.maxEntries);
+            }
+            if (timestamps.length > this.maxEntries) {
+                resize(this.maxEntries);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copies the entries within a time range.
+     *
+     * @param begin the begin of the range in epoch milliseconds, inclusive
+     * @param end the end of the range in epoch milliseconds, inclusive
+     * @return the entries, oldest first
+     */
+    public Range getRange(long begin, long end) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Range range = copyRange(begin, end);
+                if (lock.validate(stamp)) {
+                    return range;
+                }
+            } catch (RuntimeException e) {
+                // inconsistent state seen by a concurrent write, retry with the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return copyRange(begin, end);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Copies the first and the last entry.
+     *
+     * @return the first and the last entry, or an empty range if there are no entries
+     */
+    public Range getFirstAndLast() {
+        long stamp = lock.readLock();
+        try {
+            if (size == 0) {
+                return copy(new int[0]);
+            }
+            return copy(new int[] { 0, size - 1 });
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int result = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    private Range copyRange(long begin, long end) {
+        int from = lowerBound(begin);
+        int to = Math.max(from, upperBound(end));
+        int[] indexes = new int[to - from];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = from + i;
+        }
+        return copy(indexes);
+    }
+
+    private Range copy(int[] indexes) {
+        long[] rangeTimestamps = new long[indexes.length];
+        double[] rangeValues = new double[indexes.length];
+        byte[] rangeScales = new byte[indexes.length];
+        @Nullable
+        Object[] localObjects = objects;
+        @Nullable
+        Object[] rangeObjects = localObjects.length > 0 ? new Object[indexes.length] : NO_OBJECTS;
+        for (int i = 0; i < indexes.length; i++) {
+            int physical = physical(indexes[i]);
+            rangeTimestamps[i] = timestamps[physical];
+            rangeValues[i] = values[physical];
+            rangeScales[i] = scales[physical];
+            if (rangeObjects.length > 0) {
+                rangeObjects[i] = localObjects[physical];
+            }
+        }
+        return new Range(rangeTimestamps, rangeValues, rangeScales, rangeObjects);
+    }
+
+    private int physical(int index) {
+        int physical = head + index;
+        return physical >= timestamps.length ? physical - timestamps.length : physical;
+    }
+
+    private long timestampAt(int index) {
+        return timestamps[physical(index)];
+    }
+
+    private State stateAt(int index) {
+        int physical = physical(index);
+        return decode(values[physical], scales[physical], objects.length > 0 ? objects[physical] : null);
+    }
+
+    /**
+     * @return the index of the first entry with a timestamp not before the given one, {@link #size} if none
+     */
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the index of the first entry with a timestamp after the given one, {@link #size} if none
+     */
+    private int upperBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void insertAt(int index, long timestamp, State state) {
+        // entries are mostly appended, so shift the tail
+        for (int i = size; i > index; i--) {
+            copyEntry(i - 1, i);
+        }
+        size++;
+        int physical = physical(index);
+        timestamps[physical] = timestamp;
+        Object object = null;
+        if (state instanceof QuantityType<?> quantity && isExact(quantity.toBigDecimal())) {
+            values[physical] = quantity.doubleValue();
+            scales[physical] = (byte) quantity.toBigDecimal().scale();
+            object = quantity.getUnit();
+        } else if (state.getClass() == DecimalType.class && isExact(((DecimalType) state).toBigDecimal())) {
+            values[physical] = ((DecimalType) state).doubleValue();
+            scales[physical] = (byte) ((DecimalType) state).toBigDecimal().scale();
+        } else {
+            values[physical] = 0;
+            scales[physical] = 0;
+            object = state;
+        }
+        if (objects.length == 0 && object != null) {
+            objects = new Object[timestamps.length];
+        }
+        if (objects.length > 0) {
+            objects[physical] = object;
+        }
+    }
+
+    private void copyEntry(int from, int to) {
+        int physicalFrom = physical(from);
+        int physicalTo = physical(to);
+        timestamps[physicalTo] = timestamps[physicalFrom];
+        values[physicalTo] = values[physicalFrom];
+        scales[physicalTo] = scales[physicalFrom];
+        if (objects.length > 0) {
+            objects[physicalTo] = objects[physicalFrom];
+        }
+    }
+
+    private void removeOldest(int count) {
+        clearEntries(0, count);
+        head = physical(count);
+        size -= count;
+    }
+
+    private void clearEntries(int from, int to) {
+        if (objects.length > 0) {
+            for (int i = from; i < to; i++) {
+                objects[physical(i)] = null;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] newTimestamps = new long[capacity];
+        double[] newValues = new double[capacity];
+        byte[] newScales = new byte[capacity];
+        @Nullable
+        Object[] newObjects = objects.length > 0 ? new Object[capacity] : NO_OBJECTS;
+        for (int i = 0; i < size; i++) {
+            int physical = physical(i);
+            newTimestamps[i] = timestamps[physical];
+            newValues[i] = values[physical];
+            newScales[i] = scales[physical];
+            if (newObjects.length > 0) {
+                newObjects[i] = objects[physical];
+            }
+        }
+        timestamps = newTimestamps;
+        values = newValues;
+        scales = newScales;
+        objects = newObjects;
+        head = 0;
+    }
+
+    private static int toCapacity(long maxEntries) {
+        // 0 disables purging
+        return maxEntries <= 0 ? MAX_CAPACITY : (int) Math.min(MAX_CAPACITY, maxEntries);
+    }
+
+    /**
+     * @return <code>true</code> if the value is restored unchanged from its <code>double</code> value and scale
+     */
+    private static boolean isExact(BigDecimal value) {
+        int scale = value.scale();
+        return scale >= Byte.MIN_VALUE && scale <= Byte.MAX_VALUE
+                && toBigDecimal(value.doubleValue(), (byte) scale).equals(value);
+    }
+
+    private static BigDecimal toBigDecimal(double value, byte scale) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_EVEN)
+                : BigDecimal.ZERO;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static State decode(double value, byte scale, @Nullable Object object) {
+        if (object == null) {
+            return new DecimalType(toBigDecimal(value, scale));
+        } else if (object instanceof Unit unit) {
+            return new QuantityType(toBigDecimal(value, scale), unit);
+        }
+        return (State) object;
+    }
+}
@@ -21,6 +21,7 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,6 +36,7 @@ import org.openhab.core.items.GenericItem;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.HSBType;
 import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
@@ -275,4 +277,48 @@ public class InMemoryPersistenceTests {
 
         // begin date is before first date is already covered by case #1
     }
+
+    @Test
+    public void maxEntriesDropsOldestEntries() {
+        service.activate(Map.of("maxEntries", 3L));
+
+        ZonedDateTime start = ZonedDateTime.of(2020, 12, 1, 12, 0, 0, 0, ZoneId.systemDefault());
+        service.store(item, start.plusHours(1), new DecimalType(2));
+        service.store(item, start.plusHours(3), new DecimalType(4));
+        service.store(item, start, new DecimalType(1));
+        service.store(item, start.plusHours(2), new DecimalType(3));
+        service.store(item, start.plusHours(4), new DecimalType(5));
+        // older than all entries of the full series
+        service.store(item, start.minusHours(1), new DecimalType(0));
+
+        List<Integer> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+        assertThat(resultSet, contains(3, 4, 5));
+
+        service.modified(Map.of("maxEntries", 2L));
+        resultSet.clear();
+        service.query(filterCriteria).forEach(h -> resultSet.add(((DecimalType) h.getState()).intValue()));
+        assertThat(resultSet, contains(4, 5));
+    }
+
+    @Test
+    public void numericStatesAreRestoredExactly() {
+        List<State> states = List.of(new DecimalType("1.50"), new DecimalType("0.1"), new DecimalType("-1E+3"),
+                new DecimalType("1.23456789012345678901234567890"), new QuantityType<>("21.5 °C"),
+                new PercentType(42), new StringType("value"));
+
+        ZonedDateTime start = ZonedDateTime.of(2022, 05, 31, 10, 0, 0, 0, ZoneId.systemDefault());
+        for (int i = 0; i < states.size(); i++) {
+            service.store(item, start.plusMinutes(i), states.get(i));
+        }
+
+        List<State> resultSet = new ArrayList<>();
+        service.query(filterCriteria).forEach(h -> resultSet.add(h.getState()));
+
+        assertThat(resultSet, is(states));
+        for (int i = 0; i < states.size(); i++) {
+            assertThat(resultSet.get(i).getClass(), is(states.get(i).getClass()));
+            assertThat(resultSet.get(i).toString(), is(states.get(i).toString()));
+        }
+    }
 }
@@ -13,9 +13,11 @@
 package org.openhab.persistence.jdbc.internal;
 
 import java.sql.SQLInvalidAuthorizationSpecException;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -35,6 +37,8 @@ import org.openhab.core.types.State;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
+import org.openhab.persistence.jdbc.internal.dto.JdbcPendingState;
 import org.openhab.persistence.jdbc.internal.dto.JdbcPersistenceItemInfo;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
@@ -225,23 +229,72 @@ public class JdbcMapper {
         errCnt = 0;
     }
 
+    /**
+     * Stores a batch of states, grouped by item table. A failing table does not prevent the others from being
+     * written.
+     *
+     * @param states the states to store
+     * @return the number of states which could not be stored
+     */
+    protected int storeItemValues(List<JdbcPendingState> states) {
+        logger.debug("JDBC::storeItemValues: {} states", states.size());
+        long timerStart = System.currentTimeMillis();
+        int failed = 0;
+        Map<String, List<JdbcPendingState>> statesByTable = new LinkedHashMap<>();
+        for (JdbcPendingState state : states) {
+            try {
+                statesByTable.computeIfAbsent(getTable(state.getItem()), t -> new ArrayList<>()).add(state);
+            } catch (JdbcException e) {
+                logger.warn("JDBC::storeItemValues: Unable to find table for item '{}'", state.getItem().getName(),
+                        e);
+                failed++;
+            }
+        }
+        for (Map.Entry<String, List<JdbcPendingState>> entry : statesByTable.entrySet()) {
+            try {
+                conf.getDBDAO().doStoreItemValues(entry.getKey(), entry.getValue());
+            } catch (JdbcSQLException e) {
+                logger.warn("JDBC::storeItemValues: Unable to store {} states in table '{}'", entry.getValue().size(),
+                        entry.getKey(), e);
+                failed += entry.getValue().size();
+            }
+        }
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        if (failed < states.size()) {
+            errCnt = 0;
+        }
+        return failed;
+    }
+
     public long getRowCount(String tableName) throws JdbcSQLException {
         return conf.getDBDAO().doGetRowCount(tableName);
     }
 
-    protected List<HistoricItem> getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
-            Item item) throws JdbcSQLException {
+    protected Iterable<HistoricItem> getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount,
+            String table, Item item) throws JdbcSQLException {
         logger.debug(
                 "JDBC::getHistItemFilterQuery filter='{}' numberDecimalcount='{}' table='{}' item='{}' itemName='{}'",
                 true, numberDecimalcount, table, item, item.getName());
         long timerStart = System.currentTimeMillis();
-        List<HistoricItem> result = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount, table,
-                item.getName(), timeZoneProvider.getTimeZone());
+        Iterable<HistoricItem> result = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount,
+                table, item.getName(), timeZoneProvider.getTimeZone());
         logTime("getHistItemFilterQuery", timerStart, System.currentTimeMillis());
         errCnt = 0;
         return result;
     }
 
+    protected Iterable<HistoricItem> getHistItemAggregateQuery(FilterCriteria filter, JdbcAggregation aggregation,
+            Duration bucketSize, int numberDecimalcount, String table, Item item) throws JdbcSQLException {
+        logger.debug("JDBC::getHistItemAggregateQuery aggregation='{}' bucketSize='{}' table='{}' itemName='{}'",
+                aggregation, bucketSize, table, item.getName());
+        long timerStart = System.currentTimeMillis();
+        Iterable<HistoricItem> result = conf.getDBDAO().doGetHistItemAggregateQuery(item, filter, aggregation,
+                bucketSize.getSeconds(), numberDecimalcount, table, timeZoneProvider.getTimeZone());
+        logTime("getHistItemAggregateQuery", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+        return result;
+    }
+
     protected void deleteItemValues(FilterCriteria filter, String table) throws JdbcSQLException {
         logger.debug("JDBC::deleteItemValues filter='{}' table='{}' itemName='{}'", true, table, filter.getItemName());
         long timerStart = System.currentTimeMillis();
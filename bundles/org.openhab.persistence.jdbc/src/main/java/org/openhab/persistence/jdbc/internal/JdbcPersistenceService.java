@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -34,6 +35,7 @@ import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.ModifiablePersistenceService;
@@ -46,6 +48,8 @@ import org.openhab.core.types.UnDefType;
 import org.openhab.persistence.jdbc.internal.db.JdbcBaseDAO;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
+import org.openhab.persistence.jdbc.internal.dto.JdbcPendingState;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcException;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.osgi.framework.BundleContext;
@@ -77,6 +81,8 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory(JdbcPersistenceServiceConstants.SERVICE_ID));
 
+    private @Nullable JdbcWriteBehindQueue writeBehindQueue;
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
@@ -120,6 +126,7 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
+        stopWriteBehindQueue();
         // closeConnection();
         initialized = false;
     }
@@ -137,24 +144,39 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
     @Override
     public void store(Item item) {
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        enqueueStore(item, null, item.getState());
     }
 
     @Override
     public void store(Item item, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, null, item.getState()));
+        enqueueStore(item, null, item.getState());
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state) {
-        scheduler.execute(() -> internalStore(item, date, state));
+        enqueueStore(item, date, state);
     }
 
     @Override
     public void store(Item item, ZonedDateTime date, State state, @Nullable String alias) {
         // alias is not supported
-        scheduler.execute(() -> internalStore(item, date, state));
+        enqueueStore(item, date, state);
+    }
+
+    private void enqueueStore(Item item, @Nullable ZonedDateTime date, State state) {
+        JdbcWriteBehindQueue writeBehindQueue = this.writeBehindQueue;
+        if (writeBehindQueue == null) {
+            scheduler.execute(() -> internalStore(item, date, state));
+            return;
+        }
+        // Do not store undefined/uninitialized data
+        if (state instanceof UnDefType) {
+            logger.debug("JDBC::store: ignore Item '{}' because it is UnDefType", item.getName());
+            return;
+        }
+        // the time is taken now, since the database is not written before the next flush
+        writeBehindQueue.offer(new JdbcPendingState(item, state, date != null ? date : ZonedDateTime.now()));
     }
 
     private synchronized void internalStore(Item item, @Nullable ZonedDateTime date, State state) {
@@ -181,6 +203,28 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         }
     }
 
+    /**
+     * Stores a batch of queued states.
+     *
+     * @param states the states to store
+     * @return the number of states stored, the others are lost
+     */
+    private synchronized int internalStore(List<JdbcPendingState> states) {
+        if (!checkDBAccessability()) {
+            logger.warn(
+                    "JDBC::store: No connection to database. Cannot persist {} queued states! Will retry connecting to database when error count:{} equals errReconnectThreshold:{}",
+                    states.size(), errCnt, conf.getErrReconnectThreshold());
+            return 0;
+        }
+        long timerStart = System.currentTimeMillis();
+        int failed = storeItemValues(states);
+        if (logger.isDebugEnabled()) {
+            logger.debug("JDBC: Stored {} of {} queued states in SQL database at {} in {} ms.", states.size() - failed,
+                    states.size(), new Date(), System.currentTimeMillis() - timerStart);
+        }
+        return states.size() - failed;
+    }
+
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
         return getItems();
@@ -196,6 +240,38 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
      */
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        return query(filter,
+                (item, table) -> getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item));
+    }
+
+    /**
+     * Queries the {@link PersistenceService} for data aggregated into time buckets. The aggregation is done by the
+     * database, so only one row per bucket is transferred, e.g. for charts spanning a long time range.
+     *
+     * @param filter
+     *            the filter to apply to the query, paging is not supported
+     * @param bucketSize
+     *            the length of a time bucket, at least one second
+     * @param aggregation
+     *            the aggregation applied to the values of each bucket
+     * @return a time series of items with one entry per bucket
+     */
+    public Iterable<HistoricItem> query(FilterCriteria filter, Duration bucketSize, JdbcAggregation aggregation) {
+        if (bucketSize.getSeconds() < 1) {
+            throw new IllegalArgumentException("Bucket size must be at least one second");
+        }
+        return query(filter, (item, table) -> {
+            if (aggregation.isNumeric() && !(item instanceof NumberItem)) {
+                logger.warn("JDBC::query: aggregation {} requires a number item, but '{}' is a {}", aggregation,
+                        item.getName(), item.getType());
+                return List.of();
+            }
+            return getHistItemAggregateQuery(filter, aggregation, bucketSize, conf.getNumberDecimalcount(), table,
+                    item);
+        });
+    }
+
+    private Iterable<HistoricItem> query(FilterCriteria filter, HistoricItemQuery query) {
         if (!checkDBAccessability()) {
             logger.warn("JDBC::query: database not connected, query aborted for item '{}'", filter.getItemName());
             return List.of();
@@ -239,9 +315,9 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
 
         try {
             long timerStart = System.currentTimeMillis();
-            List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+            Iterable<HistoricItem> items = query.execute(item, table);
             if (logger.isDebugEnabled()) {
-                logger.debug("JDBC: Query for item '{}' returned {} rows in {} ms", itemName, items.size(),
+                logger.debug("JDBC: Query for item '{}' executed in {} ms", itemName,
                         System.currentTimeMillis() - timerStart);
             }
             // Success
@@ -253,9 +329,15 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
         }
     }
 
+    @FunctionalInterface
+    private interface HistoricItemQuery {
+        Iterable<HistoricItem> execute(Item item, String table) throws JdbcSQLException;
+    }
+
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        stopWriteBehindQueue();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             namingStrategy = new NamingStrategy(conf);
@@ -271,9 +353,35 @@ public class JdbcPersistenceService extends JdbcMapper implements ModifiablePers
             initialized = false;
         }
 
+        if (conf.valid && conf.isWriteBehindEnabled()) {
+            logger.debug("JDBC::updateConfig: write-behind enabled, batchSize={} batchInterval={} ms",
+                    conf.getBatchSize(), conf.getBatchInterval());
+            JdbcWriteBehindQueue writeBehindQueue = new JdbcWriteBehindQueue(conf.getBatchSize(),
+                    conf.getBatchInterval(), conf.getBatchQueueCapacity(), scheduler, this::internalStore);
+            writeBehindQueue.start();
+            this.writeBehindQueue = writeBehindQueue;
+        }
+
         logger.debug("JDBC::updateConfig: configuration complete for service={}.", getId());
     }
 
+    private void stopWriteBehindQueue() {
+        JdbcWriteBehindQueue writeBehindQueue = this.writeBehindQueue;
+        if (writeBehindQueue != null) {
+            this.writeBehindQueue = null;
+            writeBehindQueue.stop();
+        }
+    }
+
+    /**
+     * Get the write-behind queue, if enabled.
+     *
+     * @return the {@link JdbcWriteBehindQueue} or null if states are written one by one
+     */
+    public @Nullable JdbcWriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.CHANGE);
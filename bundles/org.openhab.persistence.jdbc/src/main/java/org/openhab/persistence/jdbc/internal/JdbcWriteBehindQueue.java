@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.persistence.jdbc.internal.dto.JdbcPendingState;
+import org.openhab.persistence.jdbc.internal.utils.MovingAverage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link JdbcWriteBehindQueue} collects states in a bounded queue and hands them over to the
+ * database in batches, either when the configured batch size is reached or when the batch interval elapses.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteBehindQueue {
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcWriteBehindQueue.class);
+
+    private final BlockingQueue<JdbcPendingState> queue;
+    private final int batchSize;
+    private final int batchInterval;
+    private final ScheduledExecutorService scheduler;
+    private final ToIntFunction<List<JdbcPendingState>> batchWriter;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    // statistics
+    private final AtomicLong queuedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final MovingAverage batchSizeAverage = new MovingAverage(100);
+    private final MovingAverage flushLatencyAverage = new MovingAverage(100);
+    private volatile int lastBatchSize = 0;
+    private volatile long lastFlushLatency = 0;
+    private volatile long maxFlushLatency = 0;
+
+    /**
+     * Creates a new write-behind queue.
+     *
+     * @param batchSize maximum number of states written in one batch, reaching it triggers an immediate flush
+     * @param batchInterval interval in milliseconds after which queued states are flushed at the latest
+     * @param capacity maximum number of queued states, further states are dropped
+     * @param scheduler the executor flushing the queue, must be single threaded
+     * @param batchWriter writes a batch of states to the database and returns the number of states written
+     */
+    public JdbcWriteBehindQueue(int batchSize, int batchInterval, int capacity, ScheduledExecutorService scheduler,
+            ToIntFunction<List<JdbcPendingState>> batchWriter) {
+        this.batchSize = batchSize;
+        this.batchInterval = batchInterval;
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, batchSize));
+        this.scheduler = scheduler;
+        this.batchWriter = batchWriter;
+    }
+
+    public void start() {
+        flushJob = scheduler.scheduleWithFixedDelay(this::flush, batchInterval, batchInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic flush and writes all states still waiting in the queue.
+     */
+    public void stop() {
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        try {
+            scheduler.submit(this::flush).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("JDBC::stop: Unable to write {} queued states: {}", queue.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a state to the queue without blocking the caller.
+     *
+     * @param state the state to write
+     * @return false if the queue is full and the state was dropped
+     */
+    public boolean offer(JdbcPendingState state) {
+        if (!queue.offer(state)) {
+            long dropped = droppedCount.incrementAndGet();
+            logger.warn("JDBC::offer: Write-behind queue is full, dropped state '{}' of item '{}' ({} dropped in total)",
+                    state.getState(), state.getItem().getName(), dropped);
+            return false;
+        }
+        queuedCount.incrementAndGet();
+        if (queue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::flush);
+        }
+        return true;
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<JdbcPendingState> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            long timerStart = System.currentTimeMillis();
+            int written;
+            try {
+                written = batchWriter.applyAsInt(batch);
+            } catch (RuntimeException e) {
+                logger.warn("JDBC::flush: Unable to write batch of {} states", batch.size(), e);
+                droppedCount.addAndGet(batch.size());
+                batch.clear();
+                continue;
+            }
+            long latency = System.currentTimeMillis() - timerStart;
+            updateStatistics(batch.size(), written, latency);
+            if (written < batch.size()) {
+                logger.warn("JDBC::flush: Dropped {} of {} states of the batch", batch.size() - written, batch.size());
+            }
+            logger.debug("JDBC::flush: Wrote {} of {} states in {} ms, {} states still queued", written, batch.size(),
+                    latency, queue.size());
+            batch.clear();
+        }
+    }
+
+    private synchronized void updateStatistics(int size, int written, long latency) {
+        writtenCount.addAndGet(written);
+        droppedCount.addAndGet(size - written);
+        batchCount.incrementAndGet();
+        lastBatchSize = size;
+        lastFlushLatency = latency;
+        maxFlushLatency = Math.max(maxFlushLatency, latency);
+        batchSizeAverage.add(size);
+        flushLatencyAverage.add(latency);
+    }
+
+    /******************************
+     * public Getters and Setters *
+     ******************************/
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public synchronized double getAverageBatchSize() {
+        return batchSizeAverage.getAverageDouble();
+    }
+
+    public long getLastFlushLatency() {
+        return lastFlushLatency;
+    }
+
+    public synchronized double getAverageFlushLatency() {
+        return flushLatencyAverage.getAverageDouble();
+    }
+
+    public long getMaxFlushLatency() {
+        return maxFlushLatency;
+    }
+}
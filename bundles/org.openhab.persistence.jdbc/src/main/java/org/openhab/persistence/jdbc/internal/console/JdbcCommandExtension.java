@@ -12,6 +12,8 @@
  */
 package org.openhab.persistence.jdbc.internal.console;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
@@ -28,12 +30,17 @@ import org.openhab.core.io.console.ConsoleCommandCompleter;
 import org.openhab.core.io.console.StringsCompleter;
 import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
 import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceService;
 import org.openhab.core.persistence.PersistenceServiceRegistry;
 import org.openhab.persistence.jdbc.internal.ItemTableCheckEntry;
 import org.openhab.persistence.jdbc.internal.ItemTableCheckEntryStatus;
 import org.openhab.persistence.jdbc.internal.JdbcPersistenceService;
 import org.openhab.persistence.jdbc.internal.JdbcPersistenceServiceConstants;
+import org.openhab.persistence.jdbc.internal.JdbcWriteBehindQueue;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -51,18 +58,23 @@ public class JdbcCommandExtension extends AbstractConsoleCommandExtension implem
     private static final String CMD_SCHEMA = "schema";
     private static final String CMD_TABLES = "tables";
     private static final String CMD_RELOAD = "reload";
+    private static final String CMD_STATS = "stats";
+    private static final String CMD_AGGREGATE = "aggregate";
     private static final String SUBCMD_SCHEMA_CHECK = "check";
     private static final String SUBCMD_SCHEMA_FIX = "fix";
     private static final String SUBCMD_TABLES_LIST = "list";
     private static final String SUBCMD_TABLES_CLEAN = "clean";
     private static final String PARAMETER_ALL = "all";
     private static final String PARAMETER_FORCE = "force";
+    private static final long DEFAULT_AGGREGATE_HOURS = 24;
     private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(
-            List.of(CMD_SCHEMA, CMD_TABLES, CMD_RELOAD), false);
+            List.of(CMD_SCHEMA, CMD_TABLES, CMD_RELOAD, CMD_STATS, CMD_AGGREGATE), false);
     private static final StringsCompleter SUBCMD_SCHEMA_COMPLETER = new StringsCompleter(
             List.of(SUBCMD_SCHEMA_CHECK, SUBCMD_SCHEMA_FIX), false);
     private static final StringsCompleter SUBCMD_TABLES_COMPLETER = new StringsCompleter(
             List.of(SUBCMD_TABLES_LIST, SUBCMD_TABLES_CLEAN), false);
+    private static final StringsCompleter AGGREGATION_COMPLETER = new StringsCompleter(
+            Stream.of(JdbcAggregation.values()).map(a -> a.name().toLowerCase()).collect(Collectors.toList()), false);
 
     private final PersistenceServiceRegistry persistenceServiceRegistry;
 
@@ -74,7 +86,7 @@ public class JdbcCommandExtension extends AbstractConsoleCommandExtension implem
 
     @Override
     public void execute(String[] args, Console console) {
-        if (args.length < 1 || args.length > 4) {
+        if (args.length < 1 || args.length > 5) {
             printUsage(console);
             return;
         }
@@ -135,6 +147,11 @@ public class JdbcCommandExtension extends AbstractConsoleCommandExtension implem
         } else if (args.length == 1 && CMD_RELOAD.equalsIgnoreCase(args[0])) {
             reload(persistenceService, console);
             return true;
+        } else if (args.length == 1 && CMD_STATS.equalsIgnoreCase(args[0])) {
+            printStatistics(persistenceService, console);
+            return true;
+        } else if ((args.length == 4 || args.length == 5) && CMD_AGGREGATE.equalsIgnoreCase(args[0])) {
+            return aggregate(persistenceService, console, args);
         }
         return false;
     }
@@ -252,6 +269,50 @@ public class JdbcCommandExtension extends AbstractConsoleCommandExtension implem
         console.println("Item index reloaded.");
     }
 
+    private void printStatistics(JdbcPersistenceService persistenceService, Console console) {
+        JdbcWriteBehindQueue writeBehindQueue = persistenceService.getWriteBehindQueue();
+        if (writeBehindQueue == null) {
+            console.println("Write-behind is disabled.");
+            return;
+        }
+        console.println(String.format("Queue depth:           %d / %d", writeBehindQueue.getQueueDepth(),
+                writeBehindQueue.getQueueCapacity()));
+        console.println(String.format("States queued:         %d", writeBehindQueue.getQueuedCount()));
+        console.println(String.format("States written:        %d", writeBehindQueue.getWrittenCount()));
+        console.println(String.format("States dropped:        %d", writeBehindQueue.getDroppedCount()));
+        console.println(String.format("Batches written:       %d", writeBehindQueue.getBatchCount()));
+        console.println(String.format("Batch size (last/avg): %d / %.1f", writeBehindQueue.getLastBatchSize(),
+                writeBehindQueue.getAverageBatchSize()));
+        console.println(String.format("Flush latency (last/avg/max): %d / %.1f / %d ms",
+                writeBehindQueue.getLastFlushLatency(), writeBehindQueue.getAverageFlushLatency(),
+                writeBehindQueue.getMaxFlushLatency()));
+    }
+
+    private boolean aggregate(JdbcPersistenceService persistenceService, Console console, String[] args) {
+        JdbcAggregation aggregation;
+        long bucketSeconds;
+        long hours;
+        try {
+            aggregation = JdbcAggregation.valueOf(args[2].toUpperCase());
+            bucketSeconds = Long.parseLong(args[3]);
+            hours = args.length == 5 ? Long.parseLong(args[4]) : DEFAULT_AGGREGATE_HOURS;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (bucketSeconds < 1 || hours < 1) {
+            return false;
+        }
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(args[1]);
+        filter.setBeginDate(ZonedDateTime.now().minusHours(hours));
+        filter.setOrdering(Ordering.ASCENDING);
+        for (HistoricItem historicItem : persistenceService.query(filter, Duration.ofSeconds(bucketSeconds),
+                aggregation)) {
+            console.println(String.format("%s  %s", historicItem.getTimestamp(), historicItem.getState()));
+        }
+        return true;
+    }
+
     @Override
     public List<String> getUsages() {
         return Arrays.asList(buildCommandUsage(CMD_SCHEMA + " " + SUBCMD_SCHEMA_CHECK, "check schema integrity"),
@@ -261,7 +322,10 @@ public class JdbcCommandExtension extends AbstractConsoleCommandExtension implem
                 buildCommandUsage(
                         CMD_TABLES + " " + SUBCMD_TABLES_CLEAN + " [<itemName>]" + " [" + PARAMETER_FORCE + "]",
                         "clean inconsistent items (remove from index and drop tables)"),
-                buildCommandUsage(CMD_RELOAD, "reload item index/schema"));
+                buildCommandUsage(CMD_RELOAD, "reload item index/schema"),
+                buildCommandUsage(CMD_STATS, "show write-behind queue statistics"),
+                buildCommandUsage(CMD_AGGREGATE + " <itemName> <avg|min|max|last> <bucketSeconds> [<hours>]",
+                        "show the values of an item aggregated by the database (default: last 24 hours)"));
     }
 
     @Override
@@ -278,9 +342,17 @@ public class JdbcCommandExtension extends AbstractConsoleCommandExtension implem
                 return SUBCMD_TABLES_COMPLETER.complete(args, cursorArgumentIndex, cursorPosition, candidates);
             } else if (CMD_SCHEMA.equalsIgnoreCase(args[0])) {
                 return SUBCMD_SCHEMA_COMPLETER.complete(args, cursorArgumentIndex, cursorPosition, candidates);
+            } else if (CMD_AGGREGATE.equalsIgnoreCase(args[0])) {
+                JdbcPersistenceService persistenceService = getPersistenceService();
+                if (persistenceService != null) {
+                    return new StringsCompleter(persistenceService.getItemNames(), true).complete(args,
+                            cursorArgumentIndex, cursorPosition, candidates);
+                }
             }
         } else if (cursorArgumentIndex == 2) {
-            if (CMD_TABLES.equalsIgnoreCase(args[0])) {
+            if (CMD_AGGREGATE.equalsIgnoreCase(args[0])) {
+                return AGGREGATION_COMPLETER.complete(args, cursorArgumentIndex, cursorPosition, candidates);
+            } else if (CMD_TABLES.equalsIgnoreCase(args[0])) {
                 if (SUBCMD_TABLES_CLEAN.equalsIgnoreCase(args[1])) {
                     JdbcPersistenceService persistenceService = getPersistenceService();
                     if (persistenceService != null) {
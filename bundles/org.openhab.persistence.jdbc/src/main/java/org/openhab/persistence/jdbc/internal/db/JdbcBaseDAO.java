@@ -13,17 +13,26 @@
 package org.openhab.persistence.jdbc.internal.db;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -58,8 +67,10 @@ import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
 import org.openhab.persistence.jdbc.internal.dto.Column;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
 import org.openhab.persistence.jdbc.internal.dto.ItemsVO;
 import org.openhab.persistence.jdbc.internal.dto.JdbcHistoricItem;
+import org.openhab.persistence.jdbc.internal.dto.JdbcPendingState;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.openhab.persistence.jdbc.internal.utils.DbMetaData;
 import org.openhab.persistence.jdbc.internal.utils.StringUtilsExt;
@@ -79,6 +90,19 @@ public class JdbcBaseDAO {
     protected String urlSuffix = "";
     public final Map<String, String> sqlTypes = new HashMap<>();
 
+    // parameterized SELECT statements per table and query shape, the least recently used are evicted
+    private static final int HIST_ITEM_FILTER_QUERY_CACHE_SIZE = 1000;
+    private final Map<String, String> histItemFilterQueryCache = Collections
+            .synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > HIST_ITEM_FILTER_QUERY_CACHE_SIZE;
+                }
+            });
+    private int queryFetchSize = 0;
+
     // Get Database Meta data
     protected @Nullable DbMetaData dbMeta;
 
@@ -444,10 +468,9 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, State itemState, ItemVO vo, ZonedDateTime date) throws JdbcSQLException {
         ItemVO storedVO = storeItemValueProvider(item, itemState, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] { storedVO.getTableName(), "?" });
+        String sql = storeItemValueWithTimeProvider(storedVO);
         java.sql.Timestamp timestamp = new java.sql.Timestamp(date.toInstant().toEpochMilli());
-        Object[] params = { timestamp, storedVO.getValue(), storedVO.getValue() };
+        Object[] params = storeItemValueWithTimeParams(storedVO, timestamp);
         logger.debug("JDBC::doStoreItemValue sql={} timestamp={} value='{}'", sql, timestamp, storedVO.getValue());
         try {
             Yank.execute(sql, params);
@@ -456,25 +479,104 @@ public class JdbcBaseDAO {
         }
     }
 
-    public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
+    /**
+     * Stores a number of states into a single item table using one JDBC batch.
+     *
+     * Only the last state per timestamp is kept, as with the single row upsert. This also makes sure drivers
+     * rewriting the batch into a multi-row INSERT never hit the same primary key twice within one statement.
+     *
+     * @param tableName the item table to write to
+     * @param states the states to store, all belonging to the item of this table
+     * @throws JdbcSQLException on SQL errors
+     */
+    public void doStoreItemValues(String tableName, List<JdbcPendingState> states) throws JdbcSQLException {
+        String sql = "";
+        Map<Long, Object[]> paramsByTime = new LinkedHashMap<>();
+        for (JdbcPendingState state : states) {
+            ItemVO storedVO = storeItemValueProvider(state.getItem(), state.getState(), new ItemVO(tableName, null));
+            if (sql.isEmpty()) {
+                sql = storeItemValueWithTimeProvider(storedVO);
+            }
+            long time = state.getDate().toInstant().toEpochMilli();
+            paramsByTime.remove(time);
+            paramsByTime.put(time, storeItemValueWithTimeParams(storedVO, new java.sql.Timestamp(time)));
+        }
+        if (paramsByTime.isEmpty()) {
+            return;
+        }
+        Object[][] params = paramsByTime.values().toArray(new Object[0][]);
+        logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, params.length);
+        try {
+            Yank.executeBatch(sql, params);
+        } catch (YankSQLException e) {
+            throw new JdbcSQLException(e);
+        }
+    }
+
+    public Iterable<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) throws JdbcSQLException {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        logger.debug("JDBC::doGetHistItemFilterQuery sql={}", sql);
+        String sql = histItemFilterQueryStatementProvider(filter, numberDecimalcount, table, name);
+        Object[] timeParams = resolveTimeFilterParams(filter, timeZone);
+        Object[] pagingParams = resolvePagingFilterParams(filter);
+        Object[] params = Arrays.copyOf(timeParams, timeParams.length + pagingParams.length);
+        System.arraycopy(pagingParams, 0, params, timeParams.length, pagingParams.length);
+        logger.debug("JDBC::doGetHistItemFilterQuery sql={} params={}", sql, Arrays.asList(params));
+        // we already retrieve the unit here once as it is a very costly operation
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
+        // a page is read at once, so callers taking only the first items do not keep a connection of the pool
+        boolean stream = !isPaged(filter);
+        return queryHistoricItems(item, sql, params, stream, v -> objectAsState(item, unit, v),
+                this::objectAsZonedDateTime);
+    }
+
+    /**
+     * Queries the values of an item aggregated into time buckets, so only one row per bucket is transferred.
+     *
+     * @param item the item, numeric aggregations require a {@link NumberItem}
+     * @param filter the time range and ordering, paging is not applied
+     * @param aggregation the aggregation applied to the values of each bucket
+     * @param bucketSeconds the length of a bucket in seconds
+     * @param numberDecimalcount the number of decimals numeric results are rounded to, -1 disables rounding
+     * @param table the item table
+     * @param timeZone the time zone of the stored times
+     * @return one historic item per bucket
+     * @throws JdbcSQLException on SQL errors
+     */
+    public Iterable<HistoricItem> doGetHistItemAggregateQuery(Item item, FilterCriteria filter,
+            JdbcAggregation aggregation, long bucketSeconds, int numberDecimalcount, String table, ZoneId timeZone)
+            throws JdbcSQLException {
+        String sql = histItemAggregateQueryProvider(filter, aggregation, bucketSeconds, table);
+        Object[] params = resolveTimeFilterParams(filter, timeZone);
+        logger.debug("JDBC::doGetHistItemAggregateQuery sql={} params={}", sql, Arrays.asList(params));
+        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
+        // there is only one row per bucket
+        return queryHistoricItems(item, sql, params, false, v -> aggregateAsState(item, unit, numberDecimalcount, v),
+                v -> bucketAsZonedDateTime(v, bucketSeconds));
+    }
+
+    private Iterable<HistoricItem> queryHistoricItems(Item item, String sql, Object[] params, boolean stream,
+            Function<Object, State> valueMapper, Function<Object, ZonedDateTime> timeMapper) throws JdbcSQLException {
+        String itemName = item.getName();
+        if (stream && queryFetchSize > 0) {
+            try {
+                return JdbcResultSetIterable.open(Yank.getDefaultConnectionPool(), sql, params, queryFetchSize,
+                        cursorRequiresTransaction(), rs -> new JdbcHistoricItem(itemName,
+                                valueMapper.apply(rs.getObject(2)), timeMapper.apply(rs.getObject(1))));
+            } catch (SQLException e) {
+                throw new JdbcSQLException(e);
+            }
+        }
         List<Object[]> m;
         try {
-            m = Yank.queryObjectArrays(sql, null);
+            m = Yank.queryObjectArrays(sql, params);
         } catch (YankSQLException e) {
             throw new JdbcSQLException(e);
         }
         if (m == null) {
-            logger.debug("JDBC::doGetHistItemFilterQuery Query failed. Returning an empty list.");
+            logger.debug("JDBC::queryHistoricItems Query failed. Returning an empty list.");
             return List.of();
         }
-        // we already retrieve the unit here once as it is a very costly operation
-        String itemName = item.getName();
-        Unit<? extends Quantity<?>> unit = item instanceof NumberItem numberItem ? numberItem.getUnit() : null;
-        return m.stream()
-                .map(o -> new JdbcHistoricItem(itemName, objectAsState(item, unit, o[1]), objectAsZonedDateTime(o[0])))
+        return m.stream().map(o -> new JdbcHistoricItem(itemName, valueMapper.apply(o[1]), timeMapper.apply(o[0])))
                 .collect(Collectors.<HistoricItem> toList());
     }
 
@@ -507,15 +609,38 @@ public class JdbcBaseDAO {
 
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
             String simpleName, ZoneId timeZone) {
+        return histItemFilterQueryProvider(filter, resolveTimeFilter(filter, timeZone), resolvePagingFilter(filter),
+                numberDecimalcount, table, simpleName);
+    }
+
+    /**
+     * Provides the SELECT statement for a filter with its time conditions and page as parameters, see
+     * {@link #resolveTimeFilterParams(FilterCriteria, ZoneId)} and {@link #resolvePagingFilterParams(FilterCriteria)}.
+     * Statements are cached per table and query shape, so drivers get the same SQL for repeated queries and can reuse
+     * their prepared statements.
+     */
+    protected String histItemFilterQueryStatementProvider(FilterCriteria filter, int numberDecimalcount, String table,
+            String simpleName) {
+        String key = table + "|" + simpleName + "|" + numberDecimalcount + "|" + filter.getOrdering() + "|"
+                + (filter.getBeginDate() != null) + "|" + (filter.getEndDate() != null) + "|" + isPaged(filter);
+        return histItemFilterQueryCache.computeIfAbsent(key, k -> histItemFilterQueryProvider(filter,
+                resolveTimeFilterStatement(filter), resolvePagingFilterStatement(filter), numberDecimalcount, table,
+                simpleName));
+    }
+
+    /**
+     * Provides the SELECT statement for a filter, using the given WHERE clause as time filter and the given clause
+     * to select the page.
+     */
+    protected String histItemFilterQueryProvider(FilterCriteria filter, String timeFilter, String pagingFilter,
+            int numberDecimalcount, String table, String simpleName) {
         logger.debug(
                 "JDBC::getHistItemFilterQueryProvider filter = {}, numberDecimalcount = {}, table = {}, simpleName = {}",
                 filter, numberDecimalcount, table, simpleName);
 
-        String filterString = resolveTimeFilter(filter, timeZone);
+        String filterString = timeFilter;
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
-        if (filter.getPageSize() != Integer.MAX_VALUE) {
-            filterString += " LIMIT " + filter.getPageNumber() * filter.getPageSize() + "," + filter.getPageSize();
-        }
+        filterString += pagingFilter;
         // SELECT time, ROUND(value,3) FROM number_item_0114 ORDER BY time DESC LIMIT 0,1
         // rounding HALF UP
         String queryString = "NUMBERITEM".equalsIgnoreCase(simpleName) && numberDecimalcount > -1
@@ -528,6 +653,38 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    /**
+     * Provides the SELECT statement aggregating the values of a filter into time buckets, with the time conditions as
+     * parameters, see {@link #resolveTimeFilterParams(FilterCriteria, ZoneId)}. The first column is the bucket, see
+     * {@link #timeBucketProvider(String, long)}, so every aggregation is represented by the start of its bucket.
+     */
+    protected String histItemAggregateQueryProvider(FilterCriteria filter, JdbcAggregation aggregation,
+            long bucketSeconds, String table) {
+        logger.debug(
+                "JDBC::histItemAggregateQueryProvider filter = {}, aggregation = {}, bucketSeconds = {}, table = {}",
+                filter, aggregation, bucketSeconds, table);
+
+        String timeFilter = resolveTimeFilterStatement(filter);
+        String bucket = timeBucketProvider("time", bucketSeconds);
+        String ordering = (filter.getOrdering() == Ordering.ASCENDING) ? " ASC" : " DESC";
+        // SELECT <bucket>, AVG(value) FROM number_item_0114 WHERE TIME>=? GROUP BY <bucket> ORDER BY 1 ASC
+        String queryString = aggregation == JdbcAggregation.LAST
+                ? "SELECT " + bucket + ", value FROM " + table + " WHERE time IN (SELECT MAX(time) FROM " + table
+                        + timeFilter + " GROUP BY " + bucket + ") ORDER BY 1" + ordering
+                : "SELECT " + bucket + ", " + aggregation.name() + "(value) FROM " + table + timeFilter
+                        + " GROUP BY " + bucket + " ORDER BY 1" + ordering;
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
+    /**
+     * Provides the expression assigning the given time column to its time bucket: the number of whole buckets between
+     * 1970-01-01 00:00:00 and the stored local time, see {@link #bucketAsZonedDateTime(Object, long)}.
+     */
+    protected String timeBucketProvider(String column, long bucketSeconds) {
+        return "TIMESTAMPDIFF(SECOND, '1970-01-01 00:00:00', " + column + ") DIV " + bucketSeconds;
+    }
+
     protected String histItemFilterDeleteProvider(FilterCriteria filter, String table, ZoneId timeZone) {
         logger.debug("JDBC::histItemFilterDeleteProvider filter = {}, table = {}", filter, table);
 
@@ -553,6 +710,102 @@ public class JdbcBaseDAO {
         return filterString;
     }
 
+    /**
+     * Provides the WHERE clause of {@link #resolveTimeFilter(FilterCriteria, ZoneId)} with a '?' for each date.
+     */
+    protected String resolveTimeFilterStatement(FilterCriteria filter) {
+        String filterString = "";
+        if (filter.getBeginDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME>=?";
+        }
+        if (filter.getEndDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME<=?";
+        }
+        return filterString;
+    }
+
+    /**
+     * Provides the parameters matching {@link #resolveTimeFilterStatement(FilterCriteria)}.
+     */
+    protected Object[] resolveTimeFilterParams(FilterCriteria filter, ZoneId timeZone) {
+        List<Object> params = new ArrayList<>(2);
+        ZonedDateTime beginDate = filter.getBeginDate();
+        if (beginDate != null) {
+            params.add(timeFilterParam(beginDate.withZoneSameInstant(timeZone).toLocalDateTime()));
+        }
+        ZonedDateTime endDate = filter.getEndDate();
+        if (endDate != null) {
+            params.add(timeFilterParam(endDate.withZoneSameInstant(timeZone).toLocalDateTime()));
+        }
+        return params.toArray();
+    }
+
+    private static boolean isPaged(FilterCriteria filter) {
+        return filter.getPageSize() != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Provides the clause selecting the page of a filter, or an empty string if the filter is not paged.
+     */
+    protected String resolvePagingFilter(FilterCriteria filter) {
+        return isPaged(filter) ? pagingFilterProvider(String.valueOf(filter.getPageNumber() * filter.getPageSize()),
+                String.valueOf(filter.getPageSize())) : "";
+    }
+
+    /**
+     * Provides the clause of {@link #resolvePagingFilter(FilterCriteria)} with a '?' for the offset and the page size.
+     */
+    protected String resolvePagingFilterStatement(FilterCriteria filter) {
+        return isPaged(filter) ? pagingFilterProvider("?", "?") : "";
+    }
+
+    /**
+     * Provides the parameters matching {@link #resolvePagingFilterStatement(FilterCriteria)}.
+     */
+    protected Object[] resolvePagingFilterParams(FilterCriteria filter) {
+        return isPaged(filter) ? new Object[] { filter.getPageNumber() * filter.getPageSize(), filter.getPageSize() }
+                : new Object[0];
+    }
+
+    /**
+     * Provides the clause selecting <code>count</code> rows, skipping the first <code>offset</code> rows.
+     */
+    protected String pagingFilterProvider(String offset, String count) {
+        return " LIMIT " + offset + "," + count;
+    }
+
+    /**
+     * Converts a date of the time filter into a statement parameter, with the precision of
+     * {@link #JDBC_DATE_FORMAT}.
+     */
+    protected Object timeFilterParam(LocalDateTime date) {
+        return java.sql.Timestamp.valueOf(date.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Returns true if the driver only streams results in chunks of the fetch size with auto-commit disabled.
+     */
+    protected boolean cursorRequiresTransaction() {
+        return false;
+    }
+
+    /**
+     * Provides the INSERT statement for storing a value with an explicit timestamp as first parameter.
+     */
+    protected String storeItemValueWithTimeProvider(ItemVO storedVO) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#tablePrimaryValue#" }, new String[] { storedVO.getTableName(), "?" });
+    }
+
+    /**
+     * Provides the parameters matching {@link #storeItemValueWithTimeProvider(ItemVO)}.
+     */
+    protected Object[] storeItemValueWithTimeParams(ItemVO storedVO, java.sql.Timestamp timestamp) {
+        return new Object[] { timestamp, storedVO.getValue(), storedVO.getValue() };
+    }
+
     private String updateItemTableNamesProvider(ItemVO itemTable) {
         String queryString = "ALTER TABLE " + itemTable.getTableName() + " RENAME TO " + itemTable.getNewTableName();
         logger.debug("JDBC::query queryString = {}", queryString);
@@ -704,6 +957,32 @@ public class JdbcBaseDAO {
         }
     }
 
+    private State aggregateAsState(Item item, @Nullable Unit<? extends Quantity<?>> unit, int numberDecimalcount,
+            Object v) {
+        // aggregates do not necessarily have the type of the column, e.g. the average of an INTEGER column
+        if (item instanceof NumberItem && v instanceof Number number) {
+            BigDecimal value = new BigDecimal(number.toString());
+            if (numberDecimalcount > -1) {
+                value = value.setScale(numberDecimalcount, RoundingMode.HALF_UP);
+            }
+            return unit == null ? new DecimalType(value) : QuantityType.valueOf(value.doubleValue(), unit);
+        }
+        return objectAsState(item, unit, v);
+    }
+
+    /**
+     * Converts the bucket of an aggregated query to the start time of the bucket. A bucket number, see
+     * {@link #timeBucketProvider(String, long)}, is converted like a stored local time, other values are the start time
+     * calculated by the database.
+     */
+    protected ZonedDateTime bucketAsZonedDateTime(Object v, long bucketSeconds) {
+        if (v instanceof Number bucket) {
+            return objectAsZonedDateTime(
+                    LocalDateTime.ofEpochSecond(bucket.longValue() * bucketSeconds, 0, ZoneOffset.UTC));
+        }
+        return objectAsZonedDateTime(v);
+    }
+
     protected ZonedDateTime objectAsZonedDateTime(Object v) {
         if (v instanceof Long) {
             return ZonedDateTime.ofInstant(Instant.ofEpochMilli(((Number) v).longValue()), ZoneId.systemDefault());
@@ -792,6 +1071,13 @@ public class JdbcBaseDAO {
         return sqlTypes;
     }
 
+    /**
+     * Sets the number of rows fetched at once while streaming historic queries, 0 reads the whole result at once.
+     */
+    public void setQueryFetchSize(int queryFetchSize) {
+        this.queryFetchSize = queryFetchSize;
+    }
+
     public String getDataType(Item item) {
         String dataType = sqlTypes.get(getItemType(item));
         if (dataType == null) {
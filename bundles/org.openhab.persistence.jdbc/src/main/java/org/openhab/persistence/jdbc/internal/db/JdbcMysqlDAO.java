@@ -76,6 +76,10 @@ public class JdbcMysqlDAO extends JdbcBaseDAO {
         databaseProps.setProperty("dataSource.prepStmtCacheSqlLimit", "2048");
         databaseProps.setProperty("dataSource.jdbcCompliantTruncation", "false");// jdbc standard max varchar max length
                                                                                  // of 21845
+        // Let the driver rewrite JDBC batches into multi-row INSERT statements
+        databaseProps.setProperty("dataSource.rewriteBatchedStatements", "true");
+        // Let the driver honor the fetch size with a server-side cursor instead of reading the whole result
+        databaseProps.setProperty("dataSource.useCursorFetch", "true");
 
         // Properties for HikariCP
         // Use driverClassName
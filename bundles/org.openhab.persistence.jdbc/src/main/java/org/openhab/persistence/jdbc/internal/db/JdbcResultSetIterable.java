@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.Cleaner.Cleanable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.sql.DataSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link JdbcResultSetIterable} maps the rows of a query while they are fetched from the database, so the
+ * result is never held in memory as a whole.
+ *
+ * The query is executed when the iterable is opened. Its connection is released as soon as the last row has been
+ * read. An iterator abandoned before the end keeps the connection until it is garbage collected, so it should only be
+ * used for results that are read completely, not for queries of which callers often only take the first rows.
+ * The result can only be iterated once. If a row cannot be read, the iterator throws an
+ * {@link IllegalStateException} instead of ending early, so a failed query is not mistaken for a short result.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcResultSetIterable<T> implements Iterable<T> {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * Maps the current row of a {@link ResultSet}.
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcResultSetIterable.class);
+
+    private final DataSource dataSource;
+    private final String sql;
+    private final Object[] params;
+    private final int fetchSize;
+    private final boolean cursorRequiresTransaction;
+    private final RowMapper<T> rowMapper;
+    private @Nullable Iterator<T> openedIterator;
+
+    private JdbcResultSetIterable(DataSource dataSource, String sql, Object[] params, int fetchSize,
+            boolean cursorRequiresTransaction, RowMapper<T> rowMapper) {
+        this.dataSource = dataSource;
+        this.sql = sql;
+        this.params = params;
+        this.fetchSize = fetchSize;
+        this.cursorRequiresTransaction = cursorRequiresTransaction;
+        this.rowMapper = rowMapper;
+    }
+
+    /**
+     * Executes the query and returns an iterable whose only iterator continues on the opened result set.
+     *
+     * @param dataSource the data source to borrow the connection from
+     * @param sql the query, with a '?' for every parameter
+     * @param params the query parameters
+     * @param fetchSize the number of rows fetched from the database at once
+     * @param cursorRequiresTransaction true if the driver only honors the fetch size with auto-commit disabled
+     * @param rowMapper maps a single row
+     * @return the iterable
+     * @throws SQLException if the query could not be executed
+     */
+    public static <T> JdbcResultSetIterable<T> open(DataSource dataSource, String sql, Object[] params, int fetchSize,
+            boolean cursorRequiresTransaction, RowMapper<T> rowMapper) throws SQLException {
+        JdbcResultSetIterable<T> iterable = new JdbcResultSetIterable<>(dataSource, sql, params, fetchSize,
+                cursorRequiresTransaction, rowMapper);
+        iterable.openedIterator = iterable.execute();
+        return iterable;
+    }
+
+    @Override
+    public synchronized Iterator<T> iterator() {
+        Iterator<T> iterator = openedIterator;
+        if (iterator == null) {
+            throw new IllegalStateException("The result of query '" + sql + "' can only be iterated once");
+        }
+        openedIterator = null;
+        return iterator;
+    }
+
+    private Iterator<T> execute() throws SQLException {
+        CursorResources resources = new CursorResources(logger, dataSource.getConnection());
+        try {
+            Connection connection = resources.connection;
+            if (cursorRequiresTransaction) {
+                connection.setAutoCommit(false);
+            }
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            resources.statement = statement;
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            resources.resultSet = statement.executeQuery();
+        } catch (SQLException e) {
+            resources.run();
+            throw e;
+        }
+        return new ResultSetIterator(resources);
+    }
+
+    private class ResultSetIterator implements Iterator<T> {
+        private final CursorResources resources;
+        private final Cleanable cleanable;
+        private @Nullable T next;
+        private boolean exhausted = false;
+
+        ResultSetIterator(CursorResources resources) {
+            this.resources = resources;
+            this.cleanable = CLEANER.register(this, resources);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !exhausted) {
+                fetchNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T current = next;
+            next = null;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            return current;
+        }
+
+        private void fetchNext() {
+            ResultSet resultSet = resources.resultSet;
+            try {
+                if (resultSet != null && resultSet.next()) {
+                    next = rowMapper.map(resultSet);
+                } else {
+                    close();
+                }
+            } catch (SQLException e) {
+                logger.warn("JDBC::fetchNext: Unable to read next row of query '{}': {}", sql, e.getMessage());
+                close();
+                throw new IllegalStateException("Unable to read next row of query '" + sql + "'", e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void close() {
+            exhausted = true;
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Holds the JDBC resources of one iterator. It must not reference the iterator itself, otherwise the
+     * {@link Cleaner} would never run for abandoned iterators.
+     */
+    private static class CursorResources implements Runnable {
+        private final Logger logger;
+        private final Connection connection;
+        private @Nullable PreparedStatement statement;
+        private @Nullable ResultSet resultSet;
+
+        CursorResources(Logger logger, Connection connection) {
+            this.logger = logger;
+            this.connection = connection;
+        }
+
+        @Override
+        public void run() {
+            // the pool rolls back the read-only transaction of a cursor and restores auto-commit
+            try (Connection connection = this.connection;
+                    PreparedStatement statement = this.statement;
+                    ResultSet resultSet = this.resultSet) {
+                logger.trace("JDBC::run: Releasing cursor resources");
+            } catch (SQLException e) {
+                logger.debug("JDBC::run: Unable to release cursor resources: {}", e.getMessage());
+            }
+        }
+    }
+}
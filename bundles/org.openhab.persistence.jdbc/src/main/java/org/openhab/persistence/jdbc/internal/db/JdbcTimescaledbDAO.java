@@ -17,7 +17,10 @@ import java.util.Properties;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.knowm.yank.Yank;
 import org.knowm.yank.exceptions.YankSQLException;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.persistence.jdbc.internal.dto.ItemVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
 import org.openhab.persistence.jdbc.internal.exceptions.JdbcSQLException;
 import org.openhab.persistence.jdbc.internal.utils.StringUtilsExt;
 import org.slf4j.Logger;
@@ -58,4 +61,17 @@ public class JdbcTimescaledbDAO extends JdbcPostgresqlDAO {
             throw new JdbcSQLException(e);
         }
     }
+
+    @Override
+    protected String histItemAggregateQueryProvider(FilterCriteria filter, JdbcAggregation aggregation,
+            long bucketSeconds, String table) {
+        String bucket = "time_bucket(INTERVAL '" + bucketSeconds
+                + " seconds', time, TIMESTAMPTZ '1970-01-01 00:00:00+00')";
+        String value = aggregation == JdbcAggregation.LAST ? "last(value, time)" : aggregation.name() + "(value)";
+        String ordering = (filter.getOrdering() == Ordering.ASCENDING) ? " ASC" : " DESC";
+        String queryString = "SELECT " + bucket + " AS bucket, " + value + " FROM " + table
+                + resolveTimeFilterStatement(filter) + " GROUP BY bucket ORDER BY bucket" + ordering;
+        this.logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
 }
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.dto;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Aggregation applied to the values of each time bucket of an aggregated query.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public enum JdbcAggregation {
+    AVG,
+    MIN,
+    MAX,
+    LAST;
+
+    /**
+     * Returns true if the aggregation calculates a new value and therefore requires numeric values.
+     */
+    public boolean isNumeric() {
+        return this != LAST;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.persistence.jdbc.internal.dto.JdbcPendingState;
+
+/**
+ * Tests the {@link JdbcWriteBehindQueue}.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteBehindQueueTest {
+
+    private static final int BATCH_SIZE = 3;
+    private static final int BATCH_INTERVAL = 1000;
+    private static final int CAPACITY = 5;
+
+    private final NumberItem item = new NumberItem("Number1");
+    private final List<Runnable> executedTasks = new ArrayList<>();
+    private final List<List<JdbcPendingState>> writtenBatches = new ArrayList<>();
+
+    private @NonNullByDefault({}) ScheduledExecutorService scheduler;
+    private ToIntFunction<List<JdbcPendingState>> batchWriter = batch -> {
+        writtenBatches.add(List.copyOf(batch));
+        return batch.size();
+    };
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> executedTasks.add(invocation.getArgument(0))).when(scheduler).execute(any());
+        doReturn(mock(ScheduledFuture.class)).when(scheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(),
+                any());
+    }
+
+    @Test
+    public void fullBatchIsFlushedImmediately() {
+        JdbcWriteBehindQueue queue = createQueue();
+        offerStates(queue, 2);
+        assertTrue(executedTasks.isEmpty());
+
+        offerStates(queue, 1);
+        assertEquals(1, executedTasks.size());
+        executedTasks.get(0).run();
+
+        assertEquals(1, writtenBatches.size());
+        assertEquals(BATCH_SIZE, writtenBatches.get(0).size());
+        assertEquals(3, queue.getWrittenCount());
+        assertEquals(1, queue.getBatchCount());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void queueIsFlushedAfterInterval() {
+        JdbcWriteBehindQueue queue = createQueue();
+        ArgumentCaptor<Runnable> flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(flushCaptor.capture(), eq((long) BATCH_INTERVAL),
+                eq((long) BATCH_INTERVAL), eq(TimeUnit.MILLISECONDS));
+
+        offerStates(queue, 2);
+        assertTrue(writtenBatches.isEmpty());
+
+        flushCaptor.getValue().run();
+
+        assertEquals(1, writtenBatches.size());
+        assertEquals(2, writtenBatches.get(0).size());
+        assertEquals(2, queue.getWrittenCount());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void statesAreDroppedWhenQueueIsFull() {
+        JdbcWriteBehindQueue queue = createQueue();
+        offerStates(queue, CAPACITY);
+
+        assertFalse(queue.offer(newState(CAPACITY)));
+        assertEquals(CAPACITY, queue.getQueueDepth());
+        assertEquals(CAPACITY, queue.getQueuedCount());
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    @Test
+    public void failingBatchesAreCountedAsDropped() {
+        batchWriter = batch -> {
+            throw new IllegalStateException("database failure");
+        };
+        JdbcWriteBehindQueue queue = createQueue();
+        offerStates(queue, BATCH_SIZE);
+        executedTasks.get(0).run();
+
+        assertEquals(0, queue.getWrittenCount());
+        assertEquals(0, queue.getBatchCount());
+        assertEquals(BATCH_SIZE, queue.getDroppedCount());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void unwrittenStatesAreCountedAsDropped() {
+        // e.g. the database is not reachable
+        batchWriter = batch -> 0;
+        JdbcWriteBehindQueue queue = createQueue();
+        offerStates(queue, BATCH_SIZE);
+        executedTasks.get(0).run();
+
+        assertEquals(0, queue.getWrittenCount());
+        assertEquals(BATCH_SIZE, queue.getDroppedCount());
+    }
+
+    private JdbcWriteBehindQueue createQueue() {
+        JdbcWriteBehindQueue queue = new JdbcWriteBehindQueue(BATCH_SIZE, BATCH_INTERVAL, CAPACITY, scheduler,
+                states -> batchWriter.applyAsInt(states));
+        queue.start();
+        return queue;
+    }
+
+    private void offerStates(JdbcWriteBehindQueue queue, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(queue.offer(newState(i)));
+        }
+    }
+
+    private JdbcPendingState newState(int value) {
+        return new JdbcPendingState(item, new DecimalType(value), ZonedDateTime.now());
+    }
+}
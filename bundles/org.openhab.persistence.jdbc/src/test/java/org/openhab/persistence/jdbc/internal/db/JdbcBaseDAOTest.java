@@ -13,11 +13,14 @@
 package org.openhab.persistence.jdbc.internal.db;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -66,6 +69,8 @@ import org.openhab.core.library.unit.SIUnits;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.types.State;
+import org.openhab.persistence.jdbc.internal.dto.ItemVO;
+import org.openhab.persistence.jdbc.internal.dto.JdbcAggregation;
 
 /**
  * Tests the {@link JdbcBaseDAO}.
@@ -194,6 +199,118 @@ public class JdbcBaseDAOTest {
         assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " ORDER BY time DESC LIMIT 0,1"));
     }
 
+    @Test
+    void testHistItemFilterQueryStatementProviderWithStartAndEndDateReturnsSelectQueryWithParameters() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
+
+        String sql = jdbcBaseDAO.histItemFilterQueryStatementProvider(filter, 0, DB_TABLE_NAME, "TEST");
+        assertThat(sql,
+                is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=? ORDER BY time DESC"));
+
+        Object[] params = jdbcBaseDAO.resolveTimeFilterParams(filter, UTC_ZONE_ID);
+        assertArrayEquals(new Object[] { java.sql.Timestamp.valueOf("2022-01-10 15:01:44"),
+                java.sql.Timestamp.valueOf("2022-01-15 15:01:44") }, params);
+    }
+
+    @Test
+    void testHistItemFilterQueryStatementProviderReturnsCachedQueryForSameShape() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        String sql = jdbcBaseDAO.histItemFilterQueryStatementProvider(filter, 0, DB_TABLE_NAME, "TEST");
+
+        filter.setBeginDate(parseDateTimeString("2023-05-01T08:00:00"));
+        assertThat(jdbcBaseDAO.histItemFilterQueryStatementProvider(filter, 0, DB_TABLE_NAME, "TEST"),
+                is(sameInstance(sql)));
+
+        filter.setEndDate(parseDateTimeString("2023-05-02T08:00:00"));
+        assertThat(jdbcBaseDAO.histItemFilterQueryStatementProvider(filter, 0, DB_TABLE_NAME, "TEST"),
+                is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>=? AND TIME<=? ORDER BY time DESC"));
+    }
+
+    @Test
+    void testHistItemFilterQueryStatementProviderPassesPageAsParameters() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setPageSize(10);
+        filter.setPageNumber(2);
+        String sql = jdbcBaseDAO.histItemFilterQueryStatementProvider(filter, 0, DB_TABLE_NAME, "TEST");
+        assertThat(sql, is("SELECT time, value FROM " + DB_TABLE_NAME + " WHERE TIME>=? ORDER BY time DESC LIMIT ?,?"));
+        assertArrayEquals(new Object[] { 20, 10 }, jdbcBaseDAO.resolvePagingFilterParams(filter));
+
+        filter.setPageSize(50);
+        filter.setPageNumber(3);
+        assertThat(jdbcBaseDAO.histItemFilterQueryStatementProvider(filter, 0, DB_TABLE_NAME, "TEST"),
+                is(sameInstance(sql)));
+        assertArrayEquals(new Object[] { 150, 50 }, jdbcBaseDAO.resolvePagingFilterParams(filter));
+    }
+
+    @Test
+    void testHistItemAggregateQueryProviderReturnsGroupByTimeBucketQuery() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setOrdering(Ordering.ASCENDING);
+
+        String sql = jdbcBaseDAO.histItemAggregateQueryProvider(filter, JdbcAggregation.AVG, 900, DB_TABLE_NAME);
+        assertThat(sql, is("SELECT TIMESTAMPDIFF(SECOND, '1970-01-01 00:00:00', time) DIV 900, AVG(value) FROM "
+                + DB_TABLE_NAME + " WHERE TIME>=? GROUP BY TIMESTAMPDIFF(SECOND, '1970-01-01 00:00:00', time) DIV 900"
+                + " ORDER BY 1 ASC"));
+    }
+
+    @Test
+    void testHistItemAggregateQueryProviderForLastReturnsLastRowPerTimeBucket() {
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setEndDate(parseDateTimeString("2022-01-15T15:01:44"));
+
+        String sql = jdbcBaseDAO.histItemAggregateQueryProvider(filter, JdbcAggregation.LAST, 60, DB_TABLE_NAME);
+        assertThat(sql, is("SELECT TIMESTAMPDIFF(SECOND, '1970-01-01 00:00:00', time) DIV 60, value FROM "
+                + DB_TABLE_NAME + " WHERE time IN (SELECT MAX(time) FROM " + DB_TABLE_NAME
+                + " WHERE TIME>=? AND TIME<=? GROUP BY TIMESTAMPDIFF(SECOND, '1970-01-01 00:00:00', time) DIV 60)"
+                + " ORDER BY 1 DESC"));
+    }
+
+    @Test
+    void testHistItemAggregateQueryProviderForPostgresqlUsesEpoch() {
+        JdbcPostgresqlDAO jdbcPostgresqlDAO = new JdbcPostgresqlDAO();
+
+        String sql = jdbcPostgresqlDAO.histItemAggregateQueryProvider(filter, JdbcAggregation.MAX, 3600, DB_TABLE_NAME);
+        assertThat(sql, is("SELECT TO_TIMESTAMP(FLOOR(EXTRACT(EPOCH FROM time) / 3600) * 3600), MAX(value) FROM "
+                + DB_TABLE_NAME + " GROUP BY TO_TIMESTAMP(FLOOR(EXTRACT(EPOCH FROM time) / 3600) * 3600)"
+                + " ORDER BY 1 DESC"));
+    }
+
+    @Test
+    void testHistItemAggregateQueryProviderForHsqldbUsesTimestampDiff() {
+        JdbcHsqldbDAO jdbcHsqldbDAO = new JdbcHsqldbDAO();
+
+        String sql = jdbcHsqldbDAO.histItemAggregateQueryProvider(filter, JdbcAggregation.MIN, 60, DB_TABLE_NAME);
+        assertThat(sql, is("SELECT TIMESTAMPDIFF(SQL_TSI_SECOND, TIMESTAMP '1970-01-01 00:00:00', time) / 60,"
+                + " MIN(value) FROM " + DB_TABLE_NAME
+                + " GROUP BY TIMESTAMPDIFF(SQL_TSI_SECOND, TIMESTAMP '1970-01-01 00:00:00', time) / 60"
+                + " ORDER BY 1 DESC"));
+    }
+
+    @Test
+    void testHistItemAggregateQueryProviderForTimescaledbUsesTimeBucket() {
+        JdbcTimescaledbDAO jdbcTimescaledbDAO = new JdbcTimescaledbDAO();
+        filter.setBeginDate(parseDateTimeString("2022-01-10T15:01:44"));
+        filter.setOrdering(Ordering.ASCENDING);
+
+        String sql = jdbcTimescaledbDAO.histItemAggregateQueryProvider(filter, JdbcAggregation.LAST, 300,
+                DB_TABLE_NAME);
+        assertThat(sql, is("SELECT time_bucket(INTERVAL '300 seconds', time, TIMESTAMPTZ '1970-01-01 00:00:00+00')"
+                + " AS bucket, last(value, time) FROM " + DB_TABLE_NAME
+                + " WHERE TIME>=? GROUP BY bucket ORDER BY bucket ASC"));
+    }
+
+    @Test
+    void testBucketAsZonedDateTimeReturnsStartOfBucket() {
+        // 2022-01-10T15:00:00 is bucket 1824252 of 900 seconds
+        ZonedDateTime bucketStart = jdbcBaseDAO.bucketAsZonedDateTime(1824252L, 900);
+        assertThat(bucketStart.toLocalDateTime(), is(LocalDateTime.of(2022, 1, 10, 15, 0)));
+
+        // buckets calculated by the database are returned as time
+        bucketStart = jdbcBaseDAO.bucketAsZonedDateTime(Timestamp.valueOf("2022-01-10 15:00:00"), 900);
+        assertThat(bucketStart.toLocalDateTime(), is(LocalDateTime.of(2022, 1, 10, 15, 0)));
+    }
+
     @Test
     void testHistItemFilterDeleteProviderReturnsDeleteQueryWithoutWhereClause() {
         String sql = jdbcBaseDAO.histItemFilterDeleteProvider(filter, DB_TABLE_NAME, UTC_ZONE_ID);
@@ -249,6 +366,36 @@ public class JdbcBaseDAOTest {
                         + JdbcBaseDAO.JDBC_DATE_FORMAT.format(Objects.requireNonNull(filter.getEndDate())) + "'"));
     }
 
+    @Test
+    void testStoreItemValueWithTimeProviderReturnsInsertQueryWithTimeParameter() {
+        ItemVO vo = new ItemVO(DB_TABLE_NAME, null);
+        vo.setValue(7.3);
+
+        String sql = jdbcBaseDAO.storeItemValueWithTimeProvider(vo);
+        assertThat(sql,
+                is("INSERT INTO " + DB_TABLE_NAME + " (time, value) VALUES( ?, ? ) ON DUPLICATE KEY UPDATE VALUE= ?"));
+
+        java.sql.Timestamp timestamp = java.sql.Timestamp.valueOf("2022-01-10 15:01:44");
+        Object[] params = jdbcBaseDAO.storeItemValueWithTimeParams(vo, timestamp);
+        assertArrayEquals(new Object[] { timestamp, 7.3, 7.3 }, params);
+    }
+
+    @Test
+    void testStoreItemValueWithTimeProviderForPostgresqlReturnsInsertQueryWithCast() {
+        JdbcPostgresqlDAO jdbcPostgresqlDAO = new JdbcPostgresqlDAO();
+        ItemVO vo = new ItemVO(DB_TABLE_NAME, null);
+        vo.setValueTypes("DOUBLE PRECISION", Double.class);
+        vo.setValue(7.3);
+
+        String sql = jdbcPostgresqlDAO.storeItemValueWithTimeProvider(vo);
+        assertThat(sql,
+                is("INSERT INTO " + DB_TABLE_NAME + " (TIME, VALUE) VALUES( ?, CAST( ? as DOUBLE PRECISION) )"));
+
+        java.sql.Timestamp timestamp = java.sql.Timestamp.valueOf("2022-01-10 15:01:44");
+        Object[] params = jdbcPostgresqlDAO.storeItemValueWithTimeParams(vo, timestamp);
+        assertArrayEquals(new Object[] { timestamp, 7.3 }, params);
+    }
+
     private ZonedDateTime parseDateTimeString(String dts) {
         return ZonedDateTime.of(LocalDateTime.parse(dts, DATE_PARSER), UTC_ZONE_ID);
     }
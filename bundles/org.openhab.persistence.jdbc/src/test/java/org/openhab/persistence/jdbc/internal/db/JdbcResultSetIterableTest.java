@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal.db;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link JdbcResultSetIterable}.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcResultSetIterableTest {
+
+    private static final String SQL = "SELECT time, value FROM item0001";
+
+    private @NonNullByDefault({}) DataSource dataSource;
+    private @NonNullByDefault({}) Connection connection;
+    private @NonNullByDefault({}) PreparedStatement statement;
+    private @NonNullByDefault({}) ResultSet resultSet;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(eq(SQL), anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+    }
+
+    @Test
+    public void rowsAreReadOnce() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getInt(2)).thenReturn(1, 2);
+
+        JdbcResultSetIterable<Integer> iterable = open();
+        List<Integer> values = new ArrayList<>();
+        iterable.forEach(values::add);
+
+        assertEquals(List.of(1, 2), values);
+        verify(connection).close();
+        assertThrows(IllegalStateException.class, iterable::iterator);
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    public void readErrorIsThrown() throws SQLException {
+        when(resultSet.next()).thenReturn(true).thenThrow(new SQLException("connection lost"));
+        when(resultSet.getInt(2)).thenReturn(1);
+
+        Iterator<Integer> iterator = open().iterator();
+        assertEquals(1, iterator.next());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, iterator::hasNext);
+        assertInstanceOf(SQLException.class, exception.getCause());
+        verify(connection).close();
+    }
+
+    private JdbcResultSetIterable<Integer> open() throws SQLException {
+        return JdbcResultSetIterable.open(dataSource, SQL, new Object[0], 100, false, rs -> rs.getInt(2));
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jpa.internal;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.persistence.jpa.internal.model.JpaPersistentItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+
+/**
+ * Persists {@link JpaPersistentItem}s in batches, many items per transaction.
+ *
+ * Items are queued and written by a single writer, which reuses one {@link EntityManager} for all transactions. A
+ * batch is written as soon as <code>batchSize</code> items are queued, or at the latest after
+ * <code>batchIntervalMillis</code>. If a batch cannot be committed, e.g. because it contains a duplicate timestamp,
+ * its items are written one by one, so only the offending items are lost.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class JpaBatchWriter {
+    private static final int MAX_QUEUED_ITEMS = 100_000;
+
+    private final Logger logger = LoggerFactory.getLogger(JpaBatchWriter.class);
+
+    private final Supplier<EntityManagerFactory> entityManagerFactory;
+    private final ScheduledExecutorService scheduler;
+    private final int batchSize;
+    private final BlockingQueue<JpaPersistentItem> queue = new LinkedBlockingQueue<>(MAX_QUEUED_ITEMS);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledFuture<?> flushJob;
+
+    // only used by the writer, guarded by this
+    private @Nullable EntityManager entityManager;
+
+    /**
+     * @param entityManagerFactory provides the factory to create the {@link EntityManager} with
+     * @param scheduler the scheduler running the writes
+     * @param batchSize the maximum number of items per transaction
+     * @param batchIntervalMillis the maximum time an item is queued
+     */
+    public JpaBatchWriter(Supplier<EntityManagerFactory> entityManagerFactory, ScheduledExecutorService scheduler,
+            int batchSize, long batchIntervalMillis) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.scheduler = scheduler;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushJob = scheduler.scheduleWithFixedDelay(this::flush, batchIntervalMillis, batchIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues an item to be persisted.
+     *
+     * @param item the item
+     */
+    public void add(JpaPersistentItem item) {
+        if (!queue.offer(item)) {
+            logger.warn("Too many items waiting to be persisted, dropping state of {}", item.getName());
+            return;
+        }
+        if (queue.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Persists all queued items.
+     */
+    public synchronized void flush() {
+        List<JpaPersistentItem> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                logger.error("Error while persisting {} items!", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Stops the periodic writes, persists the remaining items and closes the {@link EntityManager}.
+     */
+    public synchronized void close() {
+        flushJob.cancel(false);
+        flush();
+        closeEntityManager();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void write(List<JpaPersistentItem> batch) {
+        logger.debug("Persisting {} items...", batch.size());
+        if (commit(batch)) {
+            logger.debug("Persisting {} items...done", batch.size());
+            return;
+        }
+        if (batch.size() > 1) {
+            // retry one by one, so a single duplicate does not discard the whole batch
+            for (JpaPersistentItem item : batch) {
+                commit(List.of(copyOf(item)));
+            }
+        }
+    }
+
+    /**
+     * Copies an item of a rolled back transaction, so it is persisted as a new entity.
+     */
+    private JpaPersistentItem copyOf(JpaPersistentItem item) {
+        JpaPersistentItem copy = new JpaPersistentItem();
+        copy.setName(item.getName());
+        copy.setRealName(item.getRealName());
+        copy.setTimestamp(Date.from(item.getTimestamp().toInstant()));
+        copy.setValue(item.getValue());
+        return copy;
+    }
+
+    private boolean commit(List<JpaPersistentItem> items) {
+        EntityManager em = getEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            // In RESOURCE_LOCAL calls to EntityManager require a begin/commit
+            transaction.begin();
+            for (JpaPersistentItem item : items) {
+                em.persist(item);
+            }
+            transaction.commit();
+            return true;
+        } catch (RuntimeException e) {
+            if (e instanceof EntityExistsException || e.getCause() instanceof EntityExistsException) {
+                // there's a UNIQUE constraint in the database, and we tried to write
+                // a duplicate timestamp. Just ignore
+                if (items.size() == 1) {
+                    logger.debug("Failed to persist item {} because of duplicate timestamp", items.get(0).getName());
+                }
+            } else if (items.size() == 1) {
+                logger.error("Error while persisting item {}! Rolling back!", items.get(0).getName(), e);
+            } else {
+                logger.debug("Error while persisting {} items, retrying one by one: {}", items.size(),
+                        e.getMessage());
+            }
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            // the persistence context is unusable after a failed commit
+            closeEntityManager();
+            return false;
+        } finally {
+            EntityManager localEntityManager = entityManager;
+            if (localEntityManager != null) {
+                // detach the persisted items, they are not read again
+                localEntityManager.clear();
+            }
+        }
+    }
+
+    private EntityManager getEntityManager() {
+        EntityManager em = entityManager;
+        if (em == null || !em.isOpen()) {
+            em = entityManagerFactory.get().createEntityManager();
+            entityManager = em;
+        }
+        return em;
+    }
+
+    private void closeEntityManager() {
+        EntityManager em = entityManager;
+        entityManager = null;
+        if (em != null && em.isOpen()) {
+            em.close();
+        }
+    }
+}
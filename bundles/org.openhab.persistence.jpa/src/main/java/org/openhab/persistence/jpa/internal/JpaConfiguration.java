@@ -35,12 +35,21 @@ public class JpaConfiguration {
     private static final String CFG_USERNAME = "user";
     private static final String CFG_PASSWORD = "password";
     private static final String CFG_SYNCMAPPING = "syncmappings";
+    private static final String CFG_BATCH_SIZE = "batchSize";
+    private static final String CFG_BATCH_INTERVAL = "batchInterval";
+    private static final String CFG_MAX_QUERY_RESULTS = "maxQueryResults";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final long DEFAULT_BATCH_INTERVAL = 0;
 
     public final String dbConnectionUrl;
     public final String dbDriverClass;
     public final String dbUserName;
     public final String dbPassword;
     public final String dbSyncMapping;
+    public final int batchSize;
+    public final long batchIntervalMillis;
+    public final int maxQueryResults;
 
     public JpaConfiguration(final Map<String, @Nullable Object> properties) throws IllegalArgumentException {
         logger.debug("Creating JPA config...");
@@ -81,6 +90,33 @@ public class JpaConfiguration {
         }
         dbSyncMapping = param == null ? "" : param;
 
+        batchSize = (int) getNumber(properties, CFG_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1 in JPA configuration!");
+        }
+        batchIntervalMillis = getNumber(properties, CFG_BATCH_INTERVAL, DEFAULT_BATCH_INTERVAL);
+        if (batchIntervalMillis < 0) {
+            throw new IllegalArgumentException("Negative batch interval in JPA configuration!");
+        }
+        maxQueryResults = (int) getNumber(properties, CFG_MAX_QUERY_RESULTS, 0);
+        logger.debug("batchSize: {}, batchInterval: {}, maxQueryResults: {}", batchSize, batchIntervalMillis,
+                maxQueryResults);
+
         logger.debug("Creating JPA config... done");
     }
+
+    private static long getNumber(Map<String, @Nullable Object> properties, String key, long defaultValue)
+            throws IllegalArgumentException {
+        Object param = properties.get(key);
+        if (param instanceof Number number) {
+            return number.longValue();
+        } else if (param == null || param.toString().isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(param.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + " '" + param + "' in JPA configuration!");
+        }
+    }
 }
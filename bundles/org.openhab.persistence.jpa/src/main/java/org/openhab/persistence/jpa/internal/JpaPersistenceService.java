@@ -12,15 +12,20 @@
  */
 package org.openhab.persistence.jpa.internal;
 
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
@@ -47,7 +52,7 @@ import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
-import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 
 /**
  * JPA based implementation of QueryablePersistenceService.
@@ -64,12 +69,17 @@ public class JpaPersistenceService implements QueryablePersistenceService {
     private static final String SERVICE_ID = "jpa";
     private static final String SERVICE_LABEL = "JPA";
     protected static final String CONFIG_URI = "persistence:jpa";
+    private static final String DB_DICTIONARY_PROPERTY = "openjpa.jdbc.DBDictionary";
+
+    // rows fetched from the database at once while streaming query results
+    private static final int QUERY_FETCH_SIZE = 1000;
 
     private final Logger logger = LoggerFactory.getLogger(JpaPersistenceService.class);
 
     private final ItemRegistry itemRegistry;
 
     private @Nullable EntityManagerFactory emf;
+    private @Nullable JpaBatchWriter batchWriter;
 
     private @NonNullByDefault({}) JpaConfiguration config;
 
@@ -82,6 +92,10 @@ public class JpaPersistenceService implements QueryablePersistenceService {
         logger.debug("Activating JPA persistence service");
         try {
             config = new JpaConfiguration(properties);
+            if (config.batchIntervalMillis > 0) {
+                batchWriter = new JpaBatchWriter(this::getEntityManagerFactory,
+                        ThreadPoolManager.getScheduledPool(SERVICE_ID), config.batchSize, config.batchIntervalMillis);
+            }
             initialized = true;
         } catch (IllegalArgumentException e) {
             logger.warn("{}", e.getMessage());
@@ -93,7 +107,7 @@ public class JpaPersistenceService implements QueryablePersistenceService {
      *
      * @return EntityManagerFactory
      */
-    protected EntityManagerFactory getEntityManagerFactory() {
+    protected synchronized EntityManagerFactory getEntityManagerFactory() {
         EntityManagerFactory emf = this.emf;
         if (emf == null) {
             emf = newEntityManagerFactory();
@@ -108,6 +122,11 @@ public class JpaPersistenceService implements QueryablePersistenceService {
     @Deactivate
     public void deactivate() {
         logger.debug("Deactivating JPA persistence service");
+        JpaBatchWriter batchWriter = this.batchWriter;
+        if (batchWriter != null) {
+            batchWriter.close();
+            this.batchWriter = null;
+        }
         closeEntityManagerFactory();
     }
 
@@ -156,6 +175,13 @@ public class JpaPersistenceService implements QueryablePersistenceService {
         pItem.setRealName(item.getName());
         pItem.setTimestamp(new Date());
 
+        JpaBatchWriter batchWriter = this.batchWriter;
+        if (batchWriter != null) {
+            batchWriter.add(pItem);
+            logger.debug("Queued item for persisting");
+            return;
+        }
+
         EntityManager em = getEntityManagerFactory().createEntityManager();
         try {
             logger.debug("Persisting item...");
@@ -205,62 +231,47 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             return List.of();
         }
 
-        String sortOrder;
-        if (filter.getOrdering() == Ordering.ASCENDING) {
-            sortOrder = "ASC";
-        } else {
-            sortOrder = "DESC";
-        }
+        boolean hasBeginDate = filter.getBeginDate() != null;
+        boolean hasEndDate = filter.getEndDate() != null;
+        boolean ascending = filter.getOrdering() == Ordering.ASCENDING;
+        String queryName = getQueryName(hasBeginDate, hasEndDate, ascending);
 
-        boolean hasBeginDate = false;
-        boolean hasEndDate = false;
-        String queryString = "SELECT n FROM " + JpaPersistentItem.class.getSimpleName()
-                + " n WHERE n.realName = :itemName";
-        if (filter.getBeginDate() != null) {
-            queryString += " AND n.timestamp >= :beginDate";
-            hasBeginDate = true;
-        }
-        if (filter.getEndDate() != null) {
-            queryString += " AND n.timestamp <= :endDate";
-            hasEndDate = true;
+        int maxResults = filter.getPageSize();
+        if (config.maxQueryResults > 0 && maxResults > config.maxQueryResults) {
+            logger.debug("Limiting query for {} to {} results", itemName, config.maxQueryResults);
+            maxResults = config.maxQueryResults;
         }
-        queryString += " ORDER BY n.timestamp " + sortOrder;
-
-        logger.debug("The query: {}", queryString);
 
         EntityManager em = getEntityManagerFactory().createEntityManager();
         try {
-            // In RESOURCE_LOCAL calls to EntityManager require a begin/commit
-            em.getTransaction().begin();
-
-            logger.debug("Creating query...");
-            Query query = em.createQuery(queryString);
+            logger.debug("Creating query {}...", queryName);
+            TypedQuery<JpaPersistentItem> query = em.createNamedQuery(queryName, JpaPersistentItem.class);
             query.setParameter("itemName", item.getName());
-            if (hasBeginDate) {
-                query.setParameter("beginDate", Date.from(filter.getBeginDate().toInstant()));
+            ZonedDateTime beginDate = filter.getBeginDate();
+            if (beginDate != null) {
+                query.setParameter("beginDate", Date.from(beginDate.toInstant()));
             }
-            if (hasEndDate) {
-                query.setParameter("endDate", Date.from(filter.getEndDate().toInstant()));
+            ZonedDateTime endDate = filter.getEndDate();
+            if (endDate != null) {
+                query.setParameter("endDate", Date.from(endDate.toInstant()));
             }
 
             query.setFirstResult(filter.getPageNumber() * filter.getPageSize());
-            query.setMaxResults(filter.getPageSize());
+            query.setMaxResults(maxResults);
+            query.setHint("openjpa.FetchPlan.FetchBatchSize", QUERY_FETCH_SIZE);
             logger.debug("Creating query...done");
 
-            logger.debug("Retrieving result list...");
-            @SuppressWarnings("unchecked")
-            List<JpaPersistentItem> result = query.getResultList();
-            logger.debug("Retrieving result list...done");
-
-            List<HistoricItem> historicList = JpaHistoricItem.fromResultList(result, item);
+            // convert the rows while they are read, without keeping the entities
+            List<HistoricItem> historicList = new ArrayList<>();
+            try (Stream<JpaPersistentItem> result = query.getResultStream()) {
+                result.map(pItem -> JpaHistoricItem.fromPersistedItem(pItem, item)).filter(Objects::nonNull)
+                        .map(Objects::requireNonNull).forEach(historicList::add);
+            }
             logger.debug("Convert to HistoricItem: {}", historicList.size());
 
-            em.getTransaction().commit();
-
             return historicList;
         } catch (Exception e) {
             logger.error("Error while querying database!", e);
-            em.getTransaction().rollback();
         } finally {
             em.close();
         }
@@ -268,6 +279,45 @@ public class JpaPersistenceService implements QueryablePersistenceService {
         return List.of();
     }
 
+    /**
+     * Returns the name of the query for the given filter criteria shape. The queries are registered as named queries
+     * when the {@link EntityManagerFactory} is created, so they are only compiled once.
+     */
+    private static String getQueryName(boolean hasBeginDate, boolean hasEndDate, boolean ascending) {
+        return "JpaPersistentItem.query" + (hasBeginDate ? "Begin" : "") + (hasEndDate ? "End" : "")
+                + (ascending ? "Asc" : "Desc");
+    }
+
+    private static String getQueryString(boolean hasBeginDate, boolean hasEndDate, boolean ascending) {
+        String queryString = "SELECT n FROM " + JpaPersistentItem.class.getSimpleName()
+                + " n WHERE n.realName = :itemName";
+        if (hasBeginDate) {
+            queryString += " AND n.timestamp >= :beginDate";
+        }
+        if (hasEndDate) {
+            queryString += " AND n.timestamp <= :endDate";
+        }
+        return queryString + " ORDER BY n.timestamp " + (ascending ? "ASC" : "DESC");
+    }
+
+    private void registerNamedQueries(EntityManagerFactory factory) {
+        EntityManager em = factory.createEntityManager();
+        try {
+            for (boolean hasBeginDate : new boolean[] { false, true }) {
+                for (boolean hasEndDate : new boolean[] { false, true }) {
+                    for (boolean ascending : new boolean[] { false, true }) {
+                        String queryString = getQueryString(hasBeginDate, hasEndDate, ascending);
+                        logger.trace("Registering query: {}", queryString);
+                        factory.addNamedQuery(getQueryName(hasBeginDate, hasEndDate, ascending),
+                                em.createQuery(queryString, JpaPersistentItem.class));
+                    }
+                }
+            }
+        } finally {
+            em.close();
+        }
+    }
+
     /**
      * Creates a new EntityManagerFactory with properties read from openhab.cfg via JpaConfiguration.
      *
@@ -292,17 +342,50 @@ public class JpaPersistenceService implements QueryablePersistenceService {
             logger.info("You are setting openjpa.jdbc.SynchronizeMappings, I hope you know what you're doing!");
             properties.put("openjpa.jdbc.SynchronizeMappings", config.dbSyncMapping);
         }
+        if (config.batchIntervalMillis > 0) {
+            // send the inserts of a batch as JDBC statement batches, keeping the dictionary the user configured
+            String dictionary = System.getProperty(DB_DICTIONARY_PROPERTY, "");
+            properties.put(DB_DICTIONARY_PROPERTY, addBatchLimit(dictionary, config.batchSize));
+        }
 
         EntityManagerFactory factory = Persistence.createEntityManagerFactory(getPersistenceUnitName(), properties);
+        registerNamedQueries(factory);
         logger.debug("Creating EntityManagerFactory...done");
 
         return factory;
     }
 
+    /**
+     * Adds the <code>batchLimit</code> property to an OpenJPA DBDictionary plugin string, which is either a dictionary
+     * name, a list of properties or a dictionary name followed by its properties in parentheses. A
+     * <code>batchLimit</code> which is already set is kept.
+     *
+     * @param dictionary the configured plugin string, may be empty
+     * @param batchLimit the maximum number of statements in a JDBC batch
+     * @return the plugin string including the <code>batchLimit</code>
+     */
+    static String addBatchLimit(String dictionary, int batchLimit) {
+        String plugin = dictionary.trim();
+        String property = "batchLimit=" + batchLimit;
+        if (plugin.isEmpty()) {
+            return property;
+        } else if (plugin.toLowerCase(Locale.ROOT).contains("batchlimit")) {
+            return plugin;
+        }
+        int start = plugin.indexOf('(');
+        if (start >= 0 && plugin.endsWith(")")) {
+            String properties = plugin.substring(start + 1, plugin.length() - 1).trim();
+            return plugin.substring(0, start) + "(" + (properties.isEmpty() ? "" : properties + ", ") + property + ")";
+        } else if (plugin.contains("=")) {
+            return plugin + ", " + property;
+        }
+        return plugin + "(" + property + ")";
+    }
+
     /**
      * Closes EntityManagerFactory
      */
-    protected void closeEntityManagerFactory() {
+    protected synchronized void closeEntityManagerFactory() {
         if (emf != null) {
             emf.close();
             emf = null;
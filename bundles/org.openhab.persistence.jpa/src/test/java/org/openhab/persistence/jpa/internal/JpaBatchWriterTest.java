@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jpa.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.persistence.jpa.internal.model.JpaPersistentItem;
+
+import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.RollbackException;
+
+/**
+ * Tests the {@link JpaBatchWriter}.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class JpaBatchWriterTest {
+
+    private static final int BATCH_SIZE = 3;
+    private static final long BATCH_INTERVAL = 1000;
+
+    private @Mock @NonNullByDefault({}) EntityManagerFactory entityManagerFactory;
+    private @Mock @NonNullByDefault({}) EntityManager entityManager;
+    private @Mock @NonNullByDefault({}) EntityTransaction transaction;
+    private @Mock @NonNullByDefault({}) ScheduledExecutorService scheduler;
+    private @Mock @NonNullByDefault({}) ScheduledFuture<?> flushJob;
+
+    private final List<Runnable> executedTasks = new ArrayList<>();
+    private final List<String> persistedNames = new ArrayList<>();
+
+    private @NonNullByDefault({}) JpaBatchWriter batchWriter;
+
+    @BeforeEach
+    public void setUp() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(transaction);
+        when(entityManager.isOpen()).thenReturn(true);
+        doAnswer(invocation -> persistedNames.add(((JpaPersistentItem) invocation.getArgument(0)).getName()))
+                .when(entityManager).persist(any());
+        doAnswer(invocation -> executedTasks.add(invocation.getArgument(0))).when(scheduler).execute(any());
+        doReturn(flushJob).when(scheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+
+        batchWriter = new JpaBatchWriter(() -> entityManagerFactory, scheduler, BATCH_SIZE, BATCH_INTERVAL);
+    }
+
+    @Test
+    public void batchIsFlushedWhenFull() {
+        batchWriter.add(newItem("item1"));
+        batchWriter.add(newItem("item2"));
+        assertTrue(executedTasks.isEmpty());
+
+        batchWriter.add(newItem("item3"));
+        assertEquals(1, executedTasks.size());
+        executedTasks.get(0).run();
+
+        assertEquals(List.of("item1", "item2", "item3"), persistedNames);
+        verify(transaction, times(1)).begin();
+        verify(transaction, times(1)).commit();
+        assertEquals(0, batchWriter.getQueueSize());
+    }
+
+    @Test
+    public void batchIsFlushedAfterInterval() {
+        ArgumentCaptor<Runnable> flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(flushCaptor.capture(), eq(BATCH_INTERVAL), eq(BATCH_INTERVAL),
+                eq(TimeUnit.MILLISECONDS));
+
+        batchWriter.add(newItem("item1"));
+        assertTrue(executedTasks.isEmpty());
+        assertTrue(persistedNames.isEmpty());
+
+        flushCaptor.getValue().run();
+
+        assertEquals(List.of("item1"), persistedNames);
+        verify(transaction, times(1)).commit();
+        assertEquals(0, batchWriter.getQueueSize());
+    }
+
+    @Test
+    public void failedBatchIsWrittenOneByOne() {
+        // the batch fails because of a duplicate timestamp, the retry of item2 fails for the same reason
+        doThrow(new RollbackException(new EntityExistsException())).doNothing()
+                .doThrow(new RollbackException(new EntityExistsException())).doNothing().when(transaction).commit();
+        when(transaction.isActive()).thenReturn(true);
+
+        batchWriter.add(newItem("item1"));
+        batchWriter.add(newItem("item2"));
+        batchWriter.add(newItem("item3"));
+        batchWriter.flush();
+
+        assertEquals(List.of("item1", "item2", "item3", "item1", "item2", "item3"), persistedNames);
+        verify(transaction, times(4)).commit();
+        verify(transaction, times(2)).rollback();
+        // the entity manager is replaced after each failed commit
+        verify(entityManagerFactory, times(3)).createEntityManager();
+    }
+
+    @Test
+    public void closeFlushesRemainingItems() {
+        batchWriter.add(newItem("item1"));
+        batchWriter.close();
+
+        assertEquals(List.of("item1"), persistedNames);
+        verify(flushJob).cancel(false);
+        verify(entityManager).close();
+    }
+
+    private JpaPersistentItem newItem(String name) {
+        JpaPersistentItem item = new JpaPersistentItem();
+        item.setName(name);
+        item.setRealName(name);
+        item.setTimestamp(new Date());
+        item.setValue("1");
+        return item;
+    }
+}
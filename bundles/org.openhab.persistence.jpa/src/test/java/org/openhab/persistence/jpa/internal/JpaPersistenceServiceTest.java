@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jpa.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.core.items.ItemNotFoundException;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+import org.osgi.framework.BundleContext;
+
+/**
+ * Tests the {@link JpaPersistenceService} against an in-memory Apache Derby database.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class JpaPersistenceServiceTest {
+
+    private static final String ITEM_NAME = "Switch1";
+
+    private @Mock @NonNullByDefault({}) BundleContext bundleContext;
+    private @Mock @NonNullByDefault({}) ItemRegistry itemRegistry;
+
+    private final SwitchItem item = new SwitchItem(ITEM_NAME);
+
+    private @NonNullByDefault({}) JpaPersistenceService service;
+
+    @BeforeEach
+    public void setUp() throws ItemNotFoundException {
+        when(itemRegistry.getItem(ITEM_NAME)).thenReturn(item);
+
+        Map<String, @Nullable Object> properties = new HashMap<>();
+        properties.put("url", "jdbc:derby:memory:jpatest;create=true");
+        properties.put("driver", "org.apache.derby.iapi.jdbc.AutoloadedDriver");
+        properties.put("syncmappings", "buildSchema(SchemaAction='drop,add')");
+        service = new JpaPersistenceService(bundleContext, properties, itemRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.deactivate();
+    }
+
+    @Test
+    public void storedStatesAreReturnedByNamedQueries() throws InterruptedException {
+        ZonedDateTime begin = ZonedDateTime.now().minusSeconds(1);
+        storeState(OnOffType.ON);
+        Thread.sleep(10);
+        storeState(OnOffType.OFF);
+        Thread.sleep(10);
+        storeState(OnOffType.ON);
+        ZonedDateTime end = ZonedDateTime.now().plusSeconds(1);
+
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(ITEM_NAME);
+        filter.setOrdering(Ordering.ASCENDING);
+        assertEquals(List.of(OnOffType.ON, OnOffType.OFF, OnOffType.ON), queryStates(filter));
+
+        filter.setOrdering(Ordering.DESCENDING);
+        filter.setBeginDate(begin);
+        filter.setEndDate(end);
+        filter.setPageSize(2);
+        assertEquals(List.of(OnOffType.ON, OnOffType.OFF), queryStates(filter));
+
+        filter.setEndDate(begin);
+        assertEquals(List.of(), queryStates(filter));
+    }
+
+    @Test
+    public void batchLimitIsAddedToDictionary() {
+        assertEquals("batchLimit=100", JpaPersistenceService.addBatchLimit("", 100));
+        assertEquals("postgres(batchLimit=100)", JpaPersistenceService.addBatchLimit("postgres", 100));
+        assertEquals("postgres(SupportsSubselect=false, batchLimit=100)",
+                JpaPersistenceService.addBatchLimit("postgres(SupportsSubselect=false)", 100));
+        assertEquals("SupportsSubselect=false, batchLimit=100",
+                JpaPersistenceService.addBatchLimit("SupportsSubselect=false", 100));
+        assertEquals("postgres(BatchLimit=10)", JpaPersistenceService.addBatchLimit("postgres(BatchLimit=10)", 100));
+    }
+
+    private void storeState(OnOffType state) {
+        item.setState(state);
+        service.store(item);
+    }
+
+    private List<State> queryStates(FilterCriteria filter) {
+        List<State> states = new ArrayList<>();
+        for (HistoricItem historicItem : service.query(filter)) {
+            states.add(historicItem.getState());
+        }
+        return states;
+    }
+}
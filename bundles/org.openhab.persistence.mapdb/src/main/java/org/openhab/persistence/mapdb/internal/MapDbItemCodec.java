@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PlayPauseType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.RawType;
+import org.openhab.core.library.types.RewindFastforwardType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.TypeParser;
+import org.openhab.core.types.UnDefType;
+
+/**
+ * Compact binary encoding of a {@link MapDbItem}.
+ *
+ * The core state types are written as a type tag followed by their raw value, so storing and restoring them needs
+ * neither JSON nor string parsing. Other states are written with their class name and full string representation and
+ * parsed with the {@link TypeParser}, like the former JSON encoding did.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public final class MapDbItemCodec {
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte TYPE_GENERIC = 0;
+    private static final byte TYPE_NULL = 1;
+    private static final byte TYPE_UNDEF = 2;
+    private static final byte TYPE_DECIMAL = 3;
+    private static final byte TYPE_PERCENT = 4;
+    private static final byte TYPE_QUANTITY = 5;
+    private static final byte TYPE_ON_OFF = 6;
+    private static final byte TYPE_OPEN_CLOSED = 7;
+    private static final byte TYPE_UP_DOWN = 8;
+    private static final byte TYPE_PLAY_PAUSE = 9;
+    private static final byte TYPE_REWIND_FASTFORWARD = 10;
+    private static final byte TYPE_STRING = 11;
+    private static final byte TYPE_HSB = 12;
+    private static final byte TYPE_DATE_TIME = 13;
+    private static final byte TYPE_RAW = 14;
+
+    private MapDbItemCodec() {
+        // prevent instantiation
+    }
+
+    /**
+     * Encodes the item.
+     *
+     * @param item the item to encode
+     * @return the encoded item
+     */
+    public static byte[] encode(MapDbItem item) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, item.getName());
+            out.writeLong(item.getTimestamp().toInstant().toEpochMilli());
+            writeState(out, item.getState());
+        } catch (IOException e) {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an item encoded by {@link #encode(MapDbItem)}.
+     *
+     * @param data the encoded item
+     * @return the decoded item
+     * @throws IOException if the data is not a valid encoded item
+     */
+    public static MapDbItem decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported format version " + version);
+            }
+            MapDbItem item = new MapDbItem();
+            item.setName(readString(in));
+            item.setTimestamp(new Date(in.readLong()));
+            item.setState(readState(in));
+            return item;
+        } catch (RuntimeException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static void writeState(DataOutputStream out, State state) throws IOException {
+        if (state instanceof UnDefType) {
+            out.writeByte(state == UnDefType.NULL ? TYPE_NULL : TYPE_UNDEF);
+        } else if (state instanceof HSBType hsb) {
+            // HSBType is a PercentType, so it has to be checked first
+            out.writeByte(TYPE_HSB);
+            writeDecimal(out, hsb.getHue().toBigDecimal());
+            writeDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (state instanceof PercentType percent) {
+            out.writeByte(TYPE_PERCENT);
+            writeDecimal(out, percent.toBigDecimal());
+        } else if (state instanceof DecimalType decimal && state.getClass() == DecimalType.class) {
+            out.writeByte(TYPE_DECIMAL);
+            writeDecimal(out, decimal.toBigDecimal());
+        } else if (state instanceof QuantityType<?> quantity) {
+            out.writeByte(TYPE_QUANTITY);
+            writeString(out, quantity.toFullString());
+        } else if (state instanceof OnOffType onOff) {
+            out.writeByte(TYPE_ON_OFF);
+            out.writeBoolean(onOff == OnOffType.ON);
+        } else if (state instanceof OpenClosedType openClosed) {
+            out.writeByte(TYPE_OPEN_CLOSED);
+            out.writeBoolean(openClosed == OpenClosedType.OPEN);
+        } else if (state instanceof UpDownType upDown) {
+            out.writeByte(TYPE_UP_DOWN);
+            out.writeBoolean(upDown == UpDownType.UP);
+        } else if (state instanceof PlayPauseType playPause) {
+            out.writeByte(TYPE_PLAY_PAUSE);
+            out.writeBoolean(playPause == PlayPauseType.PLAY);
+        } else if (state instanceof RewindFastforwardType rewindFastforward) {
+            out.writeByte(TYPE_REWIND_FASTFORWARD);
+            out.writeBoolean(rewindFastforward == RewindFastforwardType.FASTFORWARD);
+        } else if (state instanceof StringType string) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, string.toFullString());
+        } else if (state instanceof DateTimeType dateTime) {
+            out.writeByte(TYPE_DATE_TIME);
+            ZonedDateTime zonedDateTime = dateTime.getZonedDateTime();
+            out.writeLong(zonedDateTime.toEpochSecond());
+            out.writeInt(zonedDateTime.getNano());
+            writeString(out, zonedDateTime.getZone().getId());
+        } else if (state instanceof RawType raw) {
+            out.writeByte(TYPE_RAW);
+            writeString(out, raw.getMimeType());
+            writeBytes(out, raw.getBytes());
+        } else {
+            out.writeByte(TYPE_GENERIC);
+            writeString(out, state.getClass().getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    private static State readState(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_NULL -> UnDefType.NULL;
+            case TYPE_UNDEF -> UnDefType.UNDEF;
+            case TYPE_DECIMAL -> new DecimalType(readDecimal(in));
+            case TYPE_PERCENT -> new PercentType(readDecimal(in));
+            case TYPE_HSB -> new HSBType(new DecimalType(readDecimal(in)), new PercentType(readDecimal(in)),
+                    new PercentType(readDecimal(in)));
+            case TYPE_QUANTITY -> new QuantityType<>(readString(in));
+            case TYPE_ON_OFF -> in.readBoolean() ? OnOffType.ON : OnOffType.OFF;
+            case TYPE_OPEN_CLOSED -> in.readBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case TYPE_UP_DOWN -> in.readBoolean() ? UpDownType.UP : UpDownType.DOWN;
+            case TYPE_PLAY_PAUSE -> in.readBoolean() ? PlayPauseType.PLAY : PlayPauseType.PAUSE;
+            case TYPE_REWIND_FASTFORWARD -> in.readBoolean() ? RewindFastforwardType.FASTFORWARD
+                    : RewindFastforwardType.REWIND;
+            case TYPE_STRING -> new StringType(readString(in));
+            case TYPE_DATE_TIME -> {
+                Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                yield new DateTimeType(ZonedDateTime.ofInstant(instant, ZoneId.of(readString(in))));
+            }
+            case TYPE_RAW -> {
+                String mimeType = readString(in);
+                yield new RawType(readBytes(in), mimeType);
+            }
+            case TYPE_GENERIC -> readGenericState(in);
+            default -> throw new IOException("Unknown state type " + type);
+        };
+    }
+
+    private static State readGenericState(DataInputStream in) throws IOException {
+        String typeName = readString(in);
+        String value = readString(in);
+        try {
+            @SuppressWarnings("unchecked")
+            Class<? extends State> stateType = (Class<? extends State>) Class.forName(typeName);
+            State state = TypeParser.parseState(List.of(stateType), value);
+            if (state == null) {
+                throw new IOException("Cannot parse '" + value + "' as " + typeName);
+            }
+            return state;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown state class " + typeName, e);
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        out.writeInt(value.scale());
+        writeBytes(out, value.unscaledValue().toByteArray());
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        return new BigDecimal(new BigInteger(readBytes(in)), scale);
+    }
+
+    // writeUTF is limited to 64 KiB, which is not enough for all string states
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid length " + length);
+        }
+        byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+}
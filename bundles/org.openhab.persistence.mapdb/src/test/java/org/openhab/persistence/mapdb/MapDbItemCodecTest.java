@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.PlayPauseType;
+import org.openhab.core.library.types.PointType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.RawType;
+import org.openhab.core.library.types.StringListType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.library.unit.SIUnits;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemCodec;
+
+/**
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemCodecTest {
+
+    private static final List<State> VALUES = List.of(UnDefType.NULL, UnDefType.UNDEF, DecimalType.ZERO,
+            new DecimalType(1.123), new DecimalType(new BigDecimal("-12345678901234567890.0001")), PercentType.HUNDRED,
+            PercentType.valueOf("99.999"), HSBType.fromRGB(11, 22, 33), HSBType.WHITE,
+            new QuantityType<>(new BigDecimal("21.23"), SIUnits.CELSIUS), QuantityType.valueOf("1 kW"), OnOffType.ON,
+            OnOffType.OFF, OpenClosedType.OPEN, UpDownType.DOWN, PlayPauseType.PLAY, StringType.valueOf(""),
+            StringType.valueOf("@@@###   @@@ äöü €"), StringType.valueOf("x".repeat(100000)),
+            new DateTimeType(ZonedDateTime.of(2024, 3, 31, 2, 30, 15, 123456789, ZoneId.of("Europe/Berlin"))),
+            new RawType(new byte[] { 1, 2, 3 }, "application/octet-stream"), new PointType("52.5,13.4,34"),
+            new StringListType("a", "b,c"));
+
+    @ParameterizedTest
+    @MethodSource
+    public void encodeDecodeRoundtripShouldRecreateTheItem(State state) throws IOException {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1700000000123L));
+
+        MapDbItem actual = MapDbItemCodec.decode(MapDbItemCodec.encode(item));
+
+        assertThat(actual.getName(), is(equalTo("item")));
+        assertThat(actual.getState(), is(equalTo(state)));
+        assertThat(actual.getTimestamp(), is(equalTo(item.getTimestamp())));
+    }
+
+    public static Stream<State> encodeDecodeRoundtripShouldRecreateTheItem() {
+        return VALUES.stream();
+    }
+
+    @Test
+    public void decodeShouldRejectInvalidData() {
+        assertThrows(IOException.class, () -> MapDbItemCodec.decode(new byte[0]));
+        assertThrows(IOException.class, () -> MapDbItemCodec.decode(new byte[] { 1, 0, 0, 0, 5, 'i' }));
+        assertThrows(IOException.class, () -> MapDbItemCodec.decode(new byte[] { 42 }));
+    }
+}
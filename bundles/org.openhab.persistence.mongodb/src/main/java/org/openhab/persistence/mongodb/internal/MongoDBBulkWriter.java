@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mongodb.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+
+/**
+ * Buffers documents to be stored and writes them with unordered bulk inserts.
+ *
+ * Documents are written per collection with a single <code>insertMany</code> call, either when
+ * <code>bufferSize</code> documents are buffered (on the storing thread, which slows down producers that are faster
+ * than the database) or by a job running every <code>commitIntervalMillis</code>. As the inserts are unordered, a
+ * failing document does not prevent the remaining documents from being written.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class MongoDBBulkWriter {
+
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private final Logger logger = LoggerFactory.getLogger(MongoDBBulkWriter.class);
+
+    private final int bufferSize;
+    private final Function<String, @Nullable MongoCollection<Document>> collectionProvider;
+    private final ScheduledFuture<?> commitJob;
+
+    // collection name -> buffered documents, guarded by this
+    private Map<String, List<Document>> buffer = new HashMap<>();
+    private int bufferedCount;
+
+    // serializes the writes, so a flush returns only after all documents buffered before have been written
+    private final Object writeLock = new Object();
+
+    /**
+     * @param bufferSize the number of buffered documents that triggers a write
+     * @param commitIntervalMillis the maximum time a document is buffered
+     * @param scheduler the scheduler running the periodic writes
+     * @param collectionProvider provides the collection for a collection name, <code>null</code> if not connected
+     */
+    public MongoDBBulkWriter(int bufferSize, long commitIntervalMillis, ScheduledExecutorService scheduler,
+            Function<String, @Nullable MongoCollection<Document>> collectionProvider) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.collectionProvider = collectionProvider;
+        this.commitJob = scheduler.scheduleWithFixedDelay(this::flush, commitIntervalMillis, commitIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffers a document. Writes all buffered documents if the buffer is full.
+     *
+     * @param collectionName the name of the collection to insert the document into
+     * @param document the document
+     */
+    public void add(String collectionName, Document document) {
+        boolean full;
+        synchronized (this) {
+            buffer.computeIfAbsent(collectionName, name -> new ArrayList<>()).add(document);
+            full = ++bufferedCount >= bufferSize;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all buffered documents.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            Map<String, List<Document>> toWrite;
+            synchronized (this) {
+                if (bufferedCount == 0) {
+                    return;
+                }
+                toWrite = buffer;
+                buffer = new HashMap<>();
+                bufferedCount = 0;
+            }
+            toWrite.forEach(this::write);
+        }
+    }
+
+    /**
+     * Writes the buffered documents of a collection, so they are visible to a following query.
+     *
+     * @param collectionName the name of the collection
+     */
+    public void flush(String collectionName) {
+        synchronized (writeLock) {
+            List<Document> toWrite;
+            synchronized (this) {
+                toWrite = buffer.remove(collectionName);
+                if (toWrite == null) {
+                    return;
+                }
+                bufferedCount -= toWrite.size();
+            }
+            write(collectionName, toWrite);
+        }
+    }
+
+    /**
+     * Stops the periodic writes and writes the remaining documents.
+     */
+    public void close() {
+        commitJob.cancel(false);
+        flush();
+    }
+
+    public synchronized int getBufferedCount() {
+        return bufferedCount;
+    }
+
+    private void write(String collectionName, List<Document> documents) {
+        MongoCollection<Document> collection = collectionProvider.apply(collectionName);
+        if (collection == null) {
+            logger.warn("No connection to database. {} documents for collection {} not persisted.", documents.size(),
+                    collectionName);
+            return;
+        }
+        try {
+            collection.insertMany(documents, UNORDERED);
+            logger.debug("MongoDB inserted {} documents into {}", documents.size(), collectionName);
+        } catch (MongoBulkWriteException e) {
+            logger.warn("{} of {} documents for collection {} not persisted: {}", e.getWriteErrors().size(),
+                    documents.size(), collectionName, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to persist {} documents for collection {}: {}", documents.size(), collectionName,
+                    e.getMessage());
+        }
+    }
+}
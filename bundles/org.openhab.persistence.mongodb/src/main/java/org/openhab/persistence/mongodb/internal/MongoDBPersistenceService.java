@@ -17,15 +17,19 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
@@ -51,10 +55,16 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.TimeSeriesGranularity;
+import com.mongodb.client.model.TimeSeriesOptions;
 import com.mongodb.client.result.DeleteResult;
 
 /**
@@ -70,18 +80,43 @@ import com.mongodb.client.result.DeleteResult;
                 + "=org.openhab.mongodb")
 public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
+    private static final int DEFAULT_BUFFER_SIZE = 1000;
+    private static final int MAX_PAGE_BOOKMARKS = 256;
+    private static final int MIN_TIME_SERIES_VERSION = 7;
+
     private final Logger logger = LoggerFactory.getLogger(MongoDBPersistenceService.class);
 
     private String url = "";
     private String db = "";
     private String collection = "";
     private boolean collectionPerItem;
+    private boolean timeSeries;
 
     private boolean initialized = false;
 
     protected final ItemRegistry itemRegistry;
 
     private @Nullable MongoClient cl;
+    private @Nullable MongoDBBulkWriter bulkWriter;
+
+    // collections that have been created and indexed since connecting
+    private final Map<String, MongoCollection<Document>> collections = new ConcurrentHashMap<>();
+
+    // paging query and page number -> position of the first document of the page, guarded by itself
+    private final Map<String, PageBookmark> pageBookmarks = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, PageBookmark> eldest) {
+            return size() > MAX_PAGE_BOOKMARKS;
+        }
+    };
+
+    /**
+     * Position of the first document of a page: the timestamp and the id of the last document of the previous page.
+     */
+    private record PageBookmark(Date timestamp, Object id) {
+    }
 
     @Activate
     public MongoDBPersistenceService(final @Reference ItemRegistry itemRegistry) {
@@ -114,6 +149,22 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         collection = dbCollection == null ? "" : dbCollection;
         collectionPerItem = dbCollection == null || dbCollection.isBlank();
 
+        timeSeries = Boolean.parseBoolean(String.valueOf(config.get("timeSeries")));
+
+        try {
+            long bufferCommitIntervalMillis = parseNumber(config.get("bufferCommitIntervalMillis"), 0);
+            int bufferSize = (int) parseNumber(config.get("bufferSize"), DEFAULT_BUFFER_SIZE);
+            if (bufferCommitIntervalMillis > 0) {
+                logger.debug("MongoDB bulk writes every {} ms or {} documents", bufferCommitIntervalMillis,
+                        bufferSize);
+                bulkWriter = new MongoDBBulkWriter(bufferSize, bufferCommitIntervalMillis,
+                        ThreadPoolManager.getScheduledPool("mongodb"),
+                        name -> tryConnectToDatabase() ? connectToCollection(name) : null);
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid buffer configuration, writing every document immediately: {}", e.getMessage());
+        }
+
         if (!tryConnectToDatabase()) {
             logger.warn("Failed to connect to MongoDB server. Trying to reconnect later.");
         }
@@ -124,9 +175,21 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
     @Deactivate
     public void deactivate(final int reason) {
         logger.debug("MongoDB persistence bundle stopping. Disconnecting from database.");
+        MongoDBBulkWriter localBulkWriter = bulkWriter;
+        if (localBulkWriter != null) {
+            localBulkWriter.close();
+            bulkWriter = null;
+        }
         disconnectFromDatabase();
     }
 
+    private static long parseNumber(@Nullable Object value, long defaultValue) {
+        if (value == null || value.toString().isBlank()) {
+            return defaultValue;
+        }
+        return Long.parseLong(value.toString().trim());
+    }
+
     @Override
     public String getId() {
         return "mongodb";
@@ -209,9 +272,15 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
     /**
      * Connects to the Collection
      *
+     * The collection is created, if configured as time series collection, and indexed once per connection.
+     *
      * @return The collection object when collection creation was successful. Null otherwise.
      */
     private @Nullable MongoCollection<Document> connectToCollection(String collectionName) {
+        MongoCollection<Document> mongoCollection = collections.get(collectionName);
+        if (mongoCollection != null) {
+            return mongoCollection;
+        }
         try {
             @Nullable
             MongoClient db = getDatabase();
@@ -221,12 +290,18 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
                 return null;
             }
 
-            MongoCollection<Document> mongoCollection = db.getDatabase(this.db).getCollection(collectionName);
+            MongoDatabase database = db.getDatabase(this.db);
+            if (timeSeries) {
+                createTimeSeriesCollection(database, collectionName);
+            }
+            mongoCollection = database.getCollection(collectionName);
 
+            // equality on the item, range and sort on the timestamp
             Document idx = new Document();
             idx.append(MongoDBFields.FIELD_ITEM, 1).append(MongoDBFields.FIELD_TIMESTAMP, 1);
             mongoCollection.createIndex(idx);
 
+            collections.put(collectionName, mongoCollection);
             return mongoCollection;
         } catch (Exception e) {
             logger.error("Failed to connect to collection {}: {}", collectionName, e.getMessage(), e);
@@ -234,6 +309,28 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         }
     }
 
+    /**
+     * Creates a time series collection with the item as meta field, if it does not exist yet and the server supports
+     * deleting from time series collections by timestamp (MongoDB 7.0 and newer). Older servers only allow deletes
+     * that filter on the meta field, so {@link #remove(FilterCriteria)} would fail on them.
+     */
+    private void createTimeSeriesCollection(MongoDatabase database, String collectionName) {
+        if (database.listCollections().filter(Filters.eq("name", collectionName)).first() != null) {
+            return;
+        }
+        Document buildInfo = database.runCommand(new Document("buildInfo", 1));
+        List<Integer> version = buildInfo.getList("versionArray", Integer.class);
+        if (version == null || version.isEmpty() || version.get(0) < MIN_TIME_SERIES_VERSION) {
+            logger.warn("Time series collections require MongoDB {}.0 or newer, creating regular collection {} on {}",
+                    MIN_TIME_SERIES_VERSION, collectionName, buildInfo.getString("version"));
+            return;
+        }
+        TimeSeriesOptions options = new TimeSeriesOptions(MongoDBFields.FIELD_TIMESTAMP)
+                .metaField(MongoDBFields.FIELD_ITEM).granularity(TimeSeriesGranularity.SECONDS);
+        database.createCollection(collectionName, new CreateCollectionOptions().timeSeriesOptions(options));
+        logger.debug("Created time series collection {}", collectionName);
+    }
+
     /**
      * Disconnects from the database
      */
@@ -244,6 +341,7 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
         }
 
         cl = null;
+        collections.clear();
     }
 
     @Override
@@ -272,23 +370,61 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             logger.warn("Item {} not found", realItemName);
             return Collections.emptyList();
         }
+        MongoDBBulkWriter localBulkWriter = bulkWriter;
+        if (localBulkWriter != null) {
+            localBulkWriter.flush(collection.getNamespace().getCollectionName());
+        }
+
         List<HistoricItem> items = new ArrayList<>();
 
-        logger.debug("Query: {}", query);
+        boolean ascending = filter.getOrdering() == Ordering.ASCENDING;
+        int pageNumber = filter.getPageNumber();
+        int pageSize = filter.getPageSize();
+
+        // Continue from the end of the previous page if it has been queried before (keyset pagination), so deep pages
+        // do not have to skip over all documents of the previous pages.
+        String pagingKey = collection.getNamespace().getFullName() + ":" + query.toJson() + ":" + ascending + ":"
+                + pageSize;
+        PageBookmark bookmark = pageNumber > 0 ? getPageBookmark(pagingKey, pageNumber) : null;
+        Bson pageQuery = query;
+        int skip;
+        if (bookmark != null) {
+            // documents are sorted by timestamp and id, so the id decides between documents with the same timestamp
+            pageQuery = Filters.and(query, ascending
+                    ? Filters.or(Filters.gt(MongoDBFields.FIELD_TIMESTAMP, bookmark.timestamp()),
+                            Filters.and(Filters.eq(MongoDBFields.FIELD_TIMESTAMP, bookmark.timestamp()),
+                                    Filters.gt(MongoDBFields.FIELD_ID, bookmark.id())))
+                    : Filters.or(Filters.lt(MongoDBFields.FIELD_TIMESTAMP, bookmark.timestamp()),
+                            Filters.and(Filters.eq(MongoDBFields.FIELD_TIMESTAMP, bookmark.timestamp()),
+                                    Filters.lt(MongoDBFields.FIELD_ID, bookmark.id()))));
+            skip = 0;
+        } else {
+            skip = pageNumber * pageSize;
+        }
+
+        logger.debug("Query: {}, skip {}", pageQuery, skip);
 
-        Integer sortDir = (filter.getOrdering() == Ordering.ASCENDING) ? 1 : -1;
+        @Nullable
+        PageBookmark lastDocument = null;
+
+        Integer sortDir = ascending ? 1 : -1;
         MongoCursor<Document> cursor = null;
         try {
-            cursor = collection.find(query).sort(new Document(MongoDBFields.FIELD_TIMESTAMP, sortDir))
-                    .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize()).iterator();
+            cursor = collection.find(pageQuery)
+                    .sort(new Document(MongoDBFields.FIELD_TIMESTAMP, sortDir).append(MongoDBFields.FIELD_ID, sortDir))
+                    .skip(skip).limit(pageSize).iterator();
 
             while (cursor.hasNext()) {
                 Document obj = cursor.next();
 
                 final State state = MongoDBTypeConversions.getStateFromDocument(item, obj);
+                Date timestamp = obj.getDate(MongoDBFields.FIELD_TIMESTAMP);
+
+                items.add(new MongoDBItem(realItemName, state,
+                        ZonedDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault())));
 
-                items.add(new MongoDBItem(realItemName, state, ZonedDateTime
-                        .ofInstant(obj.getDate(MongoDBFields.FIELD_TIMESTAMP).toInstant(), ZoneId.systemDefault())));
+                Object id = obj.get(MongoDBFields.FIELD_ID);
+                lastDocument = id != null ? new PageBookmark(timestamp, id) : null;
             }
         } finally {
             if (cursor != null) {
@@ -296,9 +432,25 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             }
         }
 
+        if (lastDocument != null && items.size() == pageSize) {
+            putPageBookmark(pagingKey, pageNumber + 1, lastDocument);
+        }
+
         return items;
     }
 
+    private @Nullable PageBookmark getPageBookmark(String pagingKey, int pageNumber) {
+        synchronized (pageBookmarks) {
+            return pageBookmarks.get(pagingKey + "#" + pageNumber);
+        }
+    }
+
+    private void putPageBookmark(String pagingKey, int pageNumber, PageBookmark bookmark) {
+        synchronized (pageBookmarks) {
+            pageBookmarks.put(pagingKey + "#" + pageNumber, bookmark);
+        }
+    }
+
     private @Nullable Item getItem(String itemName) {
         try {
             return itemRegistry.getItem(itemName);
@@ -346,6 +498,29 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             return;
         }
 
+        String realItemName = item.getName();
+        String collectionName = collectionPerItem ? realItemName : this.collection;
+        String name = (alias != null) ? alias : realItemName;
+        Object value = MongoDBTypeConversions.convertValue(state);
+
+        Document obj = new Document();
+        obj.put(MongoDBFields.FIELD_ID, new ObjectId());
+        obj.put(MongoDBFields.FIELD_ITEM, name);
+        obj.put(MongoDBFields.FIELD_REALNAME, realItemName);
+        obj.put(MongoDBFields.FIELD_TIMESTAMP, date);
+        obj.put(MongoDBFields.FIELD_VALUE, value);
+        if (item instanceof NumberItem && state instanceof QuantityType<?>) {
+            obj.put(MongoDBFields.FIELD_UNIT, ((QuantityType<?>) state).getUnit().toString());
+        }
+
+        // The bulk writer connects when writing the buffered documents
+        MongoDBBulkWriter localBulkWriter = bulkWriter;
+        if (localBulkWriter != null) {
+            localBulkWriter.add(collectionName, obj);
+            logger.debug("MongoDB buffered {}={}", name, value);
+            return;
+        }
+
         // Connect to mongodb server if we're not already connected
         // If we can't connect, log.
         if (!tryConnectToDatabase()) {
@@ -355,9 +530,6 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             return;
         }
 
-        String realItemName = item.getName();
-        String collectionName = collectionPerItem ? realItemName : this.collection;
-
         @Nullable
         MongoCollection<Document> collection = connectToCollection(collectionName);
 
@@ -366,18 +538,6 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
             return;
         }
 
-        String name = (alias != null) ? alias : realItemName;
-        Object value = MongoDBTypeConversions.convertValue(state);
-
-        Document obj = new Document();
-        obj.put(MongoDBFields.FIELD_ID, new ObjectId());
-        obj.put(MongoDBFields.FIELD_ITEM, name);
-        obj.put(MongoDBFields.FIELD_REALNAME, realItemName);
-        obj.put(MongoDBFields.FIELD_TIMESTAMP, date);
-        obj.put(MongoDBFields.FIELD_VALUE, value);
-        if (item instanceof NumberItem && state instanceof QuantityType<?>) {
-            obj.put(MongoDBFields.FIELD_UNIT, ((QuantityType<?>) state).getUnit().toString());
-        }
         try {
             collection.insertOne(obj);
         } catch (org.bson.BsonMaximumSizeExceededException e) {
@@ -481,9 +641,23 @@ public class MongoDBPersistenceService implements ModifiablePersistenceService {
 
         logger.debug("Query: {}", query);
 
-        DeleteResult result = collection.deleteMany(query);
+        MongoDBBulkWriter localBulkWriter = bulkWriter;
+        if (localBulkWriter != null) {
+            localBulkWriter.flush(collection.getNamespace().getCollectionName());
+        }
+        synchronized (pageBookmarks) {
+            pageBookmarks.clear();
+        }
 
-        logger.debug("Deleted {} documents", result.getDeletedCount());
-        return true;
+        try {
+            DeleteResult result = collection.deleteMany(query);
+            logger.debug("Deleted {} documents", result.getDeletedCount());
+            return true;
+        } catch (MongoException e) {
+            // e.g. servers before MongoDB 7.0 only allow deletes from time series collections that filter on the item
+            logger.warn("Failed to remove {} from collection {}: {}", filter, collection.getNamespace(),
+                    e.getMessage());
+            return false;
+        }
     }
 }
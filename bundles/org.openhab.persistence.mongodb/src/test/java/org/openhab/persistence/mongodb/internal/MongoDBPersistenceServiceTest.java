@@ -989,4 +989,103 @@ public class MongoDBPersistenceServiceTest {
             dbContainer.stop();
         }
     }
+
+    /**
+     * Tests paging through a history with several states per timestamp.
+     *
+     * Following pages continue after the last document of the previous page, so the concatenated pages have to match
+     * the unpaged result, without duplicates or gaps at page boundaries within equal timestamps.
+     *
+     * @param dbContainer The container running the MongoDB instance.
+     */
+    @ParameterizedTest
+    @MethodSource("org.openhab.persistence.mongodb.internal.DataCreationHelper#provideDatabaseBackends")
+    public void testQueryPagesWithEqualTimestamps(DatabaseTestContainer dbContainer) {
+        try {
+            // Preparation
+            SetupResult setupResult = DataCreationHelper.setupMongoDB("testCollection", dbContainer);
+            MongoDBPersistenceService service = setupResult.service;
+            NumberItem itemReg = DataCreationHelper.createNumberItem("TestItem", 0);
+            try {
+                Mockito.when(setupResult.itemRegistry.getItem("TestItem")).thenReturn(itemReg);
+            } catch (ItemNotFoundException e) {
+            }
+
+            service.activate(setupResult.bundleContext, setupResult.config);
+
+            ZonedDateTime startDate = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            for (int i = 0; i < 25; i++) {
+                service.store(itemReg, startDate.plusSeconds(i / 3), new DecimalType(i));
+            }
+
+            for (FilterCriteria.Ordering ordering : FilterCriteria.Ordering.values()) {
+                // Execution
+                FilterCriteria unpaged = DataCreationHelper.createFilterCriteria("TestItem");
+                unpaged.setPageSize(100);
+                unpaged.setOrdering(ordering);
+                List<String> expected = new ArrayList<>();
+                service.query(unpaged).forEach(historicItem -> expected.add(historicItem.getState().toString()));
+
+                List<String> paged = new ArrayList<>();
+                for (int pageNumber = 0; pageNumber < 10; pageNumber++) {
+                    FilterCriteria page = DataCreationHelper.createFilterCriteria("TestItem");
+                    page.setPageSize(4);
+                    page.setPageNumber(pageNumber);
+                    page.setOrdering(ordering);
+                    service.query(page).forEach(historicItem -> paged.add(historicItem.getState().toString()));
+                }
+
+                // Verification
+                assertEquals(25, expected.size());
+                assertEquals(expected, paged);
+            }
+        } finally {
+            dbContainer.stop();
+        }
+    }
+
+    /**
+     * Tests the store method of MongoDBPersistenceService with bulk writes enabled.
+     *
+     * Documents are written once the buffer is full, and buffered documents are written before a query.
+     *
+     * @param dbContainer The container running the MongoDB instance.
+     */
+    @ParameterizedTest
+    @MethodSource("org.openhab.persistence.mongodb.internal.DataCreationHelper#provideDatabaseBackends")
+    public void testStoreBuffered(DatabaseTestContainer dbContainer) {
+        try {
+            // Preparation
+            SetupResult setupResult = DataCreationHelper.setupMongoDB("testCollection", dbContainer);
+            MongoDBPersistenceService service = setupResult.service;
+            MongoDatabase database = setupResult.database;
+            NumberItem itemReg = DataCreationHelper.createNumberItem("TestItem", 0);
+            try {
+                Mockito.when(setupResult.itemRegistry.getItem("TestItem")).thenReturn(itemReg);
+            } catch (ItemNotFoundException e) {
+            }
+            setupResult.config.put("bufferCommitIntervalMillis", "60000");
+            setupResult.config.put("bufferSize", "5");
+
+            service.activate(setupResult.bundleContext, setupResult.config);
+
+            // Execution
+            for (int i = 0; i < 12; i++) {
+                service.store(DataCreationHelper.createNumberItem("TestItem", i), null);
+            }
+
+            // Verification
+            MongoCollection<Document> collection = database.getCollection("testCollection");
+            assertEquals(10, collection.countDocuments());
+
+            FilterCriteria filter = DataCreationHelper.createFilterCriteria("TestItem");
+            filter.setPageSize(100);
+            VerificationHelper.verifyQueryResult(service.query(filter), 0, 1, 12);
+            assertEquals(12, collection.countDocuments());
+
+            service.deactivate(1);
+        } finally {
+            dbContainer.stop();
+        }
+    }
 }
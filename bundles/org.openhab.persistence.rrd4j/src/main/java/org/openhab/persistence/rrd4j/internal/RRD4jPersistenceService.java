@@ -22,18 +22,22 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.DoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -82,10 +86,13 @@ import org.rrd4j.ConsolFun;
 import org.rrd4j.DsType;
 import org.rrd4j.core.FetchData;
 import org.rrd4j.core.FetchRequest;
+import org.rrd4j.core.RrdBackendFactory;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDb.Builder;
 import org.rrd4j.core.RrdDbPool;
 import org.rrd4j.core.RrdDef;
+import org.rrd4j.core.RrdNioBackendFactory;
+import org.rrd4j.core.RrdRandomAccessFileBackendFactory;
 import org.rrd4j.core.Sample;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -114,6 +121,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private record StoredValue(long timestamp, double value) {
+    }
+
     public static final String SERVICE_ID = "rrd4j";
 
     private static final String DEFAULT_OTHER = "default_other";
@@ -123,8 +133,27 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     private static final Set<String> SUPPORTED_TYPES = Set.of(CoreItemFactory.SWITCH, CoreItemFactory.CONTACT,
             CoreItemFactory.DIMMER, CoreItemFactory.NUMBER, CoreItemFactory.ROLLERSHUTTER, CoreItemFactory.COLOR);
 
+    private static final String OPTION_OPEN_DATABASES = "openDatabases";
+    private static final String OPTION_WRITE_THREADS = "writeThreads";
+    private static final String OPTION_BACKEND = "backend";
+    private static final String OPTION_SYNC_PERIOD = "syncPeriod";
+    private static final Set<String> SERVICE_OPTIONS = Set.of(OPTION_OPEN_DATABASES, OPTION_WRITE_THREADS,
+            OPTION_BACKEND, OPTION_SYNC_PERIOD);
+
+    private static final String BACKEND_DEFAULT = "default";
+    private static final String BACKEND_FILE = "file";
+    private static final String BACKEND_NIO = "nio";
+
+    private static final int DEFAULT_OPEN_DATABASES = 100;
+    private static final int DEFAULT_WRITE_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final int DEFAULT_SYNC_PERIOD = 300;
+
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1,
             new NamedThreadFactory("RRD4j"));
+    private final ExecutorService writeExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("RRD4j-write"));
+    // syncing memory mapped files can take long, so it must not delay the store job
+    private final ScheduledExecutorService syncScheduler = Executors.newScheduledThreadPool(1,
+            new NamedThreadFactory("RRD4j-sync"));
 
     private final Map<String, RrdDefConfig> rrdDefs = new ConcurrentHashMap<>();
 
@@ -136,10 +165,24 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private static final RrdDbPool DATABASE_POOL = new RrdDbPool();
 
+    private static volatile RrdBackendFactory backendFactory = RrdBackendFactory.getDefaultFactory();
+
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
     private final ItemRegistry itemRegistry;
     private boolean active = false;
 
+    // frequently written databases are kept open in the pool, least recently written first
+    private final Map<String, RrdDb> openDatabases = new LinkedHashMap<>(16, 0.75f, true);
+    private int openDatabasesLimit = DEFAULT_OPEN_DATABASES;
+    private int writeThreads = DEFAULT_WRITE_THREADS;
+
+    private final Object storeLock = new Object();
+    private final AtomicLong samplesWritten = new AtomicLong();
+    private final AtomicLong batchesWritten = new AtomicLong();
+    private volatile long lastStoreTime = System.nanoTime();
+    private volatile double writeRate = 0;
+    private volatile double peakWriteRate = 0;
+
     public static Path getDatabasePath(String name) {
         return DB_FOLDER.resolve(name + ".rrd");
     }
@@ -148,6 +191,14 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return DATABASE_POOL;
     }
 
+    /**
+     * Returns the backend factory all databases have to be opened with, so the pool never holds the same file with
+     * two different backends.
+     */
+    public static RrdBackendFactory getBackendFactory() {
+        return backendFactory;
+    }
+
     private final ScheduledFuture<?> storeJob;
 
     @Activate
@@ -202,6 +253,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         defaultOther.addArchives("LAST,0.5,1,720:LAST,0.5,12,10080:LAST,0.5,180,35040:LAST,0.5,2880,21900");
         rrdDefs.put(DEFAULT_OTHER, defaultOther);
 
+        updateServiceOptions(config);
+
         if (config.isEmpty()) {
             logger.debug("using default configuration only");
             return;
@@ -215,6 +268,10 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
                 // ignore service.pid and name
                 continue;
             }
+            if (SERVICE_OPTIONS.contains(key)) {
+                // already processed
+                continue;
+            }
 
             String[] subkeys = key.split("\\.");
             if (subkeys.length != 2) {
@@ -266,6 +323,68 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    private void updateServiceOptions(final Map<String, Object> config) {
+        openDatabasesLimit = getIntOption(config, OPTION_OPEN_DATABASES, DEFAULT_OPEN_DATABASES);
+        writeThreads = Math.max(1, getIntOption(config, OPTION_WRITE_THREADS, DEFAULT_WRITE_THREADS));
+
+        // every open database holds a pool slot, keep enough slots free for charts and queries
+        int maxOpenDatabases = DATABASE_POOL.getCapacity() / 2;
+        if (openDatabasesLimit > maxOpenDatabases) {
+            logger.info("Limiting {} to {} (half of the database pool capacity)", OPTION_OPEN_DATABASES,
+                    maxOpenDatabases);
+            openDatabasesLimit = maxOpenDatabases;
+        }
+        closeDatabases(openDatabasesLimit);
+        logger.debug("Keeping up to {} databases open, writing with {} threads", openDatabasesLimit, writeThreads);
+
+        Object backend = config.get(OPTION_BACKEND);
+        String backendName = backend == null || backend.toString().isBlank() ? BACKEND_DEFAULT
+                : backend.toString().trim().toLowerCase();
+        int syncPeriod = Math.max(1, getIntOption(config, OPTION_SYNC_PERIOD, DEFAULT_SYNC_PERIOD));
+        RrdBackendFactory factory;
+        switch (backendName) {
+            case BACKEND_FILE:
+                factory = new RrdRandomAccessFileBackendFactory();
+                break;
+            case BACKEND_NIO:
+                // memory mapped files are written to disk every sync period
+                factory = new RrdNioBackendFactory(syncPeriod, syncScheduler);
+                break;
+            case BACKEND_DEFAULT:
+                factory = RrdBackendFactory.getDefaultFactory();
+                break;
+            default:
+                logger.warn("Unknown {} '{}', using the default backend", OPTION_BACKEND, backend);
+                factory = RrdBackendFactory.getDefaultFactory();
+                break;
+        }
+        setBackendFactory(factory);
+        logger.debug("Using rrd4j backend {}", factory.getName());
+    }
+
+    private void setBackendFactory(RrdBackendFactory factory) {
+        RrdBackendFactory oldFactory = backendFactory;
+        if (oldFactory.getClass() == factory.getClass() && !(factory instanceof RrdNioBackendFactory)) {
+            return;
+        }
+        // databases opened with the previous backend must not be written anymore
+        closeDatabases(0);
+        backendFactory = factory;
+    }
+
+    private int getIntOption(final Map<String, Object> config, String key, int defaultValue) {
+        Object value = config.get(key);
+        if (value == null || value.toString().isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.toString().trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring illegal value '{}' for {}, using {}", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+
     @Deactivate
     protected void deactivate() {
         active = false;
@@ -273,6 +392,11 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
         // make sure we really store everything
         doStore(true);
+        closeDatabases(0);
+        writeExecutor.shutdown();
+        // the sync tasks of memory mapped databases run on the scheduler of this instance
+        backendFactory = RrdBackendFactory.getDefaultFactory();
+        syncScheduler.shutdown();
     }
 
     @Override
@@ -339,21 +463,82 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     private void doStore(boolean force) {
+        // the write threads open databases using getDB, so store cycles must not lock this instance
+        synchronized (storeLock) {
+            doStoreLocked(force);
+        }
+    }
+
+    private void doStoreLocked(boolean force) {
         long now = System.currentTimeMillis() / 1000;
+        // group the pending values per database, so every file is opened only once per cycle
+        Map<String, List<StoredValue>> pending = new LinkedHashMap<>();
+        int count = 0;
         while (!storageMap.isEmpty()) {
             Key key = storageMap.firstKey();
             if (now > key.timestamp || force) {
                 // no new elements can be added for this timestamp because we are already past that time or the service
                 // requires forced storing
-                Double value = storageMap.pollFirstEntry().getValue();
-                writePointToDatabase(key.name, value, key.timestamp);
+                Map.Entry<Key, Double> entry = storageMap.pollFirstEntry();
+                if (entry == null) {
+                    break;
+                }
+                pending.computeIfAbsent(entry.getKey().name, name -> new ArrayList<>())
+                        .add(new StoredValue(entry.getKey().timestamp, entry.getValue()));
+                count++;
             } else {
-                return;
+                break;
+            }
+        }
+
+        long storeTime = System.nanoTime();
+        if (!pending.isEmpty()) {
+            writeStripes(pending);
+            samplesWritten.addAndGet(count);
+            batchesWritten.addAndGet(pending.size());
+        }
+        double seconds = Math.max(1, storeTime - lastStoreTime) / 1e9;
+        lastStoreTime = storeTime;
+        writeRate = count / seconds;
+        if (writeRate > peakWriteRate) {
+            peakWriteRate = writeRate;
+        }
+    }
+
+    private void writeStripes(Map<String, List<StoredValue>> pending) {
+        int stripeCount = Math.min(writeThreads, pending.size());
+        if (stripeCount <= 1) {
+            pending.forEach(this::writePointsToDatabase);
+            return;
+        }
+
+        // every database is assigned to exactly one stripe, so its values are still written in order
+        List<List<String>> stripes = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.add(new ArrayList<>());
+        }
+        int i = 0;
+        for (String name : pending.keySet()) {
+            stripes.get(i++ % stripeCount).add(name);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(stripeCount);
+        for (List<String> stripe : stripes) {
+            Runnable task = () -> stripe.forEach(name -> writePointsToDatabase(name, pending.get(name)));
+            try {
+                futures.add(CompletableFuture.runAsync(task, writeExecutor));
+            } catch (RejectedExecutionException e) {
+                // this happens if the system is shut down
+                task.run();
             }
         }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
     }
 
-    private synchronized void writePointToDatabase(String name, double value, long timestamp) {
+    private void writePointsToDatabase(String name, @Nullable List<StoredValue> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
         RrdDb db = null;
         try {
             db = getDB(name, true);
@@ -364,7 +549,17 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
             return;
         }
 
-        ConsolFun function = getConsolidationFunction(db);
+        try {
+            ConsolFun function = getConsolidationFunction(db);
+            for (StoredValue value : values) {
+                writePointToDatabase(db, function, name, value.value, value.timestamp);
+            }
+        } finally {
+            releaseDB(name, db);
+        }
+    }
+
+    private void writePointToDatabase(RrdDb db, ConsolFun function, String name, double value, long timestamp) {
         if (function != ConsolFun.AVERAGE) {
             try {
                 // we store the last value again, so that the value change
@@ -400,6 +595,45 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         } catch (Exception e) {
             logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
         }
+    }
+
+    /**
+     * Hands the reference of a database that has just been written to the open databases, or closes it if the
+     * database is already kept open or keeping it open is disabled.
+     */
+    private void releaseDB(String name, RrdDb db) {
+        List<RrdDb> evicted = new ArrayList<>();
+        boolean keepOpen = false;
+        synchronized (openDatabases) {
+            if (openDatabasesLimit > 0 && openDatabases.get(name) == null) {
+                openDatabases.put(name, db);
+                keepOpen = true;
+                evictDatabases(openDatabasesLimit, evicted);
+            }
+        }
+        if (!keepOpen) {
+            closeDatabase(db);
+        }
+        evicted.forEach(this::closeDatabase);
+    }
+
+    private void closeDatabases(int limit) {
+        List<RrdDb> evicted = new ArrayList<>();
+        synchronized (openDatabases) {
+            evictDatabases(limit, evicted);
+        }
+        evicted.forEach(this::closeDatabase);
+    }
+
+    private void evictDatabases(int limit, List<RrdDb> evicted) {
+        Iterator<RrdDb> iterator = openDatabases.values().iterator();
+        while (openDatabases.size() > limit && iterator.hasNext()) {
+            evicted.add(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void closeDatabase(RrdDb db) {
         try {
             db.close();
         } catch (IOException e) {
@@ -550,6 +784,7 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         try {
             Builder builder = RrdDb.getBuilder();
             builder.setPool(DATABASE_POOL);
+            builder.setBackendFactory(backendFactory);
 
             if (Files.exists(path)) {
                 // recreate the RrdDb instance from the file
@@ -668,6 +903,50 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return SUPPORTED_TYPES.contains(ItemUtil.getMainItemType(item.getType()));
     }
 
+    /**
+     * Closes the database if it is kept open for writing, e.g. before its file is deleted.
+     *
+     * @param name the name of the database
+     */
+    public void releaseDatabase(String name) {
+        @Nullable RrdDb db;
+        synchronized (openDatabases) {
+            db = openDatabases.remove(name);
+        }
+        if (db != null) {
+            closeDatabase(db);
+        }
+    }
+
+    public long getSamplesWritten() {
+        return samplesWritten.get();
+    }
+
+    public long getBatchesWritten() {
+        return batchesWritten.get();
+    }
+
+    /**
+     * Returns the number of samples per second written in the last store cycle.
+     */
+    public double getWriteRate() {
+        return writeRate;
+    }
+
+    public double getPeakWriteRate() {
+        return peakWriteRate;
+    }
+
+    public int getOpenDatabaseCount() {
+        synchronized (openDatabases) {
+            return openDatabases.size();
+        }
+    }
+
+    public int getOpenDatabasesLimit() {
+        return openDatabasesLimit;
+    }
+
     public List<String> getRrdFiles() {
         try (Stream<Path> stream = Files.list(DB_FOLDER)) {
             return stream.filter(file -> !Files.isDirectory(file) && file.toFile().getName().endsWith(".rrd"))
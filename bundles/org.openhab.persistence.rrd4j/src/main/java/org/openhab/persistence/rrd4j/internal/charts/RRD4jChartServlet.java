@@ -17,12 +17,19 @@ import static java.util.Map.entry;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 import javax.imageio.ImageIO;
 import javax.servlet.Servlet;
@@ -33,6 +40,7 @@ import javax.servlet.ServletResponse;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
@@ -48,6 +56,7 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.http.HttpService;
 import org.osgi.service.http.NamespaceException;
 import org.rrd4j.ConsolFun;
+import org.rrd4j.core.FetchData;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDb.Builder;
 import org.rrd4j.graph.RrdGraph;
@@ -67,6 +76,9 @@ import org.slf4j.LoggerFactory;
  * <li>groups: A comma separated list of group names, whose members should be displayed
  * </ul>
  *
+ * The archives of all items of a chart are fetched in parallel. Rendered images are cached for a few seconds, so
+ * dashboards requesting the same chart several times at once only render it once.
+ *
  * @author Kai Kreuzer - Initial contribution
  * @author Chris Jackson - a few improvements
  * @author Jan N. Klug - a few improvements
@@ -93,6 +105,9 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
 
     private static final Duration DEFAULT_PERIOD = Duration.ofDays(1);
 
+    private static final long CACHE_TTL_MILLIS = Duration.ofSeconds(10).toMillis();
+    private static final int CACHE_CLEANUP_SIZE = 50;
+
     private static final Map<String, Duration> PERIODS = Map.ofEntries( //
             entry("h", Duration.ofHours(1)), entry("4h", Duration.ofHours(4)), //
             entry("8h", Duration.ofHours(8)), entry("12h", Duration.ofHours(12)), //
@@ -103,9 +118,20 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
             entry("Y", Duration.ofDays(365))//
     );
 
+    private record CachedChart(long expiresAt, CompletableFuture<byte[]> png) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private record ChartLine(Item item, String rrdName, ConsolFun consolFun, @Nullable FetchData fetchData) {
+    }
+
     private final HttpService httpService;
     private final ItemUIRegistry itemUIRegistry;
     private final TimeZoneProvider timeZoneProvider;
+    private final ExecutorService fetchExecutor = ThreadPoolManager.getPool("rrd4j-chart");
+    private final Map<String, CachedChart> chartCache = new ConcurrentHashMap<>();
 
     @Activate
     public RRD4jChartServlet(final @Reference HttpService httpService, final @Reference ItemUIRegistry itemUIRegistry,
@@ -128,6 +154,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     @Deactivate
     protected void deactivate() {
         httpService.unregister(SERVLET_NAME);
+        chartCache.clear();
     }
 
     @Override
@@ -143,12 +170,22 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         ZonedDateTime timeEnd = ZonedDateTime.now(timeZoneProvider.getTimeZone());
         ZonedDateTime timeBegin = timeEnd.minus(period);
 
+        String items = req.getParameter("items");
+        String groups = req.getParameter("groups");
+        String cacheKey = width + "|" + height + "|" + period + "|" + items + "|" + groups;
+
         try {
-            BufferedImage chart = createChart(null, null, timeBegin, timeEnd, height, width, req.getParameter("items"),
-                    req.getParameter("groups"), null, null);
+            byte[] png = getCachedChart(cacheKey, () -> {
+                BufferedImage chart = createChart(null, null, timeBegin, timeEnd, height, width, items, groups, null,
+                        null);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(chart, getChartType().toString(), out);
+                return out.toByteArray();
+            });
             // Set the content type to that provided by the chart provider
             res.setContentType("image/" + getChartType());
-            ImageIO.write(chart, getChartType().toString(), res.getOutputStream());
+            res.setContentLength(png.length);
+            res.getOutputStream().write(png);
         } catch (ItemNotFoundException e) {
             logger.debug("Item not found error while generating chart", e);
             throw new ServletException("Item not found error while generating chart: " + e.getMessage());
@@ -158,6 +195,52 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         }
     }
 
+    @FunctionalInterface
+    private interface ChartRenderer {
+        byte[] render() throws ItemNotFoundException, IOException;
+    }
+
+    /**
+     * Returns the cached image for the key, or renders it. Concurrent requests for the same key wait for the
+     * rendering started first instead of rendering the chart again.
+     */
+    private byte[] getCachedChart(String key, ChartRenderer renderer) throws ItemNotFoundException, IOException {
+        long now = System.currentTimeMillis();
+        if (chartCache.size() > CACHE_CLEANUP_SIZE) {
+            chartCache.values().removeIf(cached -> cached.isExpired(now));
+        }
+
+        CachedChart newChart = new CachedChart(now + CACHE_TTL_MILLIS, new CompletableFuture<>());
+        CachedChart cachedChart = chartCache.compute(key,
+                (k, cached) -> cached == null || cached.isExpired(now) ? newChart : cached);
+        if (cachedChart != newChart) {
+            try {
+                return cachedChart.png.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ItemNotFoundException notFound) {
+                    throw notFound;
+                } else if (cause instanceof IOException ioException) {
+                    throw ioException;
+                } else if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            byte[] png = renderer.render();
+            newChart.png.complete(png);
+            return png;
+        } catch (ItemNotFoundException | IOException | RuntimeException e) {
+            // failures are not cached
+            chartCache.remove(key, newChart);
+            newChart.png.completeExceptionally(e);
+            throw e;
+        }
+    }
+
     private int parseInt(@Nullable String s, int defaultValue) {
         if (s == null) {
             return defaultValue;
@@ -170,41 +253,66 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         }
     }
 
+    /**
+     * Fetches the archive of the item for the chart period. If the database cannot be read, the graph reads it
+     * itself, so the error is reported when the chart is rendered.
+     *
+     * @param item the item to fetch the archive for
+     * @param start the start of the chart in seconds since the epoch
+     * @param end the end of the chart in seconds since the epoch
+     * @param resolution the requested step in seconds
+     * @return the line to add to the graph definition
+     */
+    private ChartLine fetchLine(Item item, long start, long end, long resolution) {
+        String rrdName = RRD4jPersistenceService.getDatabasePath(item.getName()).toString();
+        ConsolFun consolFun = ConsolFun.MAX;
+        FetchData fetchData = null;
+        try {
+            Builder builder = RrdDb.getBuilder();
+            builder.setPool(RRD4jPersistenceService.getDatabasePool());
+            builder.setBackendFactory(RRD4jPersistenceService.getBackendFactory());
+            builder.setPath(rrdName);
+
+            RrdDb db = builder.build();
+            try {
+                consolFun = db.getRrdDef().getArcDefs()[0].getConsolFun();
+                fetchData = db.createFetchRequest(consolFun, start, end, resolution).fetchData();
+            } finally {
+                db.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Could not fetch rrd4j database '{}' for chart: {}", rrdName, e.getMessage());
+        }
+        return new ChartLine(item, rrdName, consolFun, fetchData);
+    }
+
     /**
      * Adds a line for the item to the graph definition.
      * The color of the line is determined by the counter, it simply picks the according index from LINECOLORS (and
      * rolls over if necessary).
      *
      * @param graphDef the graph definition to fill
-     * @param item the item to add a line for
+     * @param line the item and its fetched archive to add a line for
      * @param counter defines the number of the datasource and is used to determine the line color
      */
-    protected void addLine(RrdGraphDef graphDef, Item item, int counter) {
+    private void addLine(RrdGraphDef graphDef, ChartLine line, int counter) {
+        Item item = line.item();
         Color color = LINECOLORS[counter % LINECOLORS.length];
         String label = itemUIRegistry.getLabel(item.getName());
-        String rrdName = RRD4jPersistenceService.getDatabasePath(item.getName()).toString();
-        ConsolFun consolFun;
         if (label != null && label.contains("[") && label.contains("]")) {
             label = label.substring(0, label.indexOf('['));
         }
-        try {
-            Builder builder = RrdDb.getBuilder();
-            builder.setPool(RRD4jPersistenceService.getDatabasePool());
-            builder.setPath(rrdName);
-
-            RrdDb db = builder.build();
-            consolFun = db.getRrdDef().getArcDefs()[0].getConsolFun();
-            db.close();
-        } catch (IOException e) {
-            consolFun = ConsolFun.MAX;
+        FetchData fetchData = line.fetchData();
+        if (fetchData != null) {
+            graphDef.datasource(Integer.toString(counter), "state", fetchData);
+        } else {
+            graphDef.datasource(Integer.toString(counter), line.rrdName(), "state", line.consolFun());
         }
         if (item instanceof NumberItem) {
             // we only draw a line
-            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun); // RRD4jService.getConsolidationFunction(item));
             graphDef.line(Integer.toString(counter), color, label, 2);
         } else {
             // we draw a line and fill the area beneath it with a transparent color
-            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun); // RRD4jService.getConsolidationFunction(item));
             Color areaColor = AREACOLORS[counter % LINECOLORS.length];
 
             graphDef.area(Integer.toString(counter), areaColor);
@@ -251,14 +359,13 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         graphDef.setFont(FontTag.TITLE, new Font("SansSerif", Font.PLAIN, 15));
         graphDef.setFont(FontTag.DEFAULT, new Font("SansSerif", Font.PLAIN, 11));
 
-        int seriesCounter = 0;
+        List<Item> chartItems = new ArrayList<>();
 
         // Loop through all the items
         if (items != null) {
             String[] itemNames = items.split(",");
             for (String itemName : itemNames) {
-                Item item = itemUIRegistry.getItem(itemName);
-                addLine(graphDef, item, seriesCounter++);
+                chartItems.add(itemUIRegistry.getItem(itemName));
             }
         }
 
@@ -268,15 +375,26 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
             for (String groupName : groupNames) {
                 Item item = itemUIRegistry.getItem(groupName);
                 if (item instanceof GroupItem groupItem) {
-                    for (Item member : groupItem.getMembers()) {
-                        addLine(graphDef, member, seriesCounter++);
-                    }
+                    chartItems.addAll(groupItem.getMembers());
                 } else {
                     throw new ItemNotFoundException("Item '" + item.getName() + "' defined in groups is not a group.");
                 }
             }
         }
 
+        // fetch the archives of all items in parallel, the lines are added in the order of the items
+        long start = startTime.toEpochSecond();
+        long end = endTime.toEpochSecond();
+        long resolution = Math.max(1, (end - start) / Math.max(1, width));
+        List<CompletableFuture<ChartLine>> lines = new ArrayList<>(chartItems.size());
+        for (Item item : chartItems) {
+            lines.add(CompletableFuture.supplyAsync(() -> fetchLine(item, start, end, resolution), fetchExecutor));
+        }
+        int seriesCounter = 0;
+        for (CompletableFuture<ChartLine> line : lines) {
+            addLine(graphDef, line.join(), seriesCounter++);
+        }
+
         // Write the chart as a PNG image
         try {
             RrdGraph graph = new RrdGraph(graphDef);
@@ -47,8 +47,9 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
     private static final String CMD_LIST = "list";
     private static final String CMD_CHECK = "check";
     private static final String CMD_CLEAN = "clean";
-    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(List.of(CMD_LIST, CMD_CHECK, CMD_CLEAN),
-            false);
+    private static final String CMD_STATS = "stats";
+    private static final StringsCompleter CMD_COMPLETER = new StringsCompleter(
+            List.of(CMD_LIST, CMD_CHECK, CMD_CLEAN, CMD_STATS), false);
 
     private final PersistenceServiceRegistry persistenceServiceRegistry;
     private final ItemRegistry itemRegistry;
@@ -81,6 +82,14 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
         } else if (args.length >= 1 && args.length <= 2 && CMD_CLEAN.equalsIgnoreCase(args[0])) {
             checkAndClean(persistenceService, console, args.length == 2 ? args[1] : null, false);
             return;
+        } else if (args.length == 1 && CMD_STATS.equalsIgnoreCase(args[0])) {
+            console.println(String.format("Write rate: %.1f samples/s (peak %.1f samples/s)",
+                    persistenceService.getWriteRate(), persistenceService.getPeakWriteRate()));
+            console.println("Samples written: " + persistenceService.getSamplesWritten() + " in "
+                    + persistenceService.getBatchesWritten() + " file updates");
+            console.println("Open databases: " + persistenceService.getOpenDatabaseCount() + " of "
+                    + persistenceService.getOpenDatabasesLimit());
+            return;
         }
         printUsage(console);
     }
@@ -125,7 +134,7 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
                 if (checkOnly) {
                     console.println("  - " + filename + ": no item found");
                     nb++;
-                } else if (path.toFile().delete()) {
+                } else if (releaseAndDelete(persistenceService, name, path)) {
                     console.println("  - " + filename + ": file deleted");
                     nb++;
                 } else {
@@ -136,11 +145,17 @@ public class RRD4jCommandExtension extends AbstractConsoleCommandExtension imple
         console.println(nb + " files " + (checkOnly ? "to delete." : "deleted."));
     }
 
+    private boolean releaseAndDelete(RRD4jPersistenceService persistenceService, String name, Path path) {
+        persistenceService.releaseDatabase(name);
+        return path.toFile().delete();
+    }
+
     @Override
     public List<String> getUsages() {
         return List.of(buildCommandUsage(CMD_LIST, "list Round Robin Database files"),
                 buildCommandUsage(CMD_CHECK, "check for RRD files without existing item"),
-                buildCommandUsage(CMD_CLEAN + " [<itemName>]", "delete RRD files without existing item"));
+                buildCommandUsage(CMD_CLEAN + " [<itemName>]", "delete RRD files without existing item"),
+                buildCommandUsage(CMD_STATS, "show write throughput and open databases"));
     }
 
     @Override
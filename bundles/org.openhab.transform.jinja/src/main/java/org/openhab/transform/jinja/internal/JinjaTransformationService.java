@@ -16,9 +16,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -31,12 +34,23 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
+import com.hubspot.jinjava.interpret.InterpreterException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by Jinja2 Expressions.
  *
+ * <p>
+ * Parsed templates are cached. Templates that only output a single field of <code>value_json</code>, like
+ * <code>{{ value_json.power }}</code>, are evaluated directly on the JSON tree without rendering, if the field is a
+ * string, number or boolean.
+ *
  * @author Jochen Klein - Initial contribution
  *
  */
@@ -46,7 +60,29 @@ public class JinjaTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
+    private static final int MAX_CACHED_TEMPLATES = 1000;
+    private static final String VALUE_JSON = "value_json";
+    private static final Pattern FIELD_TEMPLATE_PATTERN = Pattern
+            .compile("\\{\\{\\s*value_json((?:\\.[A-Za-z_][A-Za-z0-9_]*|\\['[^'\\\\]*'\\])*)\\s*\\}\\}");
+    private static final Pattern FIELD_PATTERN = Pattern.compile("\\.([A-Za-z_][A-Za-z0-9_]*)|\\['([^'\\\\]*)'\\]");
+
     private final Jinjava jinjava = new Jinjava();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Node> templateCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, Node> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
+
+    // the last parsed value, as several channels usually transform the same value with different templates
+    private volatile @Nullable ParsedValue lastValue;
+
+    private record ParsedValue(String value, @Nullable JsonNode tree) {
+    }
 
     /**
      * Transforms the input <code>value</code> by Jinja template.
@@ -62,19 +98,28 @@ public class JinjaTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", value, template);
 
-        bindings.put("value", value);
+        // the value is only parsed if the template uses it
+        JsonNode tree = template.contains(VALUE_JSON) ? parseJson(value) : null;
+        if (tree != null) {
+            transformationResult = renderField(template, tree);
+            if (transformationResult != null) {
+                logger.debug("transformation resulted in '{}'", transformationResult);
+                return transformationResult;
+            }
+        }
 
-        try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
-        } catch (IOException e) {
-            // ok, then value_json is null...
+        bindings.put("value", value);
+        if (tree != null) {
+            bindings.put(VALUE_JSON, toObject(tree));
         }
 
         try {
-            transformationResult = jinjava.render(template, bindings);
+            transformationResult = render(template, bindings);
         } catch (FatalTemplateErrorsException e) {
             throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
+        } catch (InterpreterException e) {
+            // reported as a fatal error by Jinjava#render
+            throw new TransformationException("An error occurred while transformation. " + e.getMessage(), e);
         }
 
         logger.debug("transformation resulted in '{}'", transformationResult);
@@ -82,6 +127,87 @@ public class JinjaTransformationService implements TransformationService {
         return transformationResult;
     }
 
+    /**
+     * Renders a template like {@link Jinjava#render(String, Map)}, but parses it only once.
+     */
+    private String render(String template, Map<String, @Nullable Object> bindings) {
+        Node root;
+        synchronized (templateCache) {
+            root = templateCache.get(template);
+        }
+
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava,
+                new Context(jinjava.getGlobalContext(), bindings), jinjava.getGlobalConfig());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            if (root == null) {
+                root = interpreter.parse(template);
+                // templates with syntax errors are parsed again, so the errors are reported each time
+                if (interpreter.getErrorsCopy().isEmpty()) {
+                    synchronized (templateCache) {
+                        templateCache.put(template, root);
+                    }
+                }
+            }
+            String output = interpreter.render(root);
+            List<TemplateError> fatalErrors = interpreter.getErrorsCopy().stream()
+                    .filter(error -> error.getSeverity() == ErrorType.FATAL).toList();
+            if (!fatalErrors.isEmpty()) {
+                throw new FatalTemplateErrorsException(template, fatalErrors);
+            }
+            return output;
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+    }
+
+    private @Nullable JsonNode parseJson(String value) {
+        ParsedValue parsed = lastValue;
+        if (parsed == null || !parsed.value().equals(value)) {
+            JsonNode tree;
+            try {
+                tree = objectMapper.readTree(value);
+            } catch (IOException e) {
+                // ok, then value_json is null...
+                tree = null;
+            }
+            parsed = new ParsedValue(value, tree);
+            lastValue = parsed;
+        }
+        return parsed.tree();
+    }
+
+    /**
+     * Evaluates a template that consists of a single field of <code>value_json</code> only.
+     *
+     * @return the output, or <code>null</code> if the template has to be rendered
+     */
+    private @Nullable String renderField(String template, JsonNode tree) {
+        Matcher templateMatcher = FIELD_TEMPLATE_PATTERN.matcher(template);
+        if (!templateMatcher.matches()) {
+            return null;
+        }
+        JsonNode node = tree;
+        Matcher fieldMatcher = FIELD_PATTERN.matcher(templateMatcher.group(1));
+        while (fieldMatcher.find()) {
+            String field = fieldMatcher.group(1) != null ? fieldMatcher.group(1) : fieldMatcher.group(2);
+            node = node.isObject() ? node.get(field) : null;
+            if (node == null) {
+                return null;
+            }
+        }
+        // everything else is left to Jinjava, which formats objects and arrays and may interpret nested templates
+        if (node.isTextual() && !node.asText().contains("{")) {
+            return node.asText();
+        } else if (node.isNumber()) {
+            String number = node.decimalValue().toString();
+            return number.equals(node.decimalValue().toPlainString()) ? number : null;
+        } else if (node.isBoolean()) {
+            return String.valueOf(node.asBoolean());
+        }
+        return null;
+    }
+
     private static @Nullable Object toObject(JsonNode node) {
         switch (node.getNodeType()) {
             case ARRAY: {
@@ -113,4 +113,38 @@ public class JinjaTransformationServiceTest {
         // then map key is defined
         assertEquals("true", transformedResponse);
     }
+
+    @Test
+    public void testFieldTemplateMatchesRenderedTemplate() throws TransformationException {
+        String json = "{\"power\":120.50,\"on\":true,\"name\":\"meter\",\"nested\":{\"big\":1e3,\"text\":\"{{ x }}\"}}";
+
+        for (String field : new String[] { "power", "on", "name", "nested.big", "nested.text", "nested",
+                "missing", "nested['text']" }) {
+            // method under test
+            String transformedResponse = processor.transform("{{ value_json." + field + " }}", json);
+
+            // Asserts, the suffix forces rendering the template
+            assertEquals(processor.transform("{{ value_json." + field + " }}{{ '' }}", json), transformedResponse);
+        }
+    }
+
+    @Test
+    public void testCachedTemplateWithChangingValues() throws TransformationException {
+        for (int i = 0; i < 3; i++) {
+            // method under test
+            String transformedResponse = processor.transform("{{ value_json.power | int * 2 }} W",
+                    "{\"power\": " + i + "}");
+
+            // Asserts
+            assertEquals((i * 2) + " W", transformedResponse);
+        }
+    }
+
+    @Test
+    public void testTemplateErrorIsReportedEachTime() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(TransformationException.class,
+                    () -> processor.transform("Hello {{{ value_json.string }}!", "{\"string\": \"world\"}"));
+        }
+    }
 }
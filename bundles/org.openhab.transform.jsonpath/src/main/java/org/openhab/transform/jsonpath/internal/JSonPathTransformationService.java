@@ -12,7 +12,9 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +26,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -39,8 +42,29 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(property = { "openhab.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    private static final int MAX_CACHED_PATHS = 1000;
+    private static final int CACHED_DOCUMENTS = 8;
+    private static final int MAX_CACHED_DOCUMENT_LENGTH = 1_000_000;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    // compiled paths by expression, guarded by itself
+    private final Map<String, JsonPath> pathCache = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonPath> eldest) {
+            return size() > MAX_CACHED_PATHS;
+        }
+    };
+
+    // the last parsed documents, replaced round-robin, so channels transforming the same source share one parse
+    private final @Nullable ParsedDocument[] documentCache = new ParsedDocument[CACHED_DOCUMENTS];
+    private int nextDocument;
+
+    private record ParsedDocument(String source, Object document) {
+    }
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -62,7 +86,7 @@ public class JSonPathTransformationService implements TransformationService {
             return null;
         }
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = getPath(jsonPathExpression).read(getDocument(source));
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -78,6 +102,42 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    private JsonPath getPath(String jsonPathExpression) {
+        synchronized (pathCache) {
+            JsonPath path = pathCache.get(jsonPathExpression);
+            if (path == null) {
+                path = JsonPath.compile(jsonPathExpression);
+                pathCache.put(jsonPathExpression, path);
+            }
+            return path;
+        }
+    }
+
+    private Object getDocument(String source) {
+        if (source.length() > MAX_CACHED_DOCUMENT_LENGTH) {
+            return parse(source);
+        }
+        synchronized (documentCache) {
+            for (ParsedDocument cached : documentCache) {
+                if (cached != null && (cached.source() == source
+                        || (cached.source().hashCode() == source.hashCode() && cached.source().equals(source)))) {
+                    return cached.document();
+                }
+            }
+        }
+        // parse outside the lock, concurrent parses of the same source only cost a duplicate cache entry
+        Object document = parse(source);
+        synchronized (documentCache) {
+            documentCache[nextDocument] = new ParsedDocument(source, document);
+            nextDocument = (nextDocument + 1) % CACHED_DOCUMENTS;
+        }
+        return document;
+    }
+
+    private Object parse(String source) {
+        return Configuration.defaultConfiguration().jsonProvider().parse(source);
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
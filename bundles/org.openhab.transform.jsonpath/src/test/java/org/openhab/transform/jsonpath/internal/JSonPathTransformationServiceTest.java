@@ -129,4 +129,21 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testMultipleExpressionsOnSameSource() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", JSON_ARRAY));
+        assertEquals("2", processor.transform("$[1].id", JSON_ARRAY));
+        assertEquals("[\"bob\", \"alice\"]", processor.transform("$[*].name", JSON_ARRAY));
+        assertEquals("bob", processor.transform("$[0].name", new String(JSON_ARRAY)));
+    }
+
+    @Test
+    public void testChangedSourceIsTransformed() throws TransformationException {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(String.valueOf(i), processor.transform("$.value", "{\"value\":" + i + "}"));
+        }
+        assertEquals("0", processor.transform("$.value", "{\"value\":0}"));
+        assertEquals("1", processor.transform("$.value", "{\"value\":1}"));
+    }
 }
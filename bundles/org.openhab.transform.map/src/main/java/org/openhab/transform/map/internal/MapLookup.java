@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.map.internal;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * An immutable lookup table parsed from a map in the {@link Properties} format, which can be used by many threads
+ * without locking.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class MapLookup {
+    private static final String SOURCE_VALUE = "_source_";
+
+    private final Map<String, String> targets;
+    private final @Nullable String defaultTarget;
+
+    private MapLookup(Map<String, String> targets) {
+        this.targets = targets;
+        this.defaultTarget = targets.get("");
+    }
+
+    /**
+     * Parses a map.
+     *
+     * @param content the map in the {@link Properties} format
+     * @return the lookup table
+     * @throws IOException if the map cannot be parsed
+     */
+    public static MapLookup parse(String content) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(content));
+        Map<String, String> targets = new HashMap<>();
+        properties.forEach((key, value) -> targets.put((String) key, (String) value));
+        return new MapLookup(Map.copyOf(targets));
+    }
+
+    /**
+     * Looks up the target of a source value. If there is none, the default target (the one of the empty key) is
+     * returned, or the source itself if the default target is <code>_source_</code>.
+     *
+     * @param source the source value
+     * @return the target value, <code>null</code> if there is neither a target nor a default target
+     */
+    public @Nullable String get(String source) {
+        String target = targets.get(source);
+        if (target != null) {
+            return target;
+        }
+        String localDefaultTarget = defaultTarget;
+        return SOURCE_VALUE.equals(localDefaultTarget) ? source : localDefaultTarget;
+    }
+
+    @Override
+    public String toString() {
+        return targets.toString();
+    }
+}
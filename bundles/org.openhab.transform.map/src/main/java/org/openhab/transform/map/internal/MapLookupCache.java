@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.map.internal;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A bounded cache of {@link MapLookup}s with lock-free reads.
+ *
+ * Entries are evicted with a second chance policy: an entry that has been read since it was added or since the last
+ * eviction sweep survives the next sweep. New entries are not marked as read, so maps that are used only once are
+ * evicted before frequently used ones.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class MapLookupCache {
+    private final int maxEntries;
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+
+    private static class CacheEntry {
+        private final MapLookup lookup;
+        private volatile boolean referenced;
+
+        private CacheEntry(MapLookup lookup) {
+            this.lookup = lookup;
+        }
+    }
+
+    public MapLookupCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached lookup table for a key, loading it if it is not cached.
+     *
+     * @param key the key
+     * @param loader loads the lookup table, returns <code>null</code> if it cannot be loaded
+     * @return the lookup table, <code>null</code> if it is not cached and cannot be loaded
+     */
+    public @Nullable MapLookup get(String key, Function<String, @Nullable MapLookup> loader) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.lookup;
+        }
+        MapLookup lookup = loader.apply(key);
+        if (lookup == null) {
+            return null;
+        }
+        CacheEntry existing = entries.putIfAbsent(key, new CacheEntry(lookup));
+        if (existing != null) {
+            return existing.lookup;
+        }
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+        return lookup;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            // after two sweeps all marks have been cleared, unless they are set again concurrently
+            for (int sweep = 0; entries.size() > maxEntries; sweep++) {
+                Iterator<CacheEntry> iterator = entries.values().iterator();
+                while (iterator.hasNext() && entries.size() > maxEntries) {
+                    CacheEntry entry = iterator.next();
+                    if (entry.referenced && sweep < 2) {
+                        entry.referenced = false;
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+}
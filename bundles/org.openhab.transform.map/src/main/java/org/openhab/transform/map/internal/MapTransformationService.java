@@ -13,14 +13,10 @@
 package org.openhab.transform.map.internal;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.net.URI;
 import java.util.Collection;
-import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
@@ -47,6 +43,10 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The implementation of {@link TransformationService} which simply maps strings to other strings
  *
+ * <p>
+ * Maps are parsed once into immutable {@link MapLookup}s. Maps of the {@link TransformationRegistry} are parsed again
+ * when the registry reports an update.
+ *
  * @author Kai Kreuzer - Initial contribution and API
  * @author Gaël L'hopital - Make it localizable
  * @author Jan N. Klug - Refactored to use {@link TransformationRegistry}
@@ -56,7 +56,6 @@ import org.slf4j.LoggerFactory;
         "openhab.transform=MAP" })
 public class MapTransformationService
         implements TransformationService, ConfigOptionProvider, RegistryChangeListener<Transformation> {
-    private static final String SOURCE_VALUE = "_source_";
     private static final String PROFILE_CONFIG_URI = "profile:transform:MAP";
     private static final String CONFIG_PARAM_FUNCTION = "function";
     private static final Set<String> SUPPORTED_CONFIGURATION_TYPES = Set.of("map");
@@ -64,8 +63,8 @@ public class MapTransformationService
 
     private final Logger logger = LoggerFactory.getLogger(MapTransformationService.class);
     private final TransformationRegistry transformationRegistry;
-    private final Map<String, Properties> cachedTransformations = new ConcurrentHashMap<>();
-    private final Map<String, Properties> cachedInlineMap = new LRUMap<>(1000);
+    private final Map<String, MapLookup> cachedTransformations = new ConcurrentHashMap<>();
+    private final MapLookupCache cachedInlineMap = new MapLookupCache(1000);
 
     @Activate
     public MapTransformationService(@Reference TransformationRegistry transformationRegistry) {
@@ -80,46 +79,39 @@ public class MapTransformationService
 
     @Override
     public @Nullable String transform(String function, String source) throws TransformationException {
-        Properties properties = null;
+        MapLookup lookup = null;
 
         Matcher matcher = INLINE_MAP_CONFIG_PATTERN.matcher(function);
         if (matcher.matches()) {
-            properties = cachedInlineMap.computeIfAbsent(function, f -> {
-                Properties props = new Properties();
+            lookup = cachedInlineMap.get(function, f -> {
                 String map = matcher.group("map").trim();
                 if (!map.contains("\n")) {
                     map = map.replace(";", "\n");
                 }
                 try {
-                    props.load(new StringReader(map));
-                    logger.trace("Parsed inline map configuration '{}'", props);
+                    MapLookup inlineMap = MapLookup.parse(map);
+                    logger.trace("Parsed inline map configuration '{}'", inlineMap);
+                    return inlineMap;
                 } catch (IOException e) {
                     logger.warn("Failed to parse inline map configuration '{}': {}", map, e.getMessage());
                     return null;
                 }
-                return props;
             });
         } else {
             // always get a configuration from the registry to account for changed system locale
             Transformation transformation = transformationRegistry.get(function, null);
             if (transformation != null) {
-                properties = cachedTransformations.get(transformation.getUID());
-                if (properties == null) {
-                    properties = importConfiguration(transformation);
+                lookup = cachedTransformations.get(transformation.getUID());
+                if (lookup == null) {
+                    lookup = importConfiguration(transformation);
                 }
             }
         }
 
-        if (properties != null) {
-            String target = properties.getProperty(source);
-
+        if (lookup != null) {
+            String target = lookup.get(source);
             if (target == null) {
-                target = properties.getProperty("");
-                if (target == null) {
-                    throw new TransformationException("Target value not found in map for '" + source + "'");
-                } else if (SOURCE_VALUE.equals(target)) {
-                    target = source;
-                }
+                throw new TransformationException("Target value not found in map for '" + source + "'");
             }
 
             logger.debug("Transformation resulted in '{}'", target);
@@ -158,34 +150,20 @@ public class MapTransformationService
         }
     }
 
-    private @Nullable Properties importConfiguration(@Nullable Transformation transformation) {
+    private @Nullable MapLookup importConfiguration(@Nullable Transformation transformation) {
         if (transformation != null) {
             try {
-                Properties properties = new Properties();
                 String function = transformation.getConfiguration().get(Transformation.FUNCTION);
                 if (function == null || function.isBlank()) {
                     logger.warn("Function not defined for transformation '{}'", transformation.getUID());
                     return null;
                 }
-                properties.load(new StringReader(function));
-                cachedTransformations.put(transformation.getUID(), properties);
-                return properties;
+                MapLookup lookup = MapLookup.parse(function);
+                cachedTransformations.put(transformation.getUID(), lookup);
+                return lookup;
             } catch (IOException ignored) {
             }
         }
         return null;
     }
-
-    class LRUMap<K, V> extends LinkedHashMap<K, V> {
-        private final int maxEntries;
-
-        public LRUMap(int maxEntries) {
-            super(10, 0.75f, true);
-            this.maxEntries = maxEntries;
-        }
-
-        protected boolean removeEldestEntry(@Nullable Entry<K, V> eldest) {
-            return size() > maxEntries;
-        }
-    }
 }
@@ -20,9 +20,14 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.junit.jupiter.api.BeforeEach;
@@ -176,4 +181,49 @@ public class MapTransformationServiceTest extends JavaTest {
         String transformation = "|key1=value1;key2=value;=_source_";
         assertEquals("nonexistent", processor.transform(transformation, "nonexistent"));
     }
+
+    @Test
+    public void concurrentInlineMapTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    // more distinct maps than cached, so entries are evicted while others are read
+                    for (int i = 0; i < 3000; i++) {
+                        String transformation = "|key=value" + i + ";=default";
+                        assertEquals("value" + i, processor.transform(transformation, "key"));
+                        assertEquals("default", processor.transform(transformation, "other"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void mapLookupCacheIsBounded() {
+        MapLookupCache cache = new MapLookupCache(10);
+        MapLookup frequentlyUsed = Objects.requireNonNull(cache.get("frequent", key -> parse("a=b")));
+
+        for (int i = 0; i < 100; i++) {
+            cache.get("|" + i, key -> parse("a=" + key));
+            assertSame(frequentlyUsed, cache.get("frequent", key -> parse("a=c")));
+        }
+
+        assertEquals(10, cache.size());
+    }
+
+    private MapLookup parse(String map) {
+        try {
+            return MapLookup.parse(map);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -75,4 +75,37 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_cachedExpression() throws TransformationException {
+        String regex = ".*?<current_conditions>.*?<temp_c data=\"(.*?)\".*";
+
+        // method under test
+        assertEquals("8", processor.transform(regex, source));
+        assertEquals("8", processor.transform(regex, source));
+        assertEquals("12Y54", processor.transform("s/([A-Z]+)([0-9]+),*/$2/", "X12,Y54"));
+        assertEquals("1254", processor.transform("s/([A-Z]+)([0-9]+),*/$2/g", "X12,Y54"));
+
+        // Asserts
+        assertEquals(1, processor.getCacheHits());
+        assertEquals(3, processor.getCacheMisses());
+    }
+
+    @Test
+    public void testTransformByRegex_cachedSubstitutionMatchesStringReplace() throws TransformationException {
+        String[] sources = { "X12,Y54", "  a1b2c3  ", "", "no match" };
+
+        for (String value : sources) {
+            for (int i = 0; i < 2; i++) {
+                // method under test
+                assertEquals(value.trim().replaceAll("([a-zA-Z]+)([0-9]+),*", "$2$1"),
+                        processor.transform("s/([a-zA-Z]+)([0-9]+),*/$2$1/g", value));
+                assertEquals(value.trim().replaceFirst("([a-zA-Z]+)([0-9]+),*", "$2$1"),
+                        processor.transform("s/([a-zA-Z]+)([0-9]+),*/$2$1/", value));
+            }
+        }
+
+        // Asserts
+        assertEquals(2, processor.getCacheMisses());
+    }
 }
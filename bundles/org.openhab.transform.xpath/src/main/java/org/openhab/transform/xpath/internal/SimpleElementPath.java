@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2024 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.io.StringReader;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * An absolute XPath of element names, optionally followed by an attribute, e.g. <code>/root/node</code> or
+ * <code>/root/node/@val</code>, which is evaluated on the stream of parser events instead of a DOM.
+ *
+ * Like the XPath <code>string()</code> function, the result is the string value of the first matching node in
+ * document order, or an empty string if there is none. The names only match elements and attributes without a
+ * namespace, as in a namespace aware XPath without prefixes.
+ *
+ * @author Tobias Brenner - Initial contribution
+ */
+@NonNullByDefault
+public class SimpleElementPath {
+
+    private static final Pattern SIMPLE_PATH = Pattern
+            .compile("(/[A-Za-z_][A-Za-z0-9_.-]*)+(/@[A-Za-z_][A-Za-z0-9_.-]*)?");
+
+    private final String[] elements;
+    private final @Nullable String attribute;
+
+    private SimpleElementPath(String[] elements, @Nullable String attribute) {
+        this.elements = elements;
+        this.attribute = attribute;
+    }
+
+    /**
+     * Parses an XPath expression.
+     *
+     * @param expression the XPath expression
+     * @return the path, or <code>null</code> if the expression is not a simple element path
+     */
+    public static @Nullable SimpleElementPath parse(String expression) {
+        if (!SIMPLE_PATH.matcher(expression).matches()) {
+            return null;
+        }
+        String[] steps = expression.substring(1).split("/");
+        String lastStep = steps[steps.length - 1];
+        if (lastStep.startsWith("@")) {
+            String[] elements = new String[steps.length - 1];
+            System.arraycopy(steps, 0, elements, 0, elements.length);
+            return new SimpleElementPath(elements, lastStep.substring(1));
+        }
+        return new SimpleElementPath(steps, null);
+    }
+
+    /**
+     * Evaluates the path on a document. The whole document is read, so malformed documents are rejected like by a
+     * DOM parser.
+     *
+     * @param factory the factory to create the stream reader with
+     * @param source the document
+     * @return the string value of the first matching node, an empty string if there is none
+     * @throws XMLStreamException if the document cannot be parsed
+     */
+    public String evaluate(XMLInputFactory factory, String source) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(source));
+        try {
+            String result = null;
+            StringBuilder text = null;
+            int depth = 0;
+            // the depth up to which the open elements match the path
+            int matchedDepth = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        if (matchedDepth == depth - 1 && depth <= elements.length
+                                && elements[depth - 1].equals(reader.getLocalName())
+                                && isEmpty(reader.getNamespaceURI())) {
+                            matchedDepth = depth;
+                            if (depth == elements.length && result == null && text == null) {
+                                String localAttribute = attribute;
+                                if (localAttribute == null) {
+                                    text = new StringBuilder();
+                                } else {
+                                    result = getAttributeValue(reader, localAttribute);
+                                }
+                            }
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (text != null && result == null) {
+                            text.append(reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (matchedDepth == depth) {
+                            if (depth == elements.length && text != null && result == null) {
+                                result = text.toString();
+                            }
+                            matchedDepth--;
+                        }
+                        depth--;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return result == null ? "" : result;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static @Nullable String getAttributeValue(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (name.equals(reader.getAttributeLocalName(i)) && isEmpty(reader.getAttributeNamespace(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isEmpty(@Nullable String namespace) {
+        return namespace == null || namespace.isEmpty();
+    }
+}
@@ -13,12 +13,19 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,14 +42,24 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Parsers and compiled expressions are not thread-safe, so they are kept in a pool of {@link XPathContext}s, one of
+ * which is used per transformation. Simple element paths like <code>/root/node/@val</code> are evaluated with a
+ * streaming parser, without building a DOM.
+ *
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    private static final int MAX_POOLED_CONTEXTS = 8;
+    private static final int MAX_CACHED_EXPRESSIONS = 100;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final BlockingQueue<XPathContext> contextPool = new ArrayBlockingQueue<>(MAX_POOLED_CONTEXTS);
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,9 +68,43 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
-
+        XPathContext context = contextPool.poll();
         try {
+            if (context == null) {
+                context = new XPathContext();
+            }
+            String transformationResult = context.evaluate(xpathExpression, source);
+
+            logger.debug("transformation resulted in '{}'", transformationResult);
+
+            return transformationResult;
+        } catch (Exception e) {
+            throw new TransformationException("transformation throws exceptions", e);
+        } finally {
+            if (context != null) {
+                // dropped if the pool is full
+                contextPool.offer(context);
+            }
+        }
+    }
+
+    /**
+     * The parsers and compiled expressions used by one transformation at a time.
+     */
+    private static class XPathContext {
+        private final DocumentBuilder builder;
+        private final XPath xpath = XPathFactory.newInstance().newXPath();
+        private final XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+        private final Map<String, CompiledExpression> expressionCache = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, CompiledExpression> eldest) {
+                return size() > MAX_CACHED_EXPRESSIONS;
+            }
+        };
+
+        XPathContext() throws ParserConfigurationException {
             DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
             // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
             domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
@@ -63,28 +114,51 @@ public class XPathTransformationService implements TransformationService {
             domFactory.setExpandEntityReferences(false);
             domFactory.setNamespaceAware(true);
             domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            builder = domFactory.newDocumentBuilder();
 
-            stringReader = new StringReader(source);
-            InputSource inputSource = new InputSource(stringReader);
-            inputSource.setEncoding("UTF-8");
+            // documents with a DTD are parsed into a DOM, so the streaming parser does not need to support them
+            inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        }
 
-            Document doc = builder.parse(inputSource);
+        String evaluate(String xpathExpression, String source) throws Exception {
+            CompiledExpression compiled = expressionCache.get(xpathExpression);
+            if (compiled == null) {
+                compiled = compile(xpathExpression);
+                expressionCache.put(xpathExpression, compiled);
+            }
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            SimpleElementPath path = compiled.path();
+            if (path != null && !source.contains("<!DOCTYPE")) {
+                return path.evaluate(inputFactory, source);
+            }
 
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            XPathExpression expression = compiled.expression();
+            if (expression == null) {
+                expression = xpath.compile(xpathExpression);
+                compiled = new CompiledExpression(path, expression);
+                expressionCache.put(xpathExpression, compiled);
+            }
 
-            logger.debug("transformation resulted in '{}'", transformationResult);
+            builder.reset();
+            InputSource inputSource = new InputSource(new StringReader(source));
+            inputSource.setEncoding("UTF-8");
+            Document doc = builder.parse(inputSource);
 
-            return transformationResult;
-        } catch (Exception e) {
-            throw new TransformationException("transformation throws exceptions", e);
-        } finally {
-            if (stringReader != null) {
-                stringReader.close();
-            }
+            return (String) expression.evaluate(doc, XPathConstants.STRING);
         }
+
+        private CompiledExpression compile(String xpathExpression) throws XPathExpressionException {
+            SimpleElementPath path = SimpleElementPath.parse(xpathExpression);
+            // simple paths are only compiled if a document needs to be parsed into a DOM
+            return new CompiledExpression(path, path == null ? xpath.compile(xpathExpression) : null);
+        }
+    }
+
+    /**
+     * An expression compiled to a {@link SimpleElementPath}, an {@link XPathExpression} or both.
+     */
+    private record CompiledExpression(@Nullable SimpleElementPath path, @Nullable XPathExpression expression) {
     }
 }
@@ -38,4 +38,45 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformBySimplePath() throws TransformationException {
+        // method under test
+        String attribute = processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@data", source);
+        String element = processor.transform("/xml_api_reply/weather/forecast_information", source);
+        String missing = processor.transform("/xml_api_reply/weather/missing", source);
+
+        // Asserts
+        assertEquals("8", attribute);
+        assertEquals("", element);
+        assertEquals("", missing);
+    }
+
+    @Test
+    public void testTransformBySimplePathMatchesXPath() throws TransformationException {
+        String xml = "<root><node val=\"1\">a<b>b</b><![CDATA[<c>]]>&amp;</node><node val=\"2\" other=\"3\"/></root>";
+
+        // method under test
+        assertEquals(processor.transform("/root/node[1]", xml), processor.transform("/root/node", xml));
+        assertEquals(processor.transform("/root/node[1]/@val", xml), processor.transform("/root/node/@val", xml));
+        assertEquals(processor.transform("/root/node[2]/@other", xml), processor.transform("/root/node/@other", xml));
+
+        // Asserts
+        assertEquals("ab<c>&", processor.transform("/root/node", xml));
+    }
+
+    @Test
+    public void testTransformBySimplePathIgnoresNamespacedElements() throws TransformationException {
+        // method under test
+        String transformedResponse = processor.transform("/root/node",
+                "<root xmlns=\"urn:test\"><node>1</node></root>");
+
+        // Asserts
+        assertEquals("", transformedResponse);
+    }
+
+    @Test
+    public void testTransformBySimplePathRejectsMalformedDocument() {
+        assertThrows(TransformationException.class, () -> processor.transform("/root/node", "<root><node>1</node>"));
+    }
 }
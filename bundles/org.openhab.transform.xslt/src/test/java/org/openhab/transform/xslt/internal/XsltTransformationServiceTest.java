@@ -14,9 +14,16 @@ package org.openhab.transform.xslt.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.transform.TransformationException;
+import org.openhab.core.transform.TransformationService;
 
 /**
  * @author Thomas.Eichstaedt-Engelen - Initial contribution
@@ -38,4 +45,44 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByCachedXSLT() throws TransformationException {
+        // method under test
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+    }
+
+    @Test
+    public void testTransformByModifiedXSLT() throws TransformationException, IOException {
+        Path xsl = Path.of(OpenHAB.getConfigFolder(), TransformationService.TRANSFORM_FOLDER_NAME,
+                "modified_test.xsl");
+        try {
+            Files.writeString(xsl, stylesheet("temp_c"));
+            assertEquals("8", processor.transform("modified_test.xsl", source));
+
+            Files.writeString(xsl, stylesheet("temp_f"));
+            Files.setLastModifiedTime(xsl, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+            // method under test
+            String transformedResponse = processor.transform("modified_test.xsl", source);
+
+            // Asserts
+            assertEquals("46", transformedResponse);
+        } finally {
+            Files.deleteIfExists(xsl);
+        }
+    }
+
+    private String stylesheet(String element) {
+        return """
+                <?xml version="1.0"?>
+                <xsl:stylesheet version="1.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+                    <xsl:output method="text"/>
+                    <xsl:template match="/">
+                        <xsl:value-of select="//current_conditions/%s/@data"/>
+                    </xsl:template>
+                </xsl:stylesheet>
+                """.formatted(element);
+    }
 }